@@ -1,33 +1,77 @@
 package controller;
 
 import model.*;
+import model.analysis.EffortEngine;
+import model.analysis.OverlapEngine;
+import model.analysis.OverlapList;
+import model.analysis.ParallelAnalysis;
+import model.analysis.PortfolioAnalysis;
+import model.analysis.ResourceContentionIndex;
+import model.analysis.TaskIdIndex;
+import model.analysis.TaskResourceIndex;
+import model.analysis.WorkingCalendar;
+import model.storage.DatabaseStorage;
+import java.util.function.Consumer;
 import java.util.*;
 
 public class AnalysisController {
 
+    /**
+     * Sets how many worker threads the analyses may use; 1 runs them on the
+     * calling thread. Results are the same at any setting.
+     */
+    public static void setParallelism(int parallelism) {
+        ParallelAnalysis.setDefaultParallelism(parallelism);
+    }
+
+    public static int getParallelism() {
+        return ParallelAnalysis.getDefault().getParallelism();
+    }
+
+    /**
+     * Loads and analyses every project in the database, up to
+     * {@code concurrency} at a time, passing each report to {@code onReport}
+     * as soon as its project is done.
+     */
+    public static PortfolioAnalysis.Summary analyzePortfolio(DatabaseStorage storage, int concurrency,
+                                                             Consumer<PortfolioAnalysis.ProjectReport> onReport) throws Exception {
+        return new PortfolioAnalysis(concurrency).run(storage.loadProjectNamesFromDatabase(),
+            storage::loadProjectFromDatabase, onReport);
+    }
+
+    // Windows in which a resource is booked above 100% by two or more stored projects
+    public static List<String> getCrossProjectContention(DatabaseStorage storage) throws Exception {
+        List<String> out = new ArrayList<>();
+        for (ResourceContentionIndex.Contention c : storage.getContentionIndex().contentions()) out.add(c.toString());
+        return out;
+    }
+
     public static String getProjectCompletionDate(List<Task> tasks) {
         if (tasks == null || tasks.isEmpty()) return "No tasks available.";
         Task last = tasks.get(0);
         for (Task t : tasks) {
-            if (t.getEnd().compareTo(last.getEnd()) > 0) last = t;
+            if (t.getEndMillis() > last.getEndMillis()) last = t;
         }
         return last.getEnd();
     }
 
+    // Descriptions are formatted lazily, as the list is read
     public static List<String> getOverlappingTasks(List<Task> tasks) {
-        List<String> overlaps = new ArrayList<>();
-        if (tasks == null) return overlaps;
-        
-        for (int i = 0; i < tasks.size(); i++) {
-            Task t1 = tasks.get(i);
-            for (int j = i + 1; j < tasks.size(); j++) {
-                Task t2 = tasks.get(j);
-                if (t1.overlapsWith(t2)) {
-                    overlaps.add(t1.getTitle() + " ↔ " + t2.getTitle());
-                }
-            }
-        }
-        return overlaps;
+        if (tasks == null || tasks.size() < 2) return new ArrayList<>();
+        return new OverlapList(ParallelAnalysis.getDefault().overlapPairs(tasks), tasks,
+            (t1, t2) -> t1.getTitle() + " ↔ " + t2.getTitle());
+    }
+
+    // Allocation-free alternative: visits each overlapping pair of task positions, in no particular order
+    public static void forEachOverlappingPair(List<Task> tasks, OverlapEngine.PairVisitor visitor) {
+        if (tasks == null || tasks.size() < 2) return;
+        OverlapEngine.forTasks(tasks).forEachPair(visitor);
+    }
+
+    // Count-only variant for when the full pair list would be too large
+    public static long countOverlappingTasks(List<Task> tasks) {
+        if (tasks == null || tasks.size() < 2) return 0;
+        return ParallelAnalysis.getDefault().countOverlaps(tasks);
     }
 
     public static List<String> getTeamForTask(int taskId, List<Resource> resources) {
@@ -35,24 +79,39 @@ public class AnalysisController {
         if (resources == null) return team;
         
         for (Resource r : resources) {
-            for (Allocation alloc : r.getAllocations()) {
-                if (alloc.getTaskId() == taskId) {
-                    team.add(r.getName());
-                    break;
-                }
-            }
+            if (r.isAllocatedTo(taskId)) team.add(r.getName());
         }
         return team;
     }
 
+    /**
+     * Same result as {@link #getTeamForTask(int, List)}, read from an inverted
+     * index so a whole team view costs O(output) instead of O(tasks·allocations).
+     */
+    public static List<String> getTeamForTask(int taskId, TaskResourceIndex index) {
+        List<String> team = new ArrayList<>();
+        for (Resource r : index.resourcesFor(taskId)) team.add(r.getName());
+        return team;
+    }
+
+    /**
+     * Working hours per resource: each allocated task's working time on the
+     * standard calendar (Mon-Fri, 09:00-17:00) times the allocation's load.
+     * Resources sharing a name are summed; the map keeps resource order.
+     */
     public static Map<String, Long> getEffortHoursPerResource(List<Resource> resources, List<Task> tasks) {
-        Map<String, Long> map = new HashMap<>();
-        if (resources == null) return map;
-        
-        for (Resource r : resources) {
-            long hrs = r.getAllocations().size() * 8; // each task = 8 hrs
-            map.put(r.getName(), hrs);
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (EffortEngine.Effort e : getEffortPerResource(resources, tasks, WorkingCalendar.standard())) {
+            map.merge(e.getResourceName(), Math.round(e.getHours()), Long::sum);
         }
         return map;
     }
-}
\ No newline at end of file
+
+    /** Effort per resource, in resource order, with weekly and monthly breakdowns. */
+    public static List<EffortEngine.Effort> getEffortPerResource(List<Resource> resources, List<Task> tasks,
+                                                                 WorkingCalendar calendar) {
+        if (resources == null) return new ArrayList<>();
+        TaskIdIndex byId = TaskIdIndex.build(tasks != null ? tasks : new ArrayList<>());
+        return ParallelAnalysis.getDefault().effort(resources, byId::get, calendar);
+    }
+}
@@ -1,7 +1,18 @@
 package controller;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
 import model.*;
+import model.analysis.DependencyGraph;
+import model.analysis.TaskIdIndex;
+import model.storage.CsvTokenizer;
 import java.util.*;
 
 public class FileController {
@@ -13,43 +24,154 @@ public class FileController {
     // --- Load tasks from file (with parsing errors captured) ---
     public static ParseResult<Task> loadTasksWithErrors(String filePath) {
         ParseResult<Task> res = new ParseResult<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            int ln = 0;
-            while ((line = br.readLine()) != null) {
-                ln++;
-                String trimmed = line.trim();
-                if (trimmed.isEmpty()) continue; // skip empty lines
-                if (!Character.isDigit(trimmed.charAt(0))) continue;
-                List<String> parts = parseCsvLine(line);
-                if (parts.size() < 4) {
-                    res.errors.add("Line " + ln + ": not enough fields (expected id,title,start,end,...)");
+        try (CsvTokenizer csv = new CsvTokenizer(new FileReader(filePath))) {
+            parseTasks(csv).addTo(res, 0);
+        } catch (Exception e) {
+            res.errors.add("Error reading tasks file: " + e.getMessage());
+        }
+        return res;
+    }
+
+    // Files at least this large are worth importing with loadTasksMapped
+    public static final long MAPPED_IMPORT_MIN_BYTES = 64L << 20;
+    // bytes per chunk of a mapped import; several chunks per core even out uneven lines
+    private static final long MIN_CHUNK = 1L << 20;
+    private static final long MAX_CHUNK = 64L << 20;
+
+    /**
+     * Same result as loadTasksWithErrors, for multi-GB files: the file is
+     * memory-mapped in line-aligned chunks that are decoded and parsed in
+     * parallel, then merged in file order with file-wide line numbers.
+     * Assumes an ASCII-compatible charset (e.g. UTF-8), so a '\n' byte always ends a line.
+     */
+    public static ParseResult<Task> loadTasksMapped(String filePath) {
+        ParseResult<Task> res = new ParseResult<>();
+        try (FileChannel channel = FileChannel.open(new File(filePath).toPath(), StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel, Runtime.getRuntime().availableProcessors() * 4);
+            Charset charset = Charset.defaultCharset();
+            TaskChunk[] chunks = new TaskChunk[bounds.length - 1];
+            IntStream.range(0, chunks.length).parallel()
+                .forEach(c -> chunks[c] = parseChunk(channel, bounds[c], bounds[c + 1], charset));
+            int total = 0;
+            for (TaskChunk c : chunks) total += c.items.size();
+            ((ArrayList<Task>) res.items).ensureCapacity(total);
+            int line = 0;
+            for (TaskChunk c : chunks) {
+                c.addTo(res, line);
+                line += c.lines;
+            }
+        } catch (UncheckedIOException e) {
+            res.errors.add("Error reading tasks file: " + e.getCause().getMessage());
+        } catch (Exception e) {
+            res.errors.add("Error reading tasks file: " + e.getMessage());
+        }
+        return res;
+    }
+
+    /** Splits the file into about {@code target} chunks, each ending just after a '\n' (or at the end). */
+    private static long[] chunkBounds(FileChannel channel, int target) throws IOException {
+        long size = channel.size();
+        long chunk = Math.min(MAX_CHUNK, Math.max(MIN_CHUNK, size / target));
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        long pos = 0;
+        while (size - pos > chunk) {
+            long next = nextLineStart(channel, pos + chunk, size, probe);
+            if (next >= size) break;
+            bounds.add(next);
+            pos = next;
+        }
+        bounds.add(size);
+        long[] out = new long[bounds.size()];
+        for (int i = 0; i < out.length; i++) out[i] = bounds.get(i);
+        return out;
+    }
+
+    private static long nextLineStart(FileChannel channel, long from, long size, ByteBuffer probe) throws IOException {
+        long pos = from;
+        while (pos < size) {
+            probe.clear();
+            int r = channel.read(probe, pos);
+            if (r <= 0) break;
+            for (int i = 0; i < r; i++) {
+                if (probe.get(i) == '\n') return pos + i + 1;
+            }
+            pos += r;
+        }
+        return size;
+    }
+
+    private static TaskChunk parseChunk(FileChannel channel, long from, long to, Charset charset) {
+        try {
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+            CharBuffer chars = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                .decode(bytes);
+            return parseTasks(new CsvTokenizer(chars.array(), chars.limit(), ',', true));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Tasks and errors of one run of lines, with line numbers counted from the run's start. */
+    private static final class TaskChunk {
+        final List<Task> items = new ArrayList<>();
+        final List<String> errors = new ArrayList<>();
+        int[] errorLines = new int[4];
+        int lines;
+
+        void error(int line, String message) {
+            if (errors.size() == errorLines.length) errorLines = Arrays.copyOf(errorLines, errorLines.length * 2);
+            errorLines[errors.size()] = line;
+            errors.add(message);
+        }
+
+        /** Appends to res, numbering the lines after {@code firstLine} lines of earlier chunks. */
+        void addTo(ParseResult<Task> res, int firstLine) {
+            res.items.addAll(items);
+            for (int i = 0; i < errors.size(); i++) {
+                res.errors.add("Line " + (firstLine + errorLines[i]) + ": " + errors.get(i));
+            }
+        }
+    }
+
+    private static TaskChunk parseTasks(CsvTokenizer csv) throws IOException {
+        TaskChunk out = new TaskChunk();
+        StringBuilder deps = new StringBuilder();
+        while (csv.nextLine()) {
+            int ln = csv.lineNumber();
+            char first = csv.firstChar();
+            if (first == 0) continue; // skip empty lines
+            if (!Character.isDigit(first)) continue;
+            if (csv.fieldCount() < 4) {
+                out.error(ln, "not enough fields (expected id,title,start,end,...)");
+                continue;
+            }
+            try {
+                long id = csv.intField(0);
+                if (id == Long.MIN_VALUE) {
+                    out.error(ln, "invalid id '" + csv.field(0) + "'");
                     continue;
                 }
-                try {
-                    int id = Integer.parseInt(parts.get(0).trim());
-                    String title = parts.get(1).trim();
-                    String start = parts.get(2).trim();
-                    String end = parts.get(3).trim();
-                    StringBuilder deps = new StringBuilder();
-                    for (int i = 4; i < parts.size(); i++) {
-                        String tok = parts.get(i).trim();
-                        if (!tok.isEmpty()) {
-                            if (deps.length() > 0) deps.append(", ");
-                            deps.append(tok);
-                        }
+                String title = csv.field(1);
+                String start = csv.field(2);
+                String end = csv.field(3);
+                deps.setLength(0);
+                for (int i = 4; i < csv.fieldCount(); i++) {
+                    if (!csv.isEmpty(i)) {
+                        if (deps.length() > 0) deps.append(", ");
+                        csv.appendField(i, deps);
                     }
-                    res.items.add(new Task(id, title, start, end, deps.toString()));
-                } catch (NumberFormatException nfe) {
-                    res.errors.add("Line " + ln + ": invalid id '" + parts.get(0).trim() + "'");
-                } catch (Exception ex) {
-                    res.errors.add("Line " + ln + ": unexpected parse error: " + ex.getMessage());
                 }
+                out.items.add(new Task((int) id, title, start, end, deps.toString()));
+            } catch (Exception ex) {
+                out.error(ln, "unexpected parse error: " + ex.getMessage());
             }
-        } catch (Exception e) {
-            res.errors.add("Error reading tasks file: " + e.getMessage());
         }
-        return res;
+        out.lines = csv.lineNumber();
+        return out;
     }
 
     public static List<Task> loadTasks(String filePath) {
@@ -61,71 +183,36 @@ public class FileController {
         return pr.items;
     }
 
-    // Parse a CSV line into fields supporting quoted fields with commas
-    private static List<String> parseCsvLine(String line) {
-        List<String> out = new ArrayList<>();
-        if (line == null || line.isEmpty()) return out;
-        StringBuilder cur = new StringBuilder();
-        boolean inQuotes = false;
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-            if (c == '"') {
-                // toggle inQuotes (handle escaped quotes "")
-                if (inQuotes && i+1 < line.length() && line.charAt(i+1) == '"') {
-                    cur.append('"');
-                    i++; // skip escaped quote
-                } else {
-                    inQuotes = !inQuotes;
-                }
-            } else if (c == ',' && !inQuotes) {
-                out.add(cur.toString()); cur.setLength(0);
-            } else {
-                cur.append(c);
-            }
-        }
-        out.add(cur.toString());
-        return out;
-    }
-
     // --- Load resources from file ---
     public static List<Resource> loadResources(String filePath) {
         List<Resource> resources = new ArrayList<>();
 
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            String line;
-
-            while ((line = br.readLine()) != null) {
-                String trimmed = line.trim();
-                if (trimmed.isEmpty()) continue;
+        // name first, then taskId:load pairs; quotes are taken literally
+        try (CsvTokenizer csv = new CsvTokenizer(new FileReader(filePath), ',', false)) {
+            while (csv.nextLine()) {
+                if (csv.isBlank()) continue;
                 // skip header/comment lines
-                if (trimmed.startsWith("-") || trimmed.startsWith("#") || trimmed.startsWith("//")) continue;
+                if (csv.lineStartsWith("-") || csv.lineStartsWith("#") || csv.lineStartsWith("//")) continue;
 
-                // split only first comma for name, rest are allocations
-                String[] parts = line.split(",", 2);
-                String name = parts[0].trim();
-                    String allocationsStr = (parts.length > 1) ? parts[1].trim() : "";
-                    List<Allocation> allocations = new ArrayList<>();
-                    if (!allocationsStr.isEmpty()) {
-                        String[] allocParts = allocationsStr.split(",");
-                        for (String alloc : allocParts) {
-                            alloc = alloc.trim();
-                            if (!alloc.isEmpty()) {
-                                String[] pair = alloc.split(":");
-                                if (pair.length == 2) {
-                                    try {
-                                        int taskId = Integer.parseInt(pair[0].trim());
-                                        int load = Integer.parseInt(pair[1].trim());
-                                        allocations.add(new Allocation(taskId, load));
-                                    } catch (NumberFormatException e) {
-                                        System.err.println("Invalid allocation value: " + alloc);
-                                    }
-                                } else {
-                                    System.err.println("Invalid allocation format: " + alloc);
-                                }
-                            }
-                        }
+                String name = csv.field(0);
+                List<Allocation> allocations = new ArrayList<>();
+                for (int i = 1; i < csv.fieldCount(); i++) {
+                    if (csv.isEmpty(i)) continue;
+                    int colon = csv.indexOf(i, ':');
+                    int len = csv.length(i);
+                    if (colon < 0 || csv.lastIndexOf(i, ':') != colon) {
+                        System.err.println("Invalid allocation format: " + csv.field(i));
+                        continue;
                     }
-                    resources.add(new Resource(name, allocations));
+                    long taskId = csv.parseInt(i, 0, colon);
+                    long load = csv.parseInt(i, colon + 1, len);
+                    if (taskId == Long.MIN_VALUE || load == Long.MIN_VALUE) {
+                        System.err.println("Invalid allocation value: " + csv.field(i));
+                        continue;
+                    }
+                    allocations.add(new Allocation((int) taskId, (int) load));
+                }
+                resources.add(new Resource(name, allocations));
             }
 
         } catch (Exception e) {
@@ -141,90 +228,68 @@ public class FileController {
         public final List<String> errors = new ArrayList<>();
         public final Set<Integer> invalidTaskIds = new HashSet<>();
         public final Set<Integer> validTaskIds = new HashSet<>();
+        // ids of the tasks in each dependency cycle, ascending by task position
+        public final List<List<Integer>> cycles = new ArrayList<>();
     }
 
     // Parse various date formats to epoch millis. Returns -1 on failure.
     public static long parseToMillis(String dateStr) {
-        if (dateStr == null) return -1;
-        dateStr = dateStr.trim();
-        try {
-            java.util.regex.Matcher m = java.util.regex.Pattern.compile("^(\\d{8})(\\d{4})?([+-]\\d{4})?$")
-                    .matcher(dateStr);
-            if (m.matches()) {
-                String dpart = m.group(1);
-                String tpart = m.group(2);
-                String off = m.group(3);
-                java.time.LocalDate d = java.time.LocalDate.parse(dpart, java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd"));
-                java.time.LocalDateTime ldt;
-                if (tpart != null) {
-                    int hh = Integer.parseInt(tpart.substring(0,2));
-                    int mm = Integer.parseInt(tpart.substring(2,4));
-                    ldt = d.atTime(hh, mm);
-                } else {
-                    ldt = d.atStartOfDay();
-                }
-                if (off != null) {
-                    java.time.ZoneOffset zo = java.time.ZoneOffset.of(off);
-                    java.time.OffsetDateTime odt = java.time.OffsetDateTime.of(ldt, zo);
-                    return odt.toInstant().toEpochMilli();
-                } else {
-                    return ldt.atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli();
-                }
-            }
-        } catch (Exception ex) {}
-        String[] patterns = new String[]{"yyyyMMddHHmm","yyyyMMddHH","yyyy-MM-dd HH:mm","yyyy-MM-dd"};
-        for (String p : patterns) {
-            try {
-                java.time.format.DateTimeFormatter f = java.time.format.DateTimeFormatter.ofPattern(p);
-                if (p.equals("yyyy-MM-dd")) {
-                    java.time.LocalDate ld = java.time.LocalDate.parse(dateStr, f);
-                    return ld.atStartOfDay(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli();
-                } else {
-                    java.time.LocalDateTime ldt = java.time.LocalDateTime.parse(dateStr, f);
-                    return ldt.atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli();
-                }
-            } catch (Exception e) {}
-        }
-        return -1;
+        return Timestamps.parseToMillis(dateStr);
     }
 
-    // Validate tasks: check dates, end>start, dependencies format and existence.
+    // Validate tasks: check dates, end>start, dependencies format and existence, and dependency cycles.
     public static ValidationResult validateTasks(List<model.Task> tasks) {
+        if (tasks == null) return new ValidationResult();
+        return validateTasks(tasks, DependencyGraph.build(tasks));
+    }
+
+    // Same checks, reusing a dependency graph already built for these tasks (e.g. Project.getDependencyGraph())
+    public static ValidationResult validateTasks(List<model.Task> tasks, DependencyGraph graph) {
         ValidationResult vr = new ValidationResult();
         if (tasks == null) return vr;
-        // Collect ids
-        Set<Integer> ids = new HashSet<>();
-        for (model.Task t : tasks) ids.add(t.getId());
+        List<DependencyGraph.Issue> issues = graph.getIssues();
+        int next = 0; // issues are ordered by task index
+        // ids must be unique: the tasks table keys on (id, project_name)
+        Set<Integer> duplicateIds = TaskIdIndex.build(tasks).duplicateIds();
+        // tasks on a dependency cycle can never be scheduled
+        boolean[] onCycle = new boolean[tasks.size()];
+        for (int[] cycle : graph.cycles()) {
+            List<Integer> ids = new ArrayList<>(cycle.length);
+            StringBuilder msg = new StringBuilder("Dependency cycle between tasks ");
+            for (int i : cycle) {
+                onCycle[i] = true;
+                ids.add(tasks.get(i).getId());
+                if (ids.size() > 1) msg.append(", ");
+                msg.append(tasks.get(i).getId());
+            }
+            vr.cycles.add(ids);
+            vr.errors.add(msg.toString());
+        }
         // Validate each task
-        for (model.Task t : tasks) {
+        for (int i = 0; i < tasks.size(); i++) {
+            model.Task t = tasks.get(i);
             int id = t.getId();
             boolean ok = true;
             if (t.getTitle() == null || t.getTitle().trim().isEmpty()) {
                 vr.errors.add("Task " + id + ": title is empty");
             }
-            long s = parseToMillis(t.getStart());
-            long e = parseToMillis(t.getEnd());
+            if (duplicateIds.contains(id)) { vr.errors.add("Task " + id + ": id is used by more than one task"); ok = false; }
+            long s = t.getStartMillis();
+            long e = t.getEndMillis();
             if (s <= 0) { vr.errors.add("Task " + id + ": invalid start date '" + t.getStart() + "'"); ok = false; }
             if (e <= 0) { vr.errors.add("Task " + id + ": invalid end date '" + t.getEnd() + "'"); ok = false; }
             if (s > 0 && e > 0 && e <= s) { vr.errors.add("Task " + id + ": end date must be after start date"); ok = false; }
-            // dependencies: comma separated ids (optional)
-            String deps = t.getDependencies();
-            if (deps != null && !deps.trim().isEmpty()) {
-                String[] parts = deps.split(",");
-                for (String p : parts) {
-                    p = p.trim();
-                    if (p.isEmpty()) continue;
-                    try {
-                        int did = Integer.parseInt(p);
-                        if (!ids.contains(did)) {
-                            vr.errors.add("Task " + id + ": dependency '" + did + "' not found among tasks");
-                            ok = false;
-                        }
-                    } catch (NumberFormatException ex) {
-                        vr.errors.add("Task " + id + ": invalid dependency token '" + p + "'"); ok = false;
-                    }
+            // dependencies: comma separated ids (optional), parsed once by the graph
+            for (; next < issues.size() && issues.get(next).taskIndex == i; next++) {
+                DependencyGraph.Issue issue = issues.get(next);
+                if (issue.unknownId) {
+                    vr.errors.add("Task " + id + ": dependency '" + issue.token + "' not found among tasks");
+                } else {
+                    vr.errors.add("Task " + id + ": invalid dependency token '" + issue.token + "'");
                 }
+                ok = false;
             }
+            if (onCycle[i]) ok = false;
             if (ok) vr.validTaskIds.add(id); else vr.invalidTaskIds.add(id);
         }
         return vr;
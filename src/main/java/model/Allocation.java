@@ -5,6 +5,7 @@ public class Allocation {
     private int resourceId;
     private String resourceName;
     private int load; 
+    private Resource owner;
 
     public Allocation(int taskId, int resourceId, String resourceName, int load) {
         this.taskId = taskId;
@@ -25,21 +26,33 @@ public class Allocation {
     public int getLoad() { return load; }
 
     // Setters
-    public void setTaskId(int taskId) { this.taskId = taskId; }
-    public void setResourceId(int resourceId) { this.resourceId = resourceId; }
-    public void setResourceName(String resourceName) { this.resourceName = resourceName; }
-    public void setLoad(int load) { this.load = load; }
+    public void setTaskId(int taskId) { checkMutable(); this.taskId = taskId; changed(); }
+    public void setResourceId(int resourceId) { checkMutable(); this.resourceId = resourceId; }
+    public void setResourceName(String resourceName) { checkMutable(); this.resourceName = resourceName; }
+    public void setLoad(int load) { checkMutable(); this.load = load; changed(); }
+
+    // Owner is set by the resource's allocation list
+    Resource getOwner() { return owner; }
+    void setOwner(Resource owner) { this.owner = owner; }
+
+    private void checkMutable() {
+        if (owner != null) owner.checkMutable();
+    }
+
+    private void changed() {
+        if (owner != null) owner.changed();
+    }
 
     @Override
     public String toString() {
-        String resPart = (resourceId == -1 || resourceName == null)
+        String resPart = (getResourceId() == -1 || getResourceName() == null)
                 ? "Unassigned Resource"
-                : "Resource " + resourceName + " (ID: " + resourceId + ")";
-        return String.format("Task %d → %s | Load: %d%%", taskId, resPart, load);
+                : "Resource " + getResourceName() + " (ID: " + getResourceId() + ")";
+        return String.format("Task %d → %s | Load: %d%%", getTaskId(), resPart, getLoad());
     }
 
     // Validation helper (optional, useful for upload handling)
     public boolean isValid() {
-        return taskId >= 0 && load >= 0 && load <= 100;
+        return getTaskId() >= 0 && getLoad() >= 0 && getLoad() <= 100;
     }
 }
\ No newline at end of file
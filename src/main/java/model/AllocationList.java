@@ -0,0 +1,29 @@
+package model;
+
+import java.util.List;
+
+/**
+ * The list handed out by {@link Resource#getAllocations()}; reports insertions
+ * and removals to the resource, which passes them on to its project.
+ */
+final class AllocationList extends ObservedList<Allocation> {
+    private final Resource resource;
+
+    AllocationList(Resource resource, List<Allocation> backing) {
+        super(backing);
+        this.resource = resource;
+        for (Allocation a : backing) a.setOwner(resource);
+    }
+
+    @Override
+    void added(Allocation allocation) {
+        allocation.setOwner(resource);
+        resource.changed();
+    }
+
+    @Override
+    void removed(Allocation allocation) {
+        if (allocation.getOwner() == resource) allocation.setOwner(null);
+        resource.changed();
+    }
+}
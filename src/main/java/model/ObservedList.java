@@ -0,0 +1,76 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A write-through list that reports every element it gains or loses.
+ * The model hands these out from its getters so indexes built over tasks,
+ * resources and allocations hear about edits made through the plain List API.
+ */
+abstract class ObservedList<E> extends AbstractList<E> implements RandomAccess {
+    private final List<E> backing;
+
+    ObservedList(List<E> backing) {
+        this.backing = backing;
+    }
+
+    List<E> backing() { return backing; }
+
+    /** Called after {@code e} has been inserted. */
+    abstract void added(E e);
+
+    /** Called after {@code e} has been removed. */
+    abstract void removed(E e);
+
+    @Override
+    public E get(int index) { return backing.get(index); }
+
+    @Override
+    public int size() { return backing.size(); }
+
+    @Override
+    public E set(int index, E e) {
+        E old = backing.set(index, e);
+        modCount++;
+        if (old != e) {
+            removed(old);
+            added(e);
+        }
+        return old;
+    }
+
+    @Override
+    public void add(int index, E e) {
+        backing.add(index, e);
+        modCount++;
+        added(e);
+    }
+
+    @Override
+    public E remove(int index) {
+        E old = backing.remove(index);
+        modCount++;
+        removed(old);
+        return old;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        List<E> range = backing.subList(fromIndex, toIndex);
+        Object[] gone = range.toArray();
+        range.clear();
+        modCount++;
+        for (Object o : gone) {
+            @SuppressWarnings("unchecked")
+            E e = (E) o;
+            removed(e);
+        }
+    }
+
+    /** Unwraps an observed list so wrappers never stack. */
+    static <E> List<E> unwrap(List<E> list) {
+        return list instanceof ObservedList ? ((ObservedList<E>) list).backing() : list;
+    }
+}
@@ -0,0 +1,246 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * A resource's allocations as two parallel int arrays, task ids and loads,
+ * kept sorted by task id (allocations to the same task keep the order they
+ * were added in). Lookup by task is a binary search and iteration touches no
+ * objects.
+ *
+ * As a List it is the lazy view behind {@link Resource#getAllocations()}:
+ * get() returns a small Allocation bound to its position, whose getters and
+ * setters go to the arrays, and add, set and remove write through. An added
+ * allocation lands at its task id's position, not at the index given. There
+ * is no room for a resource id or name, so those setters are rejected.
+ * Elements read from the list are equal when their task id and load are.
+ */
+final class PackedAllocations extends AbstractList<Allocation> implements RandomAccess {
+    private final Resource resource;
+    int[] taskIds;
+    int[] loads;
+    int size;
+
+    PackedAllocations(Resource resource, int[] taskIds, int[] loads, int size) {
+        this.resource = resource;
+        // sort (taskId, position) pairs so equal task ids keep their order
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) keys[i] = ((long) taskIds[i] << 32) | i;
+        Arrays.sort(keys);
+        this.taskIds = new int[Math.max(4, size)];
+        this.loads = new int[Math.max(4, size)];
+        for (int k = 0; k < size; k++) {
+            int i = (int) keys[k];
+            this.taskIds[k] = taskIds[i];
+            this.loads[k] = loads[i];
+        }
+        this.size = size;
+    }
+
+    /** @return position of the first allocation to a task id at or after {@code taskId} */
+    int lowerBound(int taskId) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (taskIds[mid] < taskId) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    /** @return position just past the last allocation to {@code taskId} */
+    int upperBound(int taskId) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (taskIds[mid] <= taskId) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    /** Sum of the loads on one task, or -1 if the resource is not allocated to it. */
+    int loadOn(int taskId) {
+        int i = lowerBound(taskId);
+        if (i == size || taskIds[i] != taskId) return -1;
+        int sum = 0;
+        for (; i < size && taskIds[i] == taskId; i++) sum += loads[i];
+        return sum;
+    }
+
+    /** @return the position the allocation landed at */
+    int insert(int taskId, int load) {
+        int at = upperBound(taskId);
+        if (size == taskIds.length) {
+            taskIds = Arrays.copyOf(taskIds, size * 2);
+            loads = Arrays.copyOf(loads, size * 2);
+        }
+        System.arraycopy(taskIds, at, taskIds, at + 1, size - at);
+        System.arraycopy(loads, at, loads, at + 1, size - at);
+        taskIds[at] = taskId;
+        loads[at] = load;
+        size++;
+        return at;
+    }
+
+    private void delete(int i) {
+        System.arraycopy(taskIds, i + 1, taskIds, i, size - i - 1);
+        System.arraycopy(loads, i + 1, loads, i, size - i - 1);
+        size--;
+    }
+
+    @Override
+    public Allocation get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index + " of " + size);
+        return new Entry(index);
+    }
+
+    private Allocation detached(int index) {
+        return new Allocation(taskIds[index], loads[index]);
+    }
+
+    @Override
+    public int size() { return size; }
+
+    @Override
+    public Allocation set(int index, Allocation a) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index + " of " + size);
+        int taskId = a.getTaskId(), load = a.getLoad();
+        Allocation old = detached(index);
+        delete(index);
+        insert(taskId, load);
+        modCount++;
+        resource.changed();
+        return old;
+    }
+
+    @Override
+    public void add(int index, Allocation a) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException("Index " + index + " of " + size);
+        insert(a.getTaskId(), a.getLoad());
+        modCount++;
+        resource.changed();
+    }
+
+    @Override
+    public Allocation remove(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index + " of " + size);
+        Allocation old = detached(index);
+        delete(index);
+        modCount++;
+        resource.changed();
+        return old;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        System.arraycopy(taskIds, toIndex, taskIds, fromIndex, size - toIndex);
+        System.arraycopy(loads, toIndex, loads, fromIndex, size - toIndex);
+        size -= toIndex - fromIndex;
+        modCount++;
+        resource.changed();
+    }
+
+    /**
+     * The allocation at one position. A change of task id moves it to its new
+     * sorted position and it follows. After any other structural change it
+     * looks its allocation up again by task id and load; if that is gone it
+     * keeps the values it last saw and rejects setters. Entries of the same
+     * list are equal when their task id and load are, so indexOf, contains
+     * and remove(Object) find an element read earlier.
+     */
+    private final class Entry extends Allocation {
+        private int index;
+        private int expectedModCount;
+        private int taskId, load; // last values seen
+
+        Entry(int index) {
+            super(-1, 0);
+            bind(index);
+        }
+
+        private void bind(int i) {
+            index = i;
+            expectedModCount = modCount;
+            taskId = taskIds[i];
+            load = loads[i];
+        }
+
+        /** @return the current position of this allocation, or -1 if it is no longer in the list */
+        private int locate() {
+            if (expectedModCount == modCount) return index;
+            for (int i = lowerBound(taskId); i < size && taskIds[i] == taskId; i++) {
+                if (loads[i] == load) {
+                    bind(i);
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private int locateForWrite() {
+            int i = locate();
+            if (i < 0) throw new IllegalStateException("Allocation to task " + taskId + " was removed from " + resource.getName());
+            resource.checkMutable();
+            return i;
+        }
+
+        @Override
+        public int getTaskId() {
+            int i = locate();
+            return i < 0 ? taskId : taskIds[i];
+        }
+
+        @Override
+        public int getLoad() {
+            int i = locate();
+            if (i >= 0) load = loads[i]; // a twin entry may have set it
+            return load;
+        }
+
+        @Override
+        public void setTaskId(int taskId) {
+            int i = locateForWrite();
+            if (taskIds[i] == taskId) return;
+            int load = loads[i];
+            delete(i);
+            int at = insert(taskId, load);
+            modCount++;
+            bind(at);
+            resource.changed();
+        }
+
+        @Override
+        public void setLoad(int load) {
+            int i = locateForWrite();
+            loads[i] = load;
+            this.load = load;
+            resource.changed();
+        }
+
+        @Override
+        public void setResourceId(int resourceId) {
+            throw new UnsupportedOperationException("Packed allocations keep only a task id and a load");
+        }
+
+        @Override
+        public void setResourceName(String resourceName) {
+            throw new UnsupportedOperationException("Packed allocations keep only a task id and a load");
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Entry)) return false;
+            Entry e = (Entry) o;
+            return e.list() == list() && e.getTaskId() == getTaskId() && e.getLoad() == getLoad();
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * getTaskId() + getLoad();
+        }
+
+        private PackedAllocations list() { return PackedAllocations.this; }
+    }
+}
@@ -0,0 +1,111 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list that is copied by sharing: a 32-way trie of arrays in
+ * which set and append copy only the nodes on the path to the changed
+ * element, O(log32 n) small arrays, and share the rest with the original.
+ * Two versions that differ in k elements therefore cost O(k log32 n) extra
+ * memory, not O(n). Removing from the middle rebuilds the whole vector.
+ *
+ * Instances are never mutated after construction, so any number of threads
+ * may read them.
+ */
+final class PersistentVector<E> extends AbstractList<E> implements RandomAccess {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, BITS, new Object[WIDTH]);
+
+    private final int size;
+    private final int shift; // BITS * (levels above the leaves)
+    private final Object[] root;
+
+    private PersistentVector(int size, int shift, Object[] root) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <E> PersistentVector<E> empty() { return (PersistentVector<E>) EMPTY; }
+
+    /** Builds a vector from a list in O(n), filling the trie level by level. */
+    static <E> PersistentVector<E> of(List<? extends E> items) {
+        int n = items.size();
+        if (n == 0) return empty();
+        Object[][] level = new Object[(n + MASK) >>> BITS][];
+        for (int i = 0; i < level.length; i++) {
+            Object[] leaf = new Object[WIDTH];
+            for (int k = 0, base = i << BITS; k < WIDTH && base + k < n; k++) leaf[k] = items.get(base + k);
+            level[i] = leaf;
+        }
+        int shift = BITS;
+        while (level.length > WIDTH) {
+            Object[][] up = new Object[(level.length + MASK) >>> BITS][];
+            for (int i = 0; i < up.length; i++) {
+                Object[] node = new Object[WIDTH];
+                System.arraycopy(level, i << BITS, node, 0, Math.min(WIDTH, level.length - (i << BITS)));
+                up[i] = node;
+            }
+            level = up;
+            shift += BITS;
+        }
+        Object[] root = new Object[WIDTH];
+        System.arraycopy(level, 0, root, 0, level.length);
+        return new PersistentVector<>(n, shift, root);
+    }
+
+    @Override
+    public int size() { return size; }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        Object[] node = root;
+        for (int s = shift; s > 0; s -= BITS) node = (Object[]) node[(index >>> s) & MASK];
+        return (E) node[index & MASK];
+    }
+
+    /** @return a vector with element {@code index} replaced; this one is unchanged */
+    PersistentVector<E> with(int index, E value) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        return new PersistentVector<>(size, shift, assoc(root, shift, index, value));
+    }
+
+    /** @return a vector with {@code value} appended; this one is unchanged */
+    PersistentVector<E> plus(E value) {
+        // full trie: put the old root under a new one
+        if (size == 1 << (shift + BITS)) {
+            Object[] up = new Object[WIDTH];
+            up[0] = root;
+            return new PersistentVector<>(size + 1, shift + BITS, assoc(up, shift + BITS, size, value));
+        }
+        return new PersistentVector<>(size + 1, shift, assoc(root, shift, size, value));
+    }
+
+    /** @return a vector without element {@code index}, rebuilt in O(n); this one is unchanged */
+    PersistentVector<E> minus(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        return of(new AbstractList<E>() {
+            @Override public E get(int i) { return PersistentVector.this.get(i < index ? i : i + 1); }
+            @Override public int size() { return size - 1; }
+        });
+    }
+
+    private static Object[] assoc(Object[] node, int shift, int index, Object value) {
+        Object[] copy = node == null ? new Object[WIDTH] : node.clone();
+        if (shift == 0) {
+            copy[index & MASK] = value;
+        } else {
+            int slot = (index >>> shift) & MASK;
+            copy[slot] = assoc((Object[]) copy[slot], shift - BITS, index, value);
+        }
+        return copy;
+    }
+}
@@ -1,7 +1,30 @@
 package model;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import model.analysis.CriticalPath;
+import model.analysis.DependencyGraph;
+import model.analysis.IntervalIndex;
+import model.analysis.MonteCarloSimulation;
+import model.analysis.OverallocationDetector;
+import model.analysis.OverlapEngine;
+import model.analysis.OverlapList;
+import model.analysis.ParallelAnalysis;
+import model.analysis.ResourceLeveler;
+import model.analysis.TaskIdIndex;
+import model.analysis.TaskResourceIndex;
+import model.analysis.UtilisationHistogram;
+import model.analysis.WorkingCalendar;
 
 public class Project {
     private String name;
@@ -10,11 +33,30 @@ public class Project {
 
     private String tasksFilePath;
     private String resourcesFilePath;
+
+    // built on first use, then kept in step with task edits
+    private IntervalIndex<Task> intervalIndex;
+    // rebuilt lazily after any task change
+    private DependencyGraph dependencyGraph;
+    // id -> task, built on first use, then kept in step with task edits
+    private TaskIdIndex taskIdIndex;
+    // task id -> allocations, rebuilt lazily after any resource change
+    private TaskResourceIndex taskResourceIndex;
+
+    private final List<ProjectListener> listeners = new CopyOnWriteArrayList<>();
+
+    // last snapshot taken, patched on the next snapshot() with the tasks and
+    // resources edited since; list insertions and removals rebuild it
+    private ProjectSnapshot snapshot;
+    private Map<Task, Integer> snapshotTaskPos;
+    private Map<Resource, Integer> snapshotResourcePos;
+    private final Set<Task> editedTasks = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<Resource> editedResources = Collections.newSetFromMap(new IdentityHashMap<>());
     
     public Project(String name) {
         this.name = name;
-        this.tasks = new java.util.ArrayList<>();
-        this.resources = new java.util.ArrayList<>();
+        this.tasks = new TaskList(this, new java.util.ArrayList<>());
+        this.resources = new ResourceList(this, new java.util.ArrayList<>());
     }
 
     // --- Getters & Setters ---
@@ -22,10 +64,24 @@ public class Project {
     public void setName(String name) { this.name = name; }
 
     public List<Task> getTasks() { return tasks; }
-    public void setTasks(List<Task> tasks) { this.tasks = tasks; }
+    public void setTasks(List<Task> tasks) {
+        tasks = ObservedList.unwrap(tasks);
+        this.tasks = tasks == null ? null : new TaskList(this, tasks);
+        this.intervalIndex = null;
+        this.dependencyGraph = null;
+        this.taskIdIndex = null;
+        this.snapshotTaskPos = null;
+        for (ProjectListener l : listeners) l.projectReloaded();
+    }
 
     public List<Resource> getResources() { return resources; }
-    public void setResources(List<Resource> resources) { this.resources = resources; }
+    public void setResources(List<Resource> resources) {
+        resources = ObservedList.unwrap(resources);
+        this.resources = resources == null ? null : new ResourceList(this, resources);
+        this.taskResourceIndex = null;
+        this.snapshotResourcePos = null;
+        for (ProjectListener l : listeners) l.projectReloaded();
+    }
 
     public String getTasksFilePath() { return tasksFilePath; }
     public void setTasksFilePath(String path) { this.tasksFilePath = path; }
@@ -33,38 +89,279 @@ public class Project {
     public String getResourcesFilePath() { return resourcesFilePath; }
     public void setResourcesFilePath(String path) { this.resourcesFilePath = path; }
 
+    // --- Change events ---
+
+    public void addProjectListener(ProjectListener listener) { listeners.add(listener); }
+    public void removeProjectListener(ProjectListener listener) { listeners.remove(listener); }
+
+    // --- Change hooks (called by the observed lists and model setters) ---
+
+    void taskAdded(Task task) {
+        if (intervalIndex != null) indexInterval(task);
+        if (taskIdIndex != null) taskIdIndex.add(task);
+        dependencyGraph = null;
+        snapshotTaskPos = null;
+        for (ProjectListener l : listeners) l.taskAdded(task);
+    }
+
+    void taskRemoved(Task task) {
+        if (task.getOwner() == this) task.setOwner(null);
+        if (intervalIndex != null) intervalIndex.remove(task);
+        if (taskIdIndex != null) taskIdIndex.remove(task);
+        dependencyGraph = null;
+        snapshotTaskPos = null;
+        for (ProjectListener l : listeners) l.taskRemoved(task);
+    }
+
+    void taskChanged(Task task) {
+        if (intervalIndex != null) indexInterval(task);
+        dependencyGraph = null;
+        if (snapshotTaskPos != null) editedTasks.add(task);
+        for (ProjectListener l : listeners) l.taskChanged(task);
+    }
+
+    void taskIdChanged(Task task, int oldId) {
+        if (taskIdIndex != null) taskIdIndex.changeId(task, oldId);
+        dependencyGraph = null;
+        if (snapshotTaskPos != null) editedTasks.add(task);
+        for (ProjectListener l : listeners) l.taskIdChanged(task, oldId);
+    }
+
+    void resourceAdded(Resource resource) {
+        taskResourceIndex = null;
+        snapshotResourcePos = null;
+        for (ProjectListener l : listeners) l.resourceAdded(resource);
+    }
+
+    void resourceRemoved(Resource resource) {
+        if (resource.getOwner() == this) resource.setOwner(null);
+        taskResourceIndex = null;
+        snapshotResourcePos = null;
+        for (ProjectListener l : listeners) l.resourceRemoved(resource);
+    }
+
+    void resourceChanged(Resource resource) {
+        taskResourceIndex = null;
+        if (snapshotResourcePos != null) editedResources.add(resource);
+        for (ProjectListener l : listeners) l.allocationsChanged(resource);
+    }
+
+    // --- Snapshots ---
+
+    /**
+     * Takes an immutable snapshot of the tasks and resources, for what-if
+     * scenarios and for analyses that run while the project is edited.
+     * The first snapshot copies every task; after that only the tasks and
+     * resources edited since the previous one are copied, the rest is shared
+     * (adding or removing a task or resource copies the list once more).
+     * Like the rest of Project, call it from the thread that edits the project.
+     */
+    public ProjectSnapshot snapshot() {
+        PersistentVector<Task> t;
+        if (snapshotTaskPos == null) {
+            List<Task> list = tasks != null ? tasks : new ArrayList<>();
+            List<Task> frozen = new ArrayList<>(list.size());
+            snapshotTaskPos = new IdentityHashMap<>(list.size() * 2);
+            for (int i = 0; i < list.size(); i++) {
+                frozen.add(list.get(i).copy(true));
+                snapshotTaskPos.put(list.get(i), i);
+            }
+            t = PersistentVector.of(frozen);
+        } else {
+            t = snapshot.tasksVector();
+            for (Task edited : editedTasks) t = t.with(snapshotTaskPos.get(edited), edited.copy(true));
+        }
+        editedTasks.clear();
+
+        PersistentVector<Resource> r;
+        if (snapshotResourcePos == null) {
+            List<Resource> list = resources != null ? resources : new ArrayList<>();
+            List<Resource> frozen = new ArrayList<>(list.size());
+            snapshotResourcePos = new IdentityHashMap<>(list.size() * 2);
+            for (int i = 0; i < list.size(); i++) {
+                frozen.add(list.get(i).copy(true));
+                snapshotResourcePos.put(list.get(i), i);
+            }
+            r = PersistentVector.of(frozen);
+        } else {
+            r = snapshot.resourcesVector();
+            for (Resource edited : editedResources) r = r.with(snapshotResourcePos.get(edited), edited.copy(true));
+        }
+        editedResources.clear();
+
+        if (snapshot == null || t != snapshot.tasksVector() || r != snapshot.resourcesVector()
+                || !Objects.equals(name, snapshot.getName())) {
+            snapshot = new ProjectSnapshot(name, t, r);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Replaces the tasks and resources with editable copies of a snapshot's,
+     * e.g. to adopt a what-if scenario or to undo back to an earlier state.
+     */
+    public void restore(ProjectSnapshot from) {
+        List<Task> t = new ArrayList<>(from.taskCount());
+        for (Task task : from.getTasks()) t.add(task.copy(false));
+        List<Resource> r = new ArrayList<>(from.getResources().size());
+        for (Resource resource : from.getResources()) r.add(resource.copy(false));
+        setTasks(t);
+        setResources(r);
+    }
+
+    // --- Id index ---
+
+    private TaskIdIndex taskIdIndex() {
+        if (taskIdIndex == null) {
+            taskIdIndex = TaskIdIndex.build(tasks != null ? tasks : new ArrayList<>());
+        }
+        return taskIdIndex;
+    }
+
+    /**
+     * Looks up a task by id in O(1)
+     * @param taskId The task ID
+     * @return The task (the first one, if the id is used twice), or null
+     */
+    public Task findTaskById(int taskId) {
+        if (tasks == null) {
+            return null;
+        }
+        return taskIdIndex().get(taskId);
+    }
+
+    /**
+     * Task ids used by more than one task. The SQLite tasks table keys on
+     * (id, project_name), so such a project cannot be saved as-is.
+     * @return Duplicate ids in ascending order
+     */
+    public java.util.Set<Integer> getDuplicateTaskIds() {
+        return taskIdIndex().duplicateIds();
+    }
+
+    /**
+     * Dependency graph over the current tasks, keyed by position in getTasks().
+     * Built on demand and reused until a task is added, removed or edited.
+     */
+    public DependencyGraph getDependencyGraph() {
+        if (dependencyGraph == null) {
+            dependencyGraph = DependencyGraph.build(tasks != null ? tasks : new ArrayList<>());
+        }
+        return dependencyGraph;
+    }
+
+    /**
+     * Allocations grouped by task id. Built in one pass over all resources
+     * and reused until a resource or allocation is added, removed or edited.
+     */
+    public TaskResourceIndex getTaskResourceIndex() {
+        if (taskResourceIndex == null) {
+            taskResourceIndex = TaskResourceIndex.build(resources != null ? resources : new ArrayList<>());
+        }
+        return taskResourceIndex;
+    }
+
+    // --- Interval index ---
+
+    private IntervalIndex<Task> intervalIndex() {
+        if (intervalIndex == null) {
+            intervalIndex = new IntervalIndex<>();
+            if (tasks != null) {
+                for (Task t : tasks) indexInterval(t);
+            }
+        }
+        return intervalIndex;
+    }
+
+    private void indexInterval(Task task) {
+        if (task.isScheduled()) {
+            intervalIndex.insert(task, task.getStartMillis(), task.getEndMillis());
+        } else {
+            intervalIndex.remove(task); // unparseable dates are not indexed
+        }
+    }
+
+    /**
+     * Finds the tasks active at any point between two instants (inclusive)
+     * @param fromMillis Range start in epoch millis
+     * @param toMillis Range end in epoch millis
+     * @return Matching tasks ordered by start date
+     */
+    public List<Task> findTasksActiveBetween(long fromMillis, long toMillis) {
+        if (tasks == null) {
+            return new ArrayList<>();
+        }
+        return intervalIndex().query(fromMillis, toMillis);
+    }
+
+    /**
+     * Finds the tasks active at any point between two dates (inclusive)
+     * @param from Range start, in any format Timestamps understands
+     * @param to Range end
+     * @return Matching tasks ordered by start date, or an empty list if a date cannot be parsed
+     */
+    public List<Task> findTasksActiveBetween(String from, String to) {
+        long f = Timestamps.parseToMillis(from);
+        long t = Timestamps.parseToMillis(to);
+        if (f == -1 || t == -1) {
+            return new ArrayList<>();
+        }
+        return findTasksActiveBetween(f, t);
+    }
+
     // ===== TEST METHODS FOR OVERLAPPING TASKS & COMPLETION TIME =====
 
     /**
-     * Finds all overlapping tasks in the project using Task.overlapsWith()
+     * Finds all overlapping tasks in the project (same rule as Task.overlapsWith()),
+     * using a sort-and-sweep pass instead of comparing every pair
      * @return List of overlap descriptions
      */
     public List<String> findOverlappingTasks() {
-        List<String> overlaps = new ArrayList<>();
         List<Task> tasks = getTasks();
         
         if (tasks == null || tasks.size() < 2) {
-            return overlaps;
+            return new ArrayList<>();
         }
         
-        for (int i = 0; i < tasks.size(); i++) {
-            for (int j = i + 1; j < tasks.size(); j++) {
-                Task task1 = tasks.get(i);
-                Task task2 = tasks.get(j);
-                
-                if (task1.overlapsWith(task2)) {
-                    overlaps.add(String.format("OVERLAP: '%s' (%s-%s) and '%s' (%s-%s) overlap",
-                        task1.getTitle(), task1.getStart(), task1.getEnd(),
-                        task2.getTitle(), task2.getStart(), task2.getEnd()));
-                }
-            }
+        // each message is only formatted when the list entry is read
+        return new OverlapList(ParallelAnalysis.getDefault().overlapPairs(tasks), tasks,
+            Project::describeOverlap);
+    }
+
+    static String describeOverlap(Task task1, Task task2) {
+        return String.format("OVERLAP: '%s' (%s-%s) and '%s' (%s-%s) overlap",
+            task1.getTitle(), task1.getStart(), task1.getEnd(),
+            task2.getTitle(), task2.getStart(), task2.getEnd());
+    }
+
+    /**
+     * Visits every overlapping pair of tasks without building any message,
+     * for counting or filtering conflicts. Pairs arrive in no particular order.
+     * @param visitor Called once per overlapping pair
+     */
+    public void forEachOverlap(BiConsumer<Task, Task> visitor) {
+        List<Task> tasks = getTasks();
+        if (tasks == null || tasks.size() < 2) {
+            return;
         }
-        
-        return overlaps;
+        OverlapEngine.forTasks(tasks).forEachPair((i, j) -> visitor.accept(tasks.get(i), tasks.get(j)));
+    }
+
+    /**
+     * Counts overlapping task pairs without building their descriptions
+     * @return Number of overlapping pairs
+     */
+    public long countOverlappingTasks() {
+        List<Task> tasks = getTasks();
+        if (tasks == null || tasks.size() < 2) {
+            return 0;
+        }
+        return ParallelAnalysis.getDefault().countOverlaps(tasks);
     }
     
     /**
-     * Calculates the project completion time (latest end date of all tasks)
+     * Calculates the project completion time (latest end date of all tasks),
+     * comparing the tasks' parsed end times
      * @return Latest end date as string, or null if no tasks
      */
     public String calculateProjectCompletionTime() {
@@ -73,20 +370,21 @@ public class Project {
             return null;
         }
         
-        String latestEnd = tasks.get(0).getEnd();
+        Task latest = tasks.get(0);
         
         for (int i = 1; i < tasks.size(); i++) {
-            String currentEnd = tasks.get(i).getEnd();
-            if (currentEnd.compareTo(latestEnd) > 0) {
-                latestEnd = currentEnd;
+            Task current = tasks.get(i);
+            if (current.getEndMillis() > latest.getEndMillis()) {
+                latest = current;
             }
         }
         
-        return latestEnd;
+        return latest.getEnd();
     }
     
     /**
-     * Enhanced completion time calculation that considers dependencies
+     * Enhanced completion time calculation that considers dependencies:
+     * tasks are pushed back until all their predecessors have finished
      * @return Project completion date considering task dependencies
      */
     public String calculateCriticalPathCompletionTime() {
@@ -95,69 +393,94 @@ public class Project {
             return null;
         }
         
-        // For now, using simple latest end date
-        // You can enhance this later to consider dependency chains
-        return calculateProjectCompletionTime();
+        CriticalPath cp = ParallelAnalysis.getDefault().criticalPath(tasks, getDependencyGraph());
+        int last = cp.finishingTask();
+        if (cp.hasCycle() || last == -1) {
+            // dependency cycle: no valid schedule, fall back to the latest end date
+            return calculateProjectCompletionTime();
+        }
+        Task finishing = tasks.get(last);
+        if (finishing.isScheduled() && cp.earliestFinish(last) == finishing.getEndMillis()) {
+            return finishing.getEnd(); // not pushed back, keep its original text
+        }
+        return Timestamps.format(cp.earliestFinish(last));
+    }
+
+    /**
+     * Runs the critical path method over the task dependencies
+     * @return Earliest/latest start and finish, floats and driving chains per task position
+     */
+    public CriticalPath analyzeCriticalPath() {
+        return ParallelAnalysis.getDefault().criticalPath(tasks != null ? tasks : new ArrayList<>(), getDependencyGraph());
     }
     
     /**
-     * Finds resource overallocations during overlapping task periods
+     * Monte Carlo completion forecast: task durations are drawn from PERT
+     * distributions around the planned ones and pushed through the dependencies.
+     * The iterations are spread over every available core.
+     * @param iterations Number of simulated schedules
+     * @param seed Random seed; the same seed gives the same forecast
+     * @return Completion percentiles and per-task criticality indexes
+     */
+    public MonteCarloSimulation.Result simulateCompletion(int iterations, long seed) {
+        return ParallelAnalysis.allCores().simulate(new MonteCarloSimulation(iterations, seed),
+            tasks != null ? tasks : new ArrayList<>(), getDependencyGraph());
+    }
+
+    /**
+     * Finds resource overallocations: maximal periods in which a resource's
+     * summed load across its concurrently running tasks exceeds 100%
      * @return List of overallocation warnings
      */
     public List<String> findResourceOverallocations() {
         List<String> overallocations = new ArrayList<>();
-        
-        if (resources == null || tasks == null) {
-            return overallocations;
+        for (OverallocationDetector.Overallocation o : detectResourceOverallocations()) {
+            overallocations.add(o.toString());
         }
-        
-        // Check each resource's allocations during overlapping periods
-        for (Resource resource : resources) {
-            if (resource.getAllocations() != null) {
-                for (Allocation alloc1 : resource.getAllocations()) {
-                    for (Allocation alloc2 : resource.getAllocations()) {
-                        if (alloc1 != alloc2 && areTasksOverlapping(alloc1.getTaskId(), alloc2.getTaskId())) {
-                            int totalLoad = alloc1.getLoad() + alloc2.getLoad();
-                            if (totalLoad > 100) {
-                                overallocations.add(String.format(
-                                    "OVERALLOCATION: %s is allocated %d%% during overlapping tasks %d and %d",
-                                    resource.getName(), totalLoad, alloc1.getTaskId(), alloc2.getTaskId()));
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        
         return overallocations;
     }
-    
-    private boolean areTasksOverlapping(int taskId1, int taskId2) {
-        Task task1 = findTaskById(taskId1);
-        Task task2 = findTaskById(taskId2);
-        
-        if (task1 != null && task2 != null) {
-            return task1.overlapsWith(task2);
+
+    /**
+     * Structured form of findResourceOverallocations()
+     * @return Over-allocated windows with their peak load, grouped by resource
+     */
+    public List<OverallocationDetector.Overallocation> detectResourceOverallocations() {
+        if (resources == null || tasks == null) {
+            return new ArrayList<>();
         }
-        
-        return false;
+        TaskIdIndex byId = taskIdIndex(); // build before the parallel sweep reads it
+        return ParallelAnalysis.getDefault().overallocations(resources, byId::get);
     }
     
-    private Task findTaskById(int taskId) {
-        if (tasks != null) {
-            for (Task task : tasks) {
-                if (task.getId() == taskId) {
-                    return task;
-                }
-            }
+    /**
+     * Proposes a schedule that removes the overallocations, delaying tasks
+     * within their float where possible and keeping dependency order.
+     * Nothing is changed until {@link ResourceLeveler.Result#apply()} is called.
+     * @param rule Which eligible task gets its resources first
+     * @return Proposed dates per task position and the list of moved tasks
+     */
+    public ResourceLeveler.Result levelResources(ResourceLeveler.PriorityRule rule) {
+        List<Task> list = tasks != null ? tasks : new ArrayList<>();
+        return ResourceLeveler.level(list, getDependencyGraph(), resources, rule);
+    }
+
+    /**
+     * Builds the per-resource, per-day load matrix behind a utilisation heatmap
+     * @return Daily load of each resource, in resource order, over the allocated tasks' days
+     */
+    public UtilisationHistogram buildUtilisationHistogram() {
+        if (resources == null || tasks == null) {
+            return UtilisationHistogram.build(new ArrayList<>(), id -> null);
         }
-        return null;
+        TaskIdIndex byId = taskIdIndex();
+        return UtilisationHistogram.build(resources, byId::get);
     }
 
     /**
-     * Utility method to check if a specific task overlaps with any other tasks
+     * Utility method to check if a specific task overlaps with any other tasks.
+     * Uses the interval index, so each call costs O(log n + k).
      * @param taskId The task ID to check
-     * @return List of overlapping task descriptions
+     * @return List of overlapping task descriptions, ordered by the other task's start date
      */
     public List<String> findOverlapsForTask(int taskId) {
         List<String> overlaps = new ArrayList<>();
@@ -166,9 +489,13 @@ public class Project {
         if (targetTask == null || tasks == null) {
             return overlaps;
         }
-        
-        for (Task otherTask : tasks) {
-            if (otherTask.getId() != taskId && targetTask.overlapsWith(otherTask)) {
+
+        IntervalIndex<Task> index = intervalIndex();
+        if (!index.contains(targetTask)) {
+            return overlaps; // dates could not be parsed
+        }
+        for (Task otherTask : index.query(targetTask.getStartMillis(), targetTask.getEndMillis())) {
+            if (otherTask.getId() != taskId) {
                 overlaps.add(String.format("Task %d '%s' overlaps with Task %d '%s'",
                     taskId, targetTask.getTitle(), otherTask.getId(), otherTask.getTitle()));
             }
@@ -187,36 +514,63 @@ public class Project {
             return null;
         }
         
-        String earliestStart = tasks.get(0).getStart();
+        Task earliest = null;
         
-        for (int i = 1; i < tasks.size(); i++) {
-            String currentStart = tasks.get(i).getStart();
-            if (currentStart.compareTo(earliestStart) < 0) {
-                earliestStart = currentStart;
+        for (Task current : tasks) {
+            if (current.getStartMillis() == -1) continue; // unparseable
+            if (earliest == null || current.getStartMillis() < earliest.getStartMillis()) {
+                earliest = current;
             }
         }
         
-        return earliestStart;
+        return earliest != null ? earliest.getStart() : tasks.get(0).getStart();
     }
 
     /**
-     * Calculates project duration in days (simplified)
+     * Calculates project duration in calendar days, from the earliest start
+     * date to the latest end date
      * @return Number of days between start and completion, or -1 if cannot calculate
      */
     public int calculateProjectDuration() {
-        String start = getProjectStartDate();
-        String end = calculateProjectCompletionTime();
-        
-        if (start == null || end == null) {
+        long[] span = projectSpan();
+        if (span == null) {
             return -1;
         }
-        
-        // Simple calculation - in real implementation, you'd parse dates and calculate difference
-        try {
-            // This is a simplified version - you'd need proper date parsing
-            return Math.abs(Integer.parseInt(end.replace("-", "")) - Integer.parseInt(start.replace("-", "")));
-        } catch (NumberFormatException e) {
+        return (int) (toLocalDate(span[1]).toEpochDay() - toLocalDate(span[0]).toEpochDay());
+    }
+
+    /**
+     * Calculates project duration in working days, counting the start and end dates
+     * @param calendar Working days, holidays and exceptions to count with
+     * @return Number of working days from start through completion, or -1 if cannot calculate
+     */
+    public long calculateProjectWorkingDays(WorkingCalendar calendar) {
+        long[] span = projectSpan();
+        if (span == null) {
             return -1;
         }
+        return calendar.workingDays(toLocalDate(span[0]), toLocalDate(span[1]));
+    }
+
+    // earliest parsed start and latest parsed end, or null if there are none
+    private long[] projectSpan() {
+        List<Task> tasks = getTasks();
+        if (tasks == null) {
+            return null;
+        }
+        long start = Long.MAX_VALUE;
+        long end = Long.MIN_VALUE;
+        for (Task t : tasks) {
+            if (t.getStartMillis() != -1) start = Math.min(start, t.getStartMillis());
+            if (t.getEndMillis() != -1) end = Math.max(end, t.getEndMillis());
+        }
+        if (start == Long.MAX_VALUE || end == Long.MIN_VALUE || end < start) {
+            return null;
+        }
+        return new long[] {start, end};
+    }
+
+    private static LocalDate toLocalDate(long millis) {
+        return Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()).toLocalDate();
     }
 }
\ No newline at end of file
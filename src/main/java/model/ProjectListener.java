@@ -0,0 +1,30 @@
+package model;
+
+/**
+ * Receives fine-grained edits to a {@link Project}. Events are delivered on
+ * the thread that made the edit, after the project's own indexes are updated.
+ * Every method has an empty default, so listeners override only what they need.
+ */
+public interface ProjectListener {
+    /** A task was inserted into the task list. */
+    default void taskAdded(Task task) {}
+
+    /** A task was taken out of the task list. */
+    default void taskRemoved(Task task) {}
+
+    /** A task's title, dates, dependencies or team changed. */
+    default void taskChanged(Task task) {}
+
+    /** A task's id changed from {@code oldId}. */
+    default void taskIdChanged(Task task, int oldId) {}
+
+    default void resourceAdded(Resource resource) {}
+
+    default void resourceRemoved(Resource resource) {}
+
+    /** A resource was renamed, or one of its allocations was added, removed or edited. */
+    default void allocationsChanged(Resource resource) {}
+
+    /** The task or resource list was replaced as a whole; anything derived should be rebuilt. */
+    default void projectReloaded() {}
+}
@@ -0,0 +1,175 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import model.analysis.CriticalPath;
+import model.analysis.DependencyGraph;
+import model.analysis.MonteCarloSimulation;
+import model.analysis.OverallocationDetector;
+import model.analysis.OverlapList;
+import model.analysis.ParallelAnalysis;
+import model.analysis.ResourceLeveler;
+import model.analysis.TaskIdIndex;
+
+/**
+ * An immutable version of a project's tasks and resources, for what-if
+ * scenarios.
+ *
+ * Tasks and resources are held in persistent vectors of frozen copies, so
+ * deriving a scenario with {@link #withTask(int, Consumer)} and friends is
+ * O(log n) and costs memory only for the copied path and the edited task;
+ * everything else is shared with the snapshot it came from. Frozen tasks
+ * and resources reject their setters.
+ *
+ * Nothing here ever changes after construction, so analyses may run on any
+ * snapshot from any thread while the live project is being edited. Derived
+ * analysis inputs (dependency graph, id index) are built on first use and
+ * cached.
+ */
+public final class ProjectSnapshot {
+    private final String name;
+    private final PersistentVector<Task> tasks;
+    private final PersistentVector<Resource> resources;
+
+    // built on first use; a race only builds the same value twice
+    private volatile DependencyGraph dependencyGraph;
+    private volatile TaskIdIndex taskIdIndex;
+
+    ProjectSnapshot(String name, PersistentVector<Task> tasks, PersistentVector<Resource> resources) {
+        this.name = name;
+        this.tasks = tasks;
+        this.resources = resources;
+    }
+
+    public String getName() { return name; }
+
+    PersistentVector<Task> tasksVector() { return tasks; }
+    PersistentVector<Resource> resourcesVector() { return resources; }
+
+    /** @return the frozen tasks, read-only */
+    public List<Task> getTasks() { return Collections.unmodifiableList(tasks); }
+
+    /** @return the frozen resources, read-only */
+    public List<Resource> getResources() { return Collections.unmodifiableList(resources); }
+
+    public int taskCount() { return tasks.size(); }
+
+    // --- Deriving scenarios ---
+
+    /** @return a snapshot with the task at {@code index} replaced by a copy of {@code task} */
+    public ProjectSnapshot withTask(int index, Task task) {
+        return new ProjectSnapshot(name, tasks.with(index, task.copy(true)), resources);
+    }
+
+    /**
+     * @param edit applied to an editable copy of the task at {@code index}
+     * @return a snapshot with the edited task in its place
+     */
+    public ProjectSnapshot withTask(int index, Consumer<Task> edit) {
+        Task copy = tasks.get(index).copy(false);
+        edit.accept(copy);
+        return withTask(index, copy);
+    }
+
+    public ProjectSnapshot withTaskAdded(Task task) {
+        return new ProjectSnapshot(name, tasks.plus(task.copy(true)), resources);
+    }
+
+    /** Removing rebuilds the task vector, so this one is O(n). */
+    public ProjectSnapshot withoutTask(int index) {
+        return new ProjectSnapshot(name, tasks.minus(index), resources);
+    }
+
+    public ProjectSnapshot withResource(int index, Resource resource) {
+        return new ProjectSnapshot(name, tasks, resources.with(index, resource.copy(true)));
+    }
+
+    /**
+     * @param edit applied to an editable copy of the resource at {@code index}
+     * @return a snapshot with the edited resource in its place
+     */
+    public ProjectSnapshot withResource(int index, Consumer<Resource> edit) {
+        Resource copy = resources.get(index).copy(false);
+        edit.accept(copy);
+        return withResource(index, copy);
+    }
+
+    public ProjectSnapshot withResourceAdded(Resource resource) {
+        return new ProjectSnapshot(name, tasks, resources.plus(resource.copy(true)));
+    }
+
+    public ProjectSnapshot withoutResource(int index) {
+        return new ProjectSnapshot(name, tasks, resources.minus(index));
+    }
+
+    /** @return a new live project holding editable copies of this snapshot's tasks and resources */
+    public Project toProject() {
+        Project project = new Project(name);
+        project.restore(this);
+        return project;
+    }
+
+    // --- Analyses, as on Project ---
+
+    public DependencyGraph getDependencyGraph() {
+        DependencyGraph graph = dependencyGraph;
+        if (graph == null) dependencyGraph = graph = DependencyGraph.build(tasks);
+        return graph;
+    }
+
+    private TaskIdIndex taskIdIndex() {
+        TaskIdIndex index = taskIdIndex;
+        if (index == null) taskIdIndex = index = TaskIdIndex.build(tasks);
+        return index;
+    }
+
+    /** @see Project#findTaskById(int) */
+    public Task findTaskById(int taskId) { return taskIdIndex().get(taskId); }
+
+    /** @see Project#analyzeCriticalPath() */
+    public CriticalPath analyzeCriticalPath() {
+        return ParallelAnalysis.getDefault().criticalPath(tasks, getDependencyGraph());
+    }
+
+    /** @see Project#findOverlappingTasks() */
+    public List<String> findOverlappingTasks() {
+        if (tasks.size() < 2) return new ArrayList<>();
+        return new OverlapList(ParallelAnalysis.getDefault().overlapPairs(tasks), tasks,
+            Project::describeOverlap);
+    }
+
+    /** @see Project#detectResourceOverallocations() */
+    public List<OverallocationDetector.Overallocation> detectResourceOverallocations() {
+        TaskIdIndex byId = taskIdIndex();
+        return ParallelAnalysis.getDefault().overallocations(resources, byId::get);
+    }
+
+    /**
+     * The result's tasks are this snapshot's frozen ones, so it cannot be
+     * applied; derive the leveled scenario with {@link #withLeveling}.
+     * @see Project#levelResources(ResourceLeveler.PriorityRule)
+     */
+    public ResourceLeveler.Result levelResources(ResourceLeveler.PriorityRule rule) {
+        return ResourceLeveler.level(tasks, getDependencyGraph(), resources, rule);
+    }
+
+    /** @return a snapshot with the moves of a leveling result computed on this snapshot */
+    public ProjectSnapshot withLeveling(ResourceLeveler.Result result) {
+        PersistentVector<Task> t = tasks;
+        for (ResourceLeveler.Change c : result.getChanges()) {
+            Task moved = t.get(c.getTaskIndex()).copy(false);
+            moved.setStart(Timestamps.format(c.getNewStart()));
+            moved.setEnd(Timestamps.format(c.getNewEnd()));
+            t = t.with(c.getTaskIndex(), moved.copy(true));
+        }
+        return new ProjectSnapshot(name, t, resources);
+    }
+
+    /** @see Project#simulateCompletion(int, long) */
+    public MonteCarloSimulation.Result simulateCompletion(int iterations, long seed) {
+        return ParallelAnalysis.allCores().simulate(new MonteCarloSimulation(iterations, seed),
+            tasks, getDependencyGraph());
+    }
+}
@@ -5,20 +5,165 @@ import java.util.*;
 public class Resource {
     private String name;
     private List<Allocation> allocations;
+    // set instead of allocations when the allocations are stored packed
+    private PackedAllocations packed;
+    private Project owner;
+    // true for the shared, read-only copies held by a ProjectSnapshot
+    private boolean frozen;
+
+    /** Receives allocations as primitive pairs, so iterating creates no objects. */
+    public interface AllocationVisitor {
+        void visit(int taskId, int load);
+    }
 
     public Resource(String name, List<Allocation> allocations) {
         this.name = name;
-        this.allocations = allocations != null ? allocations : new ArrayList<>();
+        this.allocations = new AllocationList(this, allocations != null ? allocations : new ArrayList<>());
+    }
+
+    /**
+     * Creates a resource whose allocations are stored packed, as parallel
+     * task id and load arrays sorted by task id; see {@link #packAllocations()}.
+     */
+    public Resource(String name, int[] taskIds, int[] loads) {
+        if (taskIds.length != loads.length) throw new IllegalArgumentException("taskIds and loads must have the same length");
+        this.name = name;
+        this.packed = new PackedAllocations(this, taskIds, loads, taskIds.length);
     }
 
     
     public String getName() { return name; }
-    public List<Allocation> getAllocations() { return allocations; }
-    public void setName(String name) { this.name = name; }
-    public void setAllocations(List<Allocation> allocations) { this.allocations = allocations; }
+
+    /**
+     * The allocations as a list. For a packed resource this is a lazy view
+     * whose elements read and write the packed arrays and cannot take a
+     * resource id or name. Positions then follow task id order: add(index, a)
+     * puts the allocation after the others to its task, whatever the index.
+     */
+    public List<Allocation> getAllocations() {
+        if (frozen) return Collections.unmodifiableList(packed != null ? packed : allocations);
+        return packed != null ? packed : allocations;
+    }
+    public void setName(String name) { checkMutable(); this.name = name; changed(); }
+    public void setAllocations(List<Allocation> allocations) {
+        checkMutable();
+        this.packed = null;
+        this.allocations = allocations == null ? null : new AllocationList(this, ObservedList.unwrap(allocations));
+        changed();
+    }
+
+    /**
+     * Moves the allocations into packed primitive storage, ordered by task id.
+     * Saves one object per allocation and makes lookup by task a binary search.
+     */
+    public void packAllocations() {
+        if (packed != null) return;
+        int n = allocations == null ? 0 : allocations.size();
+        int[] taskIds = new int[n];
+        int[] loads = new int[n];
+        for (int i = 0; i < n; i++) {
+            Allocation a = allocations.get(i);
+            if (a.getOwner() == this) a.setOwner(null);
+            taskIds[i] = a.getTaskId();
+            loads[i] = a.getLoad();
+        }
+        packed = new PackedAllocations(this, taskIds, loads, n);
+        allocations = null;
+        changed();
+    }
+
+    public boolean isPacked() { return packed != null; }
+
+    // --- Primitive access, the same for packed and list storage ---
+
+    public int allocationCount() {
+        if (packed != null) return packed.size;
+        return allocations == null ? 0 : allocations.size();
+    }
+
+    public int allocationTaskId(int i) {
+        return packed != null ? packed.taskIds[i] : allocations.get(i).getTaskId();
+    }
+
+    public int allocationLoad(int i) {
+        return packed != null ? packed.loads[i] : allocations.get(i).getLoad();
+    }
+
+    public void forEachAllocation(AllocationVisitor visitor) {
+        if (packed != null) {
+            for (int i = 0; i < packed.size; i++) visitor.visit(packed.taskIds[i], packed.loads[i]);
+        } else if (allocations != null) {
+            for (Allocation a : allocations) visitor.visit(a.getTaskId(), a.getLoad());
+        }
+    }
+
+    /**
+     * Total load this resource puts on a task; a binary search when packed.
+     * @return the summed load, or -1 if the resource has no allocation to the task
+     */
+    public int loadOn(int taskId) {
+        if (packed != null) return packed.loadOn(taskId);
+        int sum = -1;
+        if (allocations != null) {
+            for (Allocation a : allocations) {
+                if (a.getTaskId() == taskId) sum = (sum == -1 ? 0 : sum) + a.getLoad();
+            }
+        }
+        return sum;
+    }
+
+    public boolean isAllocatedTo(int taskId) {
+        if (packed != null) return packed.loadOn(taskId) != -1;
+        if (allocations != null) {
+            for (Allocation a : allocations) {
+                if (a.getTaskId() == taskId) return true;
+            }
+        }
+        return false;
+    }
+
+    // --- Snapshots ---
+
+    /** @return true if this resource belongs to a snapshot and cannot be edited */
+    public boolean isFrozen() { return frozen; }
+
+    /**
+     * A detached copy with the same allocations in the same storage form:
+     * list allocations keep their order and every field. Frozen copies, and
+     * the allocations in them, reject every change.
+     */
+    Resource copy(boolean frozen) {
+        if (frozen && this.frozen) return this;
+        Resource r;
+        if (packed == null) {
+            List<Allocation> list = new ArrayList<>(allocationCount());
+            if (allocations != null) {
+                for (Allocation a : allocations) {
+                    list.add(new Allocation(a.getTaskId(), a.getResourceId(), a.getResourceName(), a.getLoad()));
+                }
+            }
+            r = new Resource(name, list);
+        } else {
+            r = new Resource(name, Arrays.copyOf(packed.taskIds, packed.size), Arrays.copyOf(packed.loads, packed.size));
+        }
+        r.frozen = frozen;
+        return r;
+    }
+
+    void checkMutable() {
+        if (frozen) throw new UnsupportedOperationException("Resource " + name + " belongs to a snapshot and cannot be edited");
+    }
+
+    // --- Change tracking (owner set by the project's resource list) ---
+    Project getOwner() { return owner; }
+    void setOwner(Project owner) { this.owner = owner; }
+
+    void changed() {
+        if (owner != null) owner.resourceChanged(this);
+    }
 
     @Override
     public String toString() {
-        return name + " " + allocations;
+        return name + " " + getAllocations();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,28 @@
+package model;
+
+import java.util.List;
+
+/**
+ * The list handed out by {@link Project#getResources()}; reports insertions
+ * and removals so the project can drop indexes built over allocations.
+ */
+final class ResourceList extends ObservedList<Resource> {
+    private final Project project;
+
+    ResourceList(Project project, List<Resource> backing) {
+        super(backing);
+        this.project = project;
+        for (Resource r : backing) r.setOwner(project);
+    }
+
+    @Override
+    void added(Resource resource) {
+        resource.setOwner(project);
+        project.resourceAdded(resource);
+    }
+
+    @Override
+    void removed(Resource resource) {
+        project.resourceRemoved(resource);
+    }
+}
@@ -5,14 +5,24 @@ public class Task {
     private String title;
     private String start;
     private String end;
+    // start/end parsed once; -1 when the text is not a supported date
+    private long startMillis;
+    private long endMillis;
     private String dependencies;
     private String team;
 
+    // project whose indexes must hear about edits to this task
+    private Project owner;
+    // true for the shared, read-only copies held by a ProjectSnapshot
+    private boolean frozen;
+
     public Task(int id, String title, String start, String end, String dependencies) {
         this.id = id;
         this.title = title;
         this.start = start;
         this.end = end;
+        this.startMillis = Timestamps.parseToMillis(start);
+        this.endMillis = Timestamps.parseToMillis(end);
         this.dependencies = dependencies;
         this.team = "";
     }
@@ -24,17 +34,62 @@ public class Task {
     public String getEnd() { return end; }
     public String getDependencies() { return dependencies; }
     public String getTeam() { return team; }
+    public long getStartMillis() { return startMillis; }
+    public long getEndMillis() { return endMillis; }
+
+    /** @return true if both start and end parsed to a date */
+    public boolean isScheduled() { return startMillis != -1 && endMillis != -1; }
 
     // Setters
-    public void setId(int id) { this.id = id; }
-    public void setTitle(String title) { this.title = title; }
-    public void setStart(String start) { this.start = start; }
-    public void setEnd(String end) { this.end = end; }
-    public void setDependencies(String dependencies) { this.dependencies = dependencies; }
-    public void setTeam(String team) { this.team = team; }
+    public void setId(int id) {
+        checkMutable();
+        int oldId = this.id;
+        this.id = id;
+        if (owner != null) owner.taskIdChanged(this, oldId);
+    }
+    public void setTitle(String title) { checkMutable(); this.title = title; changed(); }
+    public void setStart(String start) {
+        checkMutable();
+        this.start = start;
+        this.startMillis = Timestamps.parseToMillis(start);
+        changed();
+    }
+    public void setEnd(String end) {
+        checkMutable();
+        this.end = end;
+        this.endMillis = Timestamps.parseToMillis(end);
+        changed();
+    }
+    public void setDependencies(String dependencies) { checkMutable(); this.dependencies = dependencies; changed(); }
+    public void setTeam(String team) { checkMutable(); this.team = team; changed(); }
+
+    /** @return true if this task belongs to a snapshot and cannot be edited */
+    public boolean isFrozen() { return frozen; }
+
+    /** A detached copy with the same fields; frozen copies reject every setter. */
+    Task copy(boolean frozen) {
+        if (frozen && this.frozen) return this;
+        Task t = new Task(id, title, start, end, dependencies);
+        t.team = team;
+        t.frozen = frozen;
+        return t;
+    }
+
+    private void checkMutable() {
+        if (frozen) throw new UnsupportedOperationException("Task " + id + " belongs to a snapshot and cannot be edited");
+    }
+
+    Project getOwner() { return owner; }
+    void setOwner(Project owner) { this.owner = owner; }
+
+    private void changed() {
+        if (owner != null) owner.taskChanged(this);
+    }
 
+    // Tasks whose dates could not be parsed never overlap anything
     public boolean overlapsWith(Task other) {
-        return this.start.compareTo(other.getEnd()) <= 0 &&
-               this.end.compareTo(other.getStart()) >= 0;
+        if (!isScheduled() || !other.isScheduled()) return false;
+        return this.startMillis <= other.endMillis &&
+               this.endMillis >= other.startMillis;
     }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package model;
+
+import java.util.List;
+
+/**
+ * The list handed out by {@link Project#getTasks()}. It writes through to the
+ * list given to {@link Project#setTasks(List)} and tells the owning project about
+ * every insertion and removal so the project's indexes stay current.
+ */
+final class TaskList extends ObservedList<Task> {
+    private final Project project;
+
+    TaskList(Project project, List<Task> backing) {
+        super(backing);
+        this.project = project;
+        for (Task t : backing) t.setOwner(project);
+    }
+
+    @Override
+    void added(Task task) {
+        task.setOwner(project);
+        project.taskAdded(task);
+    }
+
+    @Override
+    void removed(Task task) {
+        project.taskRemoved(task);
+    }
+}
@@ -0,0 +1,197 @@
+package model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Date parsing shared by the model, controllers and views.
+ * Supported inputs: yyyyMMdd[HHmm][+-HHmm], yyyyMMddHH, yyyy-MM-dd HH:mm and yyyy-MM-dd.
+ *
+ * The parser is hand-rolled: the format is told apart by length and by the
+ * char at position 4, fields are read digit by digit, and a bad input returns
+ * -1 without throwing. Local times are resolved like {@link LocalDateTime#atZone}
+ * with java.time's smart resolver: a day past the end of the month becomes its
+ * last day and 24:00 is midnight of the next day. The system zone is read
+ * once; its offset per local day is cached, so only days with a DST
+ * transition go through java.time.
+ */
+public final class Timestamps {
+    private static final DateTimeFormatter MINUTES = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final Zone SYSTEM = new Zone(ZoneId.systemDefault());
+    private static volatile Zone lastZone = SYSTEM;
+
+    private Timestamps() {}
+
+    // Parse various date formats to epoch millis. Returns -1 on failure.
+    public static long parseToMillis(String dateStr) {
+        return parse(dateStr, SYSTEM);
+    }
+
+    /** Like {@link #parseToMillis(String)}, resolving times without an offset in {@code zone}. */
+    public static long parseToMillis(String dateStr, ZoneId zone) {
+        Zone z = lastZone;
+        if (!z.id.equals(zone)) lastZone = z = new Zone(zone);
+        return parse(dateStr, z);
+    }
+
+    private static long parse(String s, Zone zone) {
+        if (s == null) return -1;
+        int a = 0, b = s.length();
+        while (a < b && s.charAt(a) <= ' ') a++;
+        while (b > a && s.charAt(b - 1) <= ' ') b--;
+        int len = b - a;
+        if (len < 8) return -1;
+
+        if (s.charAt(a + 4) == '-') {
+            // yyyy-MM-dd or yyyy-MM-dd HH:mm
+            if ((len != 10 && len != 16) || s.charAt(a + 7) != '-') return -1;
+            int hour = 0, minute = 0;
+            if (len == 16) {
+                if (s.charAt(a + 10) != ' ' || s.charAt(a + 13) != ':') return -1;
+                hour = digits(s, a + 11, 2);
+                minute = digits(s, a + 14, 2);
+            }
+            return local(digits(s, a, 4), digits(s, a + 5, 2), digits(s, a + 8, 2), hour, minute, zone);
+        }
+
+        // yyyyMMdd, yyyyMMddHH or yyyyMMddHHmm, the first and last optionally with +-HHmm
+        int n = 0;
+        while (n < len && isDigit(s.charAt(a + n))) n++;
+        int year = digits(s, a, 4), month = digits(s, a + 4, 2), day = digits(s, a + 6, 2);
+        if (n == len) {
+            switch (len) {
+                case 8: return local(year, month, day, 0, 0, zone);
+                case 10: return local(year, month, day, digits(s, a + 8, 2), 0, zone);
+                case 12: return local(year, month, day, digits(s, a + 8, 2), digits(s, a + 10, 2), zone);
+                default: return -1;
+            }
+        }
+        if ((n != 8 && n != 12) || len != n + 5) return -1;
+        char sign = s.charAt(a + n);
+        if (sign != '+' && sign != '-') return -1;
+        int offHours = digits(s, a + n + 1, 2), offMinutes = digits(s, a + n + 3, 2);
+        if (offHours < 0 || offMinutes < 0 || offMinutes > 59 || offHours > 18 || (offHours == 18 && offMinutes > 0)) return -1;
+        int hour = n == 12 ? digits(s, a + 8, 2) : 0;
+        int minute = n == 12 ? digits(s, a + 10, 2) : 0;
+        // 24:00 is only read as the next midnight when there is no offset
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) return -1;
+        long epochDay = epochDay(year, month, day);
+        if (epochDay == Long.MIN_VALUE) return -1;
+        int offset = (offHours * 3600 + offMinutes * 60) * (sign == '-' ? -1 : 1);
+        return (epochDay * 86400 + hour * 3600 + minute * 60 - offset) * 1000;
+    }
+
+    private static boolean isDigit(char c) { return c >= '0' && c <= '9'; }
+
+    /** Reads {@code count} ASCII digits at {@code at}; -1 if any is not a digit. */
+    private static int digits(String s, int at, int count) {
+        int v = 0;
+        for (int i = at; i < at + count; i++) {
+            char c = s.charAt(i);
+            if (!isDigit(c)) return -1;
+            v = v * 10 + (c - '0');
+        }
+        return v;
+    }
+
+    /** Epoch millis of a local date and time in {@code zone}, or -1 if a field is out of range. */
+    private static long local(int year, int month, int day, int hour, int minute, Zone zone) {
+        if (hour < 0 || minute < 0 || minute > 59) return -1;
+        long epochDay = epochDay(year, month, day);
+        if (epochDay == Long.MIN_VALUE) return -1;
+        if (hour == 24) {
+            if (minute != 0) return -1;
+            epochDay++;
+            hour = 0;
+        } else if (hour > 23) {
+            return -1;
+        }
+        return zone.toEpochMillis(epochDay, hour * 3600 + minute * 60);
+    }
+
+    /**
+     * Days since 1970-01-01 of a proleptic Gregorian date, or Long.MIN_VALUE if
+     * the year, month or day is out of range. Days 29-31 past the month's end
+     * become its last day.
+     */
+    private static long epochDay(int year, int month, int day) {
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > 31) return Long.MIN_VALUE;
+        day = Math.min(day, monthLength(year, month));
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * ((month + 9) % 12) + 2) / 5 + day - 1; // counted from March 1st
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    private static int monthLength(int year, int month) {
+        switch (month) {
+            case 2: return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4: case 6: case 9: case 11: return 30;
+            default: return 31;
+        }
+    }
+
+    /** A zone's rules plus its offset per local day, for days without a transition. */
+    private static final class Zone {
+        private static final int CACHE_SIZE = 4096; // days, a power of two
+        private static final long VALID = 1L << 20;
+        private static final int BIAS = 1 << 19;     // offsets are within +-18h, well under 2^19 s
+        private static final int NO_OFFSET = Integer.MIN_VALUE;
+        // local instants map to UTC within this many seconds either way
+        private static final long MAX_OFFSET = 18 * 3600;
+
+        final ZoneId id;
+        final ZoneRules rules;
+        final int fixedOffset; // NO_OFFSET unless the zone never changes offset
+        // entry per day slot: epochDay << 21 | VALID | (offset + BIAS); opaque access keeps longs whole
+        final AtomicLongArray days = new AtomicLongArray(CACHE_SIZE);
+
+        Zone(ZoneId id) {
+            this.id = id;
+            this.rules = id.getRules();
+            this.fixedOffset = rules.isFixedOffset() ? rules.getOffset(Instant.EPOCH).getTotalSeconds() : NO_OFFSET;
+        }
+
+        long toEpochMillis(long epochDay, int secondOfDay) {
+            int offset = fixedOffset != NO_OFFSET ? fixedOffset : offsetOn(epochDay);
+            if (offset == NO_OFFSET) {
+                // a transition falls on this day: let java.time resolve gaps and overlaps
+                LocalDateTime ldt = LocalDateTime.ofEpochSecond(epochDay * 86400 + secondOfDay, 0, ZoneOffset.UTC);
+                return ldt.atZone(id).toInstant().toEpochMilli();
+            }
+            return (epochDay * 86400 + secondOfDay - offset) * 1000;
+        }
+
+        /** The single offset in force on a local day, or NO_OFFSET if it changes around that day. */
+        private int offsetOn(long epochDay) {
+            int slot = (int) (epochDay & (CACHE_SIZE - 1));
+            long e = days.getOpaque(slot);
+            if ((e & VALID) != 0 && (e >> 21) == epochDay) return (int) (e & (VALID - 1)) - BIAS;
+            long from = epochDay * 86400 - MAX_OFFSET;
+            long to = (epochDay + 1) * 86400 + MAX_OFFSET;
+            ZoneOffsetTransition next = rules.nextTransition(Instant.ofEpochSecond(from - 1));
+            if (next != null && next.toEpochSecond() <= to) return NO_OFFSET;
+            int offset = rules.getOffset(Instant.ofEpochSecond(from)).getTotalSeconds();
+            days.setOpaque(slot, (epochDay << 21) | VALID | (offset + BIAS));
+            return offset;
+        }
+    }
+
+    // Formats epoch millis as yyyy-MM-dd, or yyyy-MM-dd HH:mm when not at midnight (system zone)
+    public static String format(long millis) {
+        LocalDateTime ldt = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), SYSTEM.id);
+        if (ldt.toLocalTime().equals(LocalTime.MIDNIGHT)) {
+            return ldt.toLocalDate().toString();
+        }
+        return ldt.format(MINUTES);
+    }
+}
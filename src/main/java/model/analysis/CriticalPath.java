@@ -0,0 +1,242 @@
+package model.analysis;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import model.Task;
+
+/**
+ * Critical path method over the task dependency graph.
+ *
+ * Runs on a {@link DependencyGraph}: its topological order is walked forward
+ * and then backward, so a full analysis is O(V + E).
+ *
+ * Planned start dates act as "start no earlier than" constraints; a task
+ * whose dates cannot be parsed is treated as a zero-length milestone.
+ * All times are epoch millis; task positions follow the input list.
+ */
+public final class CriticalPath {
+    private final int n;
+    private final long[] es, ef, ls, lf;
+    private final int[] driver;
+    // successor lists, kept for free-float queries
+    private final int[] succStart;
+    private final int[] succs;
+    private final boolean cycle;
+    private final long projectStart, projectFinish;
+
+    private CriticalPath(int n, long[] es, long[] ef, long[] ls, long[] lf, int[] driver,
+                         int[] succStart, int[] succs,
+                         boolean cycle, long projectStart, long projectFinish) {
+        this.n = n;
+        this.es = es;
+        this.ef = ef;
+        this.ls = ls;
+        this.lf = lf;
+        this.driver = driver;
+        this.succStart = succStart;
+        this.succs = succs;
+        this.cycle = cycle;
+        this.projectStart = projectStart;
+        this.projectFinish = projectFinish;
+    }
+
+    public static CriticalPath compute(List<Task> tasks) {
+        return compute(tasks, DependencyGraph.build(tasks));
+    }
+
+    /** @param graph dependency graph built from the same task list */
+    public static CriticalPath compute(List<Task> tasks, DependencyGraph graph) {
+        return compute(tasks, graph, null);
+    }
+
+    /**
+     * Runs both passes one DAG level at a time, the tasks of a wide level in
+     * parallel on {@code pool}. A task's level is one more than its deepest
+     * predecessor's, so within a level no task reads another's result and the
+     * outcome is the same as the sequential passes.
+     * @param pool pool to run on, or null to run on the calling thread
+     */
+    public static CriticalPath compute(List<Task> tasks, DependencyGraph graph, ForkJoinPool pool) {
+        Passes p = new Passes(tasks, graph);
+        int[] order = graph.order();
+        if (pool == null) {
+            for (int u : order) p.forward(u);
+            p.finish(order);
+            for (int o = order.length - 1; o >= 0; o--) p.backward(order[o]);
+        } else {
+            int[] levelStart = p.byLevel(order);
+            int[] byLevel = p.byLevelOrder;
+            int levels = levelStart.length - 1;
+            pool.submit(() -> {
+                for (int l = 0; l < levels; l++) run(byLevel, levelStart[l], levelStart[l + 1], p::forward);
+                p.finish(order);
+                for (int l = levels - 1; l >= 0; l--) run(byLevel, levelStart[l], levelStart[l + 1], p::backward);
+            }).join();
+        }
+        return new CriticalPath(p.n, p.es, p.ef, p.ls, p.lf, p.driver, graph.succStart, graph.succs,
+            order.length < p.n, p.projectStart, p.projectFinish);
+    }
+
+    // levels narrower than this run on the current worker
+    private static final int PARALLEL_LEVEL = 2048;
+
+    private static void run(int[] nodes, int from, int to, IntConsumer step) {
+        if (to - from < PARALLEL_LEVEL) {
+            for (int k = from; k < to; k++) step.accept(nodes[k]);
+        } else {
+            IntStream.range(from, to).parallel().forEach(k -> step.accept(nodes[k]));
+        }
+    }
+
+    /** Working state of the forward and backward passes. */
+    private static final class Passes {
+        final int n;
+        final long[] plannedStart, duration;
+        final int[] predStart, preds, succStart, succs;
+        final long[] es, ef, ls, lf;
+        final int[] driver;
+        long projectStart, projectFinish;
+        int[] byLevelOrder;
+
+        Passes(List<Task> tasks, DependencyGraph graph) {
+            n = tasks.size();
+            plannedStart = new long[n];
+            duration = new long[n];
+            long start = Long.MAX_VALUE;
+            for (int i = 0; i < n; i++) {
+                Task t = tasks.get(i);
+                if (t.isScheduled()) {
+                    plannedStart[i] = t.getStartMillis();
+                    duration[i] = Math.max(0, t.getEndMillis() - t.getStartMillis());
+                    start = Math.min(start, plannedStart[i]);
+                } else {
+                    plannedStart[i] = Long.MIN_VALUE;
+                }
+            }
+            projectStart = start == Long.MAX_VALUE ? 0 : start;
+            predStart = graph.predStart;
+            preds = graph.preds;
+            succStart = graph.succStart;
+            succs = graph.succs;
+            es = new long[n];
+            ef = new long[n];
+            ls = new long[n];
+            lf = new long[n];
+            driver = new int[n];
+            Arrays.fill(es, -1);
+            Arrays.fill(ef, -1);
+            Arrays.fill(ls, -1);
+            Arrays.fill(lf, -1);
+            Arrays.fill(driver, -1);
+        }
+
+        /** Groups the ordered tasks by level into byLevelOrder; returns each level's offset. */
+        int[] byLevel(int[] order) {
+            int[] level = new int[n];
+            int levels = 0;
+            for (int u : order) {
+                int l = 0;
+                for (int k = predStart[u]; k < predStart[u + 1]; k++) l = Math.max(l, level[preds[k]] + 1);
+                level[u] = l;
+                levels = Math.max(levels, l + 1);
+            }
+            int[] levelStart = new int[levels + 1];
+            for (int u : order) levelStart[level[u] + 1]++;
+            for (int l = 0; l < levels; l++) levelStart[l + 1] += levelStart[l];
+            int[] fill = Arrays.copyOf(levelStart, levels);
+            byLevelOrder = new int[order.length];
+            for (int u : order) byLevelOrder[fill[level[u]]++] = u;
+            return levelStart;
+        }
+
+        void forward(int u) {
+            long start = plannedStart[u] == Long.MIN_VALUE ? projectStart : plannedStart[u];
+            int drive = -1;
+            for (int k = predStart[u]; k < predStart[u + 1]; k++) {
+                int p = preds[k];
+                if (ef[p] > start || (ef[p] == start && drive == -1)) {
+                    start = ef[p];
+                    drive = p;
+                }
+            }
+            driver[u] = drive;
+            es[u] = start;
+            ef[u] = start + duration[u];
+        }
+
+        /** Project finish: the latest earliest finish, never before the project start. */
+        void finish(int[] order) {
+            long f = projectStart;
+            for (int u : order) if (ef[u] > f) f = ef[u];
+            projectFinish = f;
+        }
+
+        void backward(int u) {
+            long finish = projectFinish;
+            for (int k = succStart[u]; k < succStart[u + 1]; k++) {
+                int s = succs[k];
+                if (ls[s] != -1 && ls[s] < finish) finish = ls[s];
+            }
+            lf[u] = finish;
+            ls[u] = finish - duration[u];
+        }
+    }
+
+    public int size() { return n; }
+
+    /** @return true if the dependencies contain a cycle; tasks on or after it are left unscheduled (-1) */
+    public boolean hasCycle() { return cycle; }
+
+    public long getProjectStart() { return projectStart; }
+    public long getProjectFinish() { return projectFinish; }
+
+    public long earliestStart(int i) { return es[i]; }
+    public long earliestFinish(int i) { return ef[i]; }
+    public long latestStart(int i) { return ls[i]; }
+    public long latestFinish(int i) { return lf[i]; }
+
+    /** How long task i can slip without delaying the project. */
+    public long totalFloat(int i) { return es[i] == -1 ? -1 : ls[i] - es[i]; }
+
+    /** How long task i can slip without delaying any successor's earliest start. */
+    public long freeFloat(int i) {
+        if (es[i] == -1) return -1;
+        long next = projectFinish;
+        for (int k = succStart[i]; k < succStart[i + 1]; k++) {
+            if (es[succs[k]] != -1 && es[succs[k]] < next) next = es[succs[k]];
+        }
+        return next - ef[i];
+    }
+
+    public boolean isCritical(int i) { return es[i] != -1 && ls[i] == es[i]; }
+
+    /** @return the predecessor that fixes task i's earliest start, or -1 if its own start date does */
+    public int drivingPredecessor(int i) { return driver[i]; }
+
+    /** @return task positions of the driving chain that ends at task i, first task first */
+    public int[] chainTo(int i) {
+        int len = 0;
+        for (int u = i; u != -1; u = driver[u]) len++;
+        int[] chain = new int[len];
+        for (int u = i; u != -1; u = driver[u]) chain[--len] = u;
+        return chain;
+    }
+
+    /** @return task positions of the critical path ending at the latest finishing task */
+    public int[] criticalPath() {
+        int last = finishingTask();
+        return last == -1 ? new int[0] : chainTo(last);
+    }
+
+    /** @return position of the task whose earliest finish is the project finish, or -1 */
+    public int finishingTask() {
+        int last = -1;
+        for (int i = 0; i < n; i++) {
+            if (ef[i] != -1 && (last == -1 || ef[i] > ef[last])) last = i;
+        }
+        return last;
+    }
+}
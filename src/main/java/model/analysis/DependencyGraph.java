@@ -0,0 +1,246 @@
+package model.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import model.Task;
+
+/**
+ * Task dependency graph in compressed sparse row form.
+ *
+ * Nodes are dense task indexes (positions in the task list the graph was
+ * built from). Predecessors and successors are stored as one offsets array
+ * plus one flat int array each, so a million-edge graph costs a few MB and
+ * no per-edge objects. Dependency strings are parsed exactly once, here;
+ * anything that cannot become an edge is kept as an {@link Issue} for
+ * validation to report.
+ */
+public final class DependencyGraph {
+
+    /** A dependency token that did not resolve to a task. */
+    public static final class Issue {
+        public final int taskIndex;
+        public final String token;
+        /** true: a well-formed id that matches no task; false: not an integer at all */
+        public final boolean unknownId;
+
+        Issue(int taskIndex, String token, boolean unknownId) {
+            this.taskIndex = taskIndex;
+            this.token = token;
+            this.unknownId = unknownId;
+        }
+    }
+
+    final int n;
+    final int[] predStart;
+    final int[] preds;
+    final int[] succStart;
+    final int[] succs;
+    private final Map<Integer, Integer> indexById;
+    private final List<Issue> issues;
+    private int[] order; // topological order, computed on demand
+
+    private DependencyGraph(int n, int[] predStart, int[] preds, int[] succStart, int[] succs,
+                            Map<Integer, Integer> indexById, List<Issue> issues) {
+        this.n = n;
+        this.predStart = predStart;
+        this.preds = preds;
+        this.succStart = succStart;
+        this.succs = succs;
+        this.indexById = indexById;
+        this.issues = issues;
+    }
+
+    /**
+     * Builds the graph from each task's comma separated predecessor ids.
+     * When ids repeat, the first task with that id is the one referenced.
+     */
+    public static DependencyGraph build(List<Task> tasks) {
+        int n = tasks.size();
+        Map<Integer, Integer> indexById = new HashMap<>(Math.max(16, n * 2));
+        for (int i = 0; i < n; i++) indexById.putIfAbsent(tasks.get(i).getId(), i);
+
+        int[] predStart = new int[n + 1];
+        int[] preds = new int[Math.max(16, n)];
+        int e = 0;
+        List<Issue> issues = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            predStart[i] = e;
+            String deps = tasks.get(i).getDependencies();
+            if (deps == null) continue;
+            int len = deps.length();
+            int pos = 0;
+            while (pos <= len) {
+                int comma = deps.indexOf(',', pos);
+                if (comma < 0) comma = len;
+                int a = pos, b = comma;
+                while (a < b && deps.charAt(a) <= ' ') a++;
+                while (b > a && deps.charAt(b - 1) <= ' ') b--;
+                pos = comma + 1;
+                if (a == b) continue;
+                long id = parseInt(deps, a, b);
+                if (id == Long.MIN_VALUE) {
+                    issues.add(new Issue(i, deps.substring(a, b), false));
+                    continue;
+                }
+                Integer p = indexById.get((int) id);
+                if (p == null) {
+                    issues.add(new Issue(i, String.valueOf(id), true));
+                    continue;
+                }
+                if (e == preds.length) preds = Arrays.copyOf(preds, preds.length * 2);
+                preds[e++] = p;
+            }
+        }
+        predStart[n] = e;
+        preds = Arrays.copyOf(preds, e);
+
+        int[] succStart = new int[n + 1];
+        for (int k = 0; k < e; k++) succStart[preds[k] + 1]++;
+        for (int i = 0; i < n; i++) succStart[i + 1] += succStart[i];
+        int[] succs = new int[e];
+        int[] fill = Arrays.copyOf(succStart, n);
+        for (int i = 0; i < n; i++) {
+            for (int k = predStart[i]; k < predStart[i + 1]; k++) succs[fill[preds[k]]++] = i;
+        }
+        return new DependencyGraph(n, predStart, preds, succStart, succs, indexById, issues);
+    }
+
+    /** Parses [a, b) like Integer.parseInt; returns Long.MIN_VALUE if it is not a valid int. */
+    private static long parseInt(String s, int a, int b) {
+        boolean neg = false;
+        char c = s.charAt(a);
+        if (c == '+' || c == '-') {
+            neg = c == '-';
+            if (++a == b) return Long.MIN_VALUE;
+        }
+        if (b - a > 10) return Long.MIN_VALUE;
+        long v = 0;
+        for (int i = a; i < b; i++) {
+            c = s.charAt(i);
+            if (c < '0' || c > '9') return Long.MIN_VALUE;
+            v = v * 10 + (c - '0');
+        }
+        if (neg) v = -v;
+        return (v < Integer.MIN_VALUE || v > Integer.MAX_VALUE) ? Long.MIN_VALUE : v;
+    }
+
+    public int size() { return n; }
+    public int edgeCount() { return preds.length; }
+
+    /** @return dense index of the (first) task with this id, or -1 */
+    public int indexOf(int taskId) {
+        Integer i = indexById.get(taskId);
+        return i == null ? -1 : i;
+    }
+
+    public int predecessorCount(int i) { return predStart[i + 1] - predStart[i]; }
+    public int predecessor(int i, int k) { return preds[predStart[i] + k]; }
+    public int successorCount(int i) { return succStart[i + 1] - succStart[i]; }
+    public int successor(int i, int k) { return succs[succStart[i] + k]; }
+
+    /** @return dependency tokens that did not resolve, in task order */
+    public List<Issue> getIssues() { return Collections.unmodifiableList(issues); }
+
+    /**
+     * Kahn's algorithm. When the graph has a cycle the returned order only
+     * contains the tasks that do not depend (transitively) on one.
+     */
+    public int[] topologicalOrder() {
+        return order().clone();
+    }
+
+    // shared, unmodified order for the engines in this package
+    int[] order() {
+        if (order == null) {
+            int[] indeg = new int[n];
+            for (int i = 0; i < n; i++) indeg[i] = predStart[i + 1] - predStart[i];
+            int[] out = new int[n];
+            int head = 0, tail = 0;
+            for (int i = 0; i < n; i++) if (indeg[i] == 0) out[tail++] = i;
+            while (head < tail) {
+                int u = out[head++];
+                for (int k = succStart[u]; k < succStart[u + 1]; k++) {
+                    if (--indeg[succs[k]] == 0) out[tail++] = succs[k];
+                }
+            }
+            order = tail == n ? out : Arrays.copyOf(out, tail);
+        }
+        return order;
+    }
+
+    public boolean hasCycle() { return order().length < n; }
+
+    /**
+     * Strongly connected components that contain a cycle: two or more tasks
+     * that depend on each other, or one task that depends on itself.
+     * Iterative Tarjan, O(V + E) with explicit stacks, so graph depth is not
+     * limited by the thread's stack.
+     * @return each cycle's task indexes in ascending order, cycles ordered by their first index
+     */
+    public List<int[]> cycles() {
+        List<int[]> out = new ArrayList<>();
+        if (!hasCycle()) return out;
+        int[] index = new int[n];
+        int[] low = new int[n];
+        Arrays.fill(index, -1);
+        boolean[] onStack = new boolean[n];
+        int[] stack = new int[n];     // Tarjan's component stack
+        int top = 0;
+        int[] call = new int[n];      // depth-first path
+        int[] edge = new int[n];      // next successor slot of each node on the path
+        int counter = 0;
+        for (int root = 0; root < n; root++) {
+            if (index[root] != -1) continue;
+            int depth = 0;
+            call[depth] = root;
+            edge[depth++] = succStart[root];
+            index[root] = low[root] = counter++;
+            stack[top++] = root;
+            onStack[root] = true;
+            while (depth > 0) {
+                int v = call[depth - 1];
+                if (edge[depth - 1] < succStart[v + 1]) {
+                    int w = succs[edge[depth - 1]++];
+                    if (index[w] == -1) {
+                        call[depth] = w;
+                        edge[depth++] = succStart[w];
+                        index[w] = low[w] = counter++;
+                        stack[top++] = w;
+                        onStack[w] = true;
+                    } else if (onStack[w] && index[w] < low[v]) {
+                        low[v] = index[w];
+                    }
+                    continue;
+                }
+                depth--;
+                if (depth > 0) {
+                    int u = call[depth - 1];
+                    if (low[v] < low[u]) low[u] = low[v];
+                }
+                if (low[v] != index[v]) continue;
+                int from = top;
+                do {
+                    onStack[stack[--from]] = false;
+                } while (stack[from] != v);
+                int size = top - from;
+                if (size > 1 || dependsOnItself(v)) {
+                    int[] members = Arrays.copyOfRange(stack, from, top);
+                    Arrays.sort(members);
+                    out.add(members);
+                }
+                top = from;
+            }
+        }
+        out.sort((a, b) -> Integer.compare(a[0], b[0]));
+        return out;
+    }
+
+    private boolean dependsOnItself(int v) {
+        for (int k = predStart[v]; k < predStart[v + 1]; k++) if (preds[k] == v) return true;
+        return false;
+    }
+}
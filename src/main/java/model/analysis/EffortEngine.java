@@ -0,0 +1,153 @@
+package model.analysis;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import model.Resource;
+import model.Task;
+
+/**
+ * Effort per resource: the working time of each allocated task, from a
+ * {@link WorkingCalendar}, weighted by the allocation's load percentage.
+ *
+ * Each resource is reduced independently into its total and its weekly and
+ * monthly buckets, so {@link ParallelAnalysis} can process resources in
+ * parallel and merge the results once at the end; the methods here run on
+ * the calling thread. Effort is accumulated exactly as millis x percent
+ * and only turned into hours when read.
+ */
+public final class EffortEngine {
+    private static final double HOUR_PERCENT = 60.0 * 60 * 1000 * 100;
+
+    /** Effort of one resource (or the sum of several). */
+    public static final class Effort {
+        private final String resourceName;
+        private long total;
+        // keyed by the epoch day of the week's Monday / the month's first day
+        private final TreeMap<Long, Long> weekly = new TreeMap<>();
+        private final TreeMap<Long, Long> monthly = new TreeMap<>();
+
+        Effort(String resourceName) {
+            this.resourceName = resourceName;
+        }
+
+        public String getResourceName() { return resourceName; }
+
+        public double getHours() { return total / HOUR_PERCENT; }
+
+        /** Hours per week, keyed by the Monday that starts the week. */
+        public SortedMap<LocalDate, Double> getWeeklyHours() {
+            SortedMap<LocalDate, Double> out = new TreeMap<>();
+            for (Map.Entry<Long, Long> e : weekly.entrySet()) {
+                out.put(LocalDate.ofEpochDay(e.getKey()), e.getValue() / HOUR_PERCENT);
+            }
+            return Collections.unmodifiableSortedMap(out);
+        }
+
+        /** Hours per calendar month. */
+        public SortedMap<YearMonth, Double> getMonthlyHours() {
+            SortedMap<YearMonth, Double> out = new TreeMap<>();
+            for (Map.Entry<Long, Long> e : monthly.entrySet()) {
+                out.put(YearMonth.from(LocalDate.ofEpochDay(e.getKey())), e.getValue() / HOUR_PERCENT);
+            }
+            return Collections.unmodifiableSortedMap(out);
+        }
+
+        void mergeFrom(Effort other) {
+            total += other.total;
+            other.weekly.forEach((k, v) -> weekly.merge(k, v, Long::sum));
+            other.monthly.forEach((k, v) -> monthly.merge(k, v, Long::sum));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %.1f hrs", resourceName, getHours());
+        }
+    }
+
+    private EffortEngine() {}
+
+    /**
+     * @param taskById resolves an allocation's task id; may return null for unknown ids
+     * @return one entry per resource, in input order
+     */
+    public static List<Effort> compute(List<Resource> resources, IntFunction<Task> taskById, WorkingCalendar calendar) {
+        return compute(resources, taskById, r -> calendar);
+    }
+
+    /**
+     * Same, with each resource's working time read from its own calendar
+     * (e.g. the company calendar plus the resource's leave).
+     */
+    public static List<Effort> compute(List<Resource> resources, IntFunction<Task> taskById,
+                                       Function<Resource, WorkingCalendar> calendarOf) {
+        return compute(resources, taskById, calendarOf, false);
+    }
+
+    /** @param parallel true to split the resources over the pool this is called in */
+    static List<Effort> compute(List<Resource> resources, IntFunction<Task> taskById,
+                                Function<Resource, WorkingCalendar> calendarOf, boolean parallel) {
+        if (resources == null) return new ArrayList<>();
+        return (parallel ? resources.parallelStream() : resources.stream())
+            .map(r -> compute(r, taskById, calendarOf.apply(r)))
+            .collect(Collectors.toList());
+    }
+
+    /** Sums several resources' effort into one, named {@code name}. */
+    public static Effort total(String name, List<Effort> efforts) {
+        Effort sum = new Effort(name);
+        for (Effort e : efforts) sum.mergeFrom(e);
+        return sum;
+    }
+
+    public static Effort compute(Resource resource, IntFunction<Task> taskById, WorkingCalendar calendar) {
+        Effort effort = new Effort(resource.getName());
+        for (int i = 0, n = resource.allocationCount(); i < n; i++) {
+            int load = resource.allocationLoad(i);
+            if (load <= 0) continue;
+            Task t = taskById.apply(resource.allocationTaskId(i));
+            if (t == null) continue;
+            long from = calendar.localStart(t);
+            if (from == Long.MIN_VALUE) continue;
+            long to = calendar.localEnd(t);
+            effort.total += calendar.workingMillis(from, to) * load;
+            addByWeek(effort.weekly, calendar, from, to, load);
+            addByMonth(effort.monthly, calendar, from, to, load);
+        }
+        return effort;
+    }
+
+    private static void addByWeek(TreeMap<Long, Long> buckets, WorkingCalendar cal, long from, long to, int load) {
+        long day = Math.floorDiv(from, WorkingCalendar.DAY);
+        long week = day - Math.floorMod(day - 4, 7); // back to Monday (epoch day 4 is a Monday)
+        long cur = from;
+        while (cur < to) {
+            long next = Math.min(to, (week + 7) * WorkingCalendar.DAY);
+            long ms = cal.workingMillis(cur, next);
+            if (ms > 0) buckets.merge(week, ms * load, Long::sum);
+            cur = next;
+            week += 7;
+        }
+    }
+
+    private static void addByMonth(TreeMap<Long, Long> buckets, WorkingCalendar cal, long from, long to, int load) {
+        LocalDate month = LocalDate.ofEpochDay(Math.floorDiv(from, WorkingCalendar.DAY)).withDayOfMonth(1);
+        long cur = from;
+        while (cur < to) {
+            LocalDate nextMonth = month.plusMonths(1);
+            long next = Math.min(to, nextMonth.toEpochDay() * WorkingCalendar.DAY);
+            long ms = cal.workingMillis(cur, next);
+            if (ms > 0) buckets.merge(month.toEpochDay(), ms * load, Long::sum);
+            cur = next;
+            month = nextMonth;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package model.analysis;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Augmented interval tree over closed intervals [start, end].
+ *
+ * The tree is a treap ordered by start (ties broken by insertion order) in
+ * which every node also stores the largest end in its subtree. A stabbing or
+ * range query can then skip any subtree whose max end lies before the query,
+ * giving O(log n + k) expected time for k results. Items are tracked by
+ * identity so they can be removed or re-keyed after an edit.
+ */
+public final class IntervalIndex<T> {
+    private static final class Node<T> {
+        final T item;
+        final long start;
+        final long end;
+        final long seq;
+        final int priority;
+        long maxEnd;
+        Node<T> left, right;
+
+        Node(T item, long start, long end, long seq, int priority) {
+            this.item = item;
+            this.start = start;
+            this.end = end;
+            this.seq = seq;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+    }
+
+    private final Map<T, Node<T>> nodes = new IdentityHashMap<>();
+    private Node<T> root;
+    private long nextSeq;
+    private int seed = 0x2545F491;
+
+    public int size() { return nodes.size(); }
+
+    public boolean contains(T item) { return nodes.containsKey(item); }
+
+    public void clear() {
+        nodes.clear();
+        root = null;
+    }
+
+    /** Adds an item, replacing any interval previously stored for it. */
+    public void insert(T item, long start, long end) {
+        remove(item);
+        Node<T> n = new Node<>(item, start, end, nextSeq++, nextPriority());
+        nodes.put(item, n);
+        root = insert(root, n);
+    }
+
+    /** @return true if the item was indexed */
+    public boolean remove(T item) {
+        Node<T> n = nodes.remove(item);
+        if (n == null) return false;
+        root = remove(root, n);
+        return true;
+    }
+
+    /** Visits every item whose interval intersects [from, to]. Items are visited in start order. */
+    public void query(long from, long to, Consumer<? super T> visitor) {
+        query(root, from, to, visitor);
+    }
+
+    public List<T> query(long from, long to) {
+        List<T> out = new ArrayList<>();
+        query(from, to, out::add);
+        return out;
+    }
+
+    /** Visits every item whose interval contains the instant {@code at}. */
+    public void stab(long at, Consumer<? super T> visitor) {
+        query(root, at, at, visitor);
+    }
+
+    private void query(Node<T> n, long from, long to, Consumer<? super T> visitor) {
+        // iterative on the right spine, recursive on the left keeps the stack at O(log n)
+        while (n != null && n.maxEnd >= from) {
+            query(n.left, from, to, visitor);
+            if (n.start > to) return; // everything to the right starts later still
+            if (n.end >= from) visitor.accept(n.item);
+            n = n.right;
+        }
+    }
+
+    private int nextPriority() {
+        // xorshift: cheap, deterministic treap priorities
+        int x = seed;
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        seed = x;
+        return x;
+    }
+
+    private static <T> boolean before(Node<T> a, Node<T> b) {
+        return a.start < b.start || (a.start == b.start && a.seq < b.seq);
+    }
+
+    private static <T> void update(Node<T> n) {
+        long m = n.end;
+        if (n.left != null && n.left.maxEnd > m) m = n.left.maxEnd;
+        if (n.right != null && n.right.maxEnd > m) m = n.right.maxEnd;
+        n.maxEnd = m;
+    }
+
+    private static <T> Node<T> rotateRight(Node<T> n) {
+        Node<T> l = n.left;
+        n.left = l.right;
+        l.right = n;
+        update(n);
+        update(l);
+        return l;
+    }
+
+    private static <T> Node<T> rotateLeft(Node<T> n) {
+        Node<T> r = n.right;
+        n.right = r.left;
+        r.left = n;
+        update(n);
+        update(r);
+        return r;
+    }
+
+    private static <T> Node<T> insert(Node<T> at, Node<T> n) {
+        if (at == null) return n;
+        if (before(n, at)) {
+            at.left = insert(at.left, n);
+            if (at.left.priority > at.priority) return rotateRight(at);
+        } else {
+            at.right = insert(at.right, n);
+            if (at.right.priority > at.priority) return rotateLeft(at);
+        }
+        update(at);
+        return at;
+    }
+
+    private static <T> Node<T> remove(Node<T> at, Node<T> n) {
+        if (at == null) return null;
+        if (at == n) return merge(at.left, at.right);
+        if (before(n, at)) at.left = remove(at.left, n);
+        else at.right = remove(at.right, n);
+        update(at);
+        return at;
+    }
+
+    private static <T> Node<T> merge(Node<T> a, Node<T> b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+}
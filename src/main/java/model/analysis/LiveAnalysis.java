@@ -0,0 +1,323 @@
+package model.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import model.Project;
+import model.ProjectListener;
+import model.Resource;
+import model.Task;
+
+/**
+ * Keeps a project's overlaps, completion date, overallocations and effort
+ * current as the project is edited, instead of recomputing them per request.
+ *
+ * Overlaps are held as an adjacency set per task: an edit drops the task's
+ * pairs and re-queries the project's interval index for the new ones, in
+ * O(log n + k). Completion comes from tasks ordered by end time. Overallocation
+ * and effort are cached per resource and only the resources allocated to an
+ * edited task (or whose allocations changed) are recomputed, on next read.
+ * Which resources those are comes from a task id to resources map of its own,
+ * updated one resource at a time as allocations change, so an allocation edit
+ * costs that resource's allocations rather than a rebuild of the project's
+ * {@link TaskResourceIndex}.
+ *
+ * Results match the matching {@link model.Project} and
+ * {@code AnalysisController} methods. Like the model itself this class is not
+ * thread safe; edit and read on one thread (the Swing event thread).
+ */
+public final class LiveAnalysis implements ProjectListener {
+    private final Project project;
+    private final WorkingCalendar calendar;
+
+    // null until first needed, and again after the project is reloaded
+    private Map<Task, Set<Task>> neighbours;
+    private long pairCount;
+    private TreeMap<Long, LinkedHashSet<Task>> byEnd;
+    private Map<Task, Long> indexedEnd;
+
+    // task id -> resources allocated to it, and the task ids each resource was filed under
+    private Map<Integer, Set<Resource>> resourcesByTask;
+    private Map<Resource, int[]> filedTasks;
+
+    private final Map<Resource, List<OverallocationDetector.Overallocation>> overallocations = new IdentityHashMap<>();
+    private final Map<Resource, EffortEngine.Effort> effort = new IdentityHashMap<>();
+
+    public LiveAnalysis(Project project, WorkingCalendar calendar) {
+        this.project = project;
+        this.calendar = calendar;
+        project.addProjectListener(this);
+    }
+
+    public LiveAnalysis(Project project) {
+        this(project, WorkingCalendar.standard());
+    }
+
+    /** Stops listening to the project. */
+    public void detach() {
+        project.removeProjectListener(this);
+    }
+
+    private List<Task> tasks() {
+        return project.getTasks() != null ? project.getTasks() : Collections.emptyList();
+    }
+
+    // --- Events ---
+
+    @Override
+    public void taskAdded(Task task) {
+        if (neighbours != null) link(task);
+        if (byEnd != null) indexEnd(task);
+        resourcesOf(task.getId());
+    }
+
+    @Override
+    public void taskRemoved(Task task) {
+        if (neighbours != null) unlink(task);
+        if (byEnd != null) unindexEnd(task);
+        resourcesOf(task.getId());
+    }
+
+    @Override
+    public void taskChanged(Task task) {
+        if (neighbours != null) {
+            unlink(task);
+            link(task);
+        }
+        if (byEnd != null) {
+            unindexEnd(task);
+            indexEnd(task);
+        }
+        resourcesOf(task.getId());
+    }
+
+    @Override
+    public void taskIdChanged(Task task, int oldId) {
+        resourcesOf(oldId);
+        resourcesOf(task.getId());
+    }
+
+    @Override
+    public void resourceAdded(Resource resource) {
+        forget(resource);
+        if (resourcesByTask != null) file(resource);
+    }
+
+    @Override
+    public void resourceRemoved(Resource resource) {
+        forget(resource);
+        if (resourcesByTask != null) unfile(resource);
+    }
+
+    @Override
+    public void allocationsChanged(Resource resource) {
+        forget(resource);
+        if (resourcesByTask != null) file(resource);
+    }
+
+    @Override
+    public void projectReloaded() {
+        resourcesByTask = null;
+        filedTasks = null;
+        neighbours = null;
+        byEnd = null;
+        indexedEnd = null;
+        overallocations.clear();
+        effort.clear();
+    }
+
+    /** Drops cached results of the resources allocated to this task id. */
+    private void resourcesOf(int taskId) {
+        if (overallocations.isEmpty() && effort.isEmpty()) return;
+        if (resourcesByTask == null) {
+            resourcesByTask = new HashMap<>();
+            filedTasks = new IdentityHashMap<>();
+            if (project.getResources() != null) {
+                for (Resource r : project.getResources()) file(r);
+            }
+        }
+        Set<Resource> allocated = resourcesByTask.get(taskId);
+        if (allocated != null) {
+            for (Resource r : allocated) forget(r);
+        }
+    }
+
+    /** Files the resource under the ids of the tasks it is allocated to, replacing earlier entries. */
+    private void file(Resource resource) {
+        int n = resource.allocationCount();
+        int[] ids = new int[n];
+        for (int k = 0; k < n; k++) ids[k] = resource.allocationTaskId(k);
+        Arrays.sort(ids);
+        int distinct = 0;
+        for (int k = 0; k < n; k++) {
+            if (k == 0 || ids[k] != ids[k - 1]) ids[distinct++] = ids[k];
+        }
+        ids = Arrays.copyOf(ids, distinct);
+        unfile(resource);
+        for (int id : ids) {
+            resourcesByTask.computeIfAbsent(id, k -> Collections.newSetFromMap(new IdentityHashMap<>())).add(resource);
+        }
+        filedTasks.put(resource, ids);
+    }
+
+    private void unfile(Resource resource) {
+        int[] ids = filedTasks.remove(resource);
+        if (ids == null) return;
+        for (int id : ids) {
+            Set<Resource> allocated = resourcesByTask.get(id);
+            allocated.remove(resource);
+            if (allocated.isEmpty()) resourcesByTask.remove(id);
+        }
+    }
+
+    private void forget(Resource resource) {
+        overallocations.remove(resource);
+        effort.remove(resource);
+    }
+
+    // --- Overlaps ---
+
+    private Map<Task, Set<Task>> neighbours() {
+        if (neighbours == null) {
+            List<Task> tasks = tasks();
+            neighbours = new IdentityHashMap<>();
+            for (long pair : OverlapEngine.forTasks(tasks).pairs()) {
+                Task a = tasks.get(OverlapEngine.first(pair));
+                Task b = tasks.get(OverlapEngine.second(pair));
+                adjacent(a).add(b);
+                adjacent(b).add(a);
+            }
+            pairCount = 0;
+            for (Set<Task> s : neighbours.values()) pairCount += s.size();
+            pairCount /= 2;
+        }
+        return neighbours;
+    }
+
+    private Set<Task> adjacent(Task t) {
+        return neighbours.computeIfAbsent(t, k -> Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    private void link(Task task) {
+        if (!task.isScheduled()) return;
+        for (Task other : project.findTasksActiveBetween(task.getStartMillis(), task.getEndMillis())) {
+            if (other == task) continue;
+            if (adjacent(task).add(other)) {
+                adjacent(other).add(task);
+                pairCount++;
+            }
+        }
+    }
+
+    private void unlink(Task task) {
+        Set<Task> adj = neighbours.remove(task);
+        if (adj == null) return;
+        for (Task other : adj) {
+            Set<Task> back = neighbours.get(other);
+            back.remove(task);
+            if (back.isEmpty()) neighbours.remove(other);
+        }
+        pairCount -= adj.size();
+    }
+
+    /** Number of overlapping task pairs, in O(1) once built. */
+    public long getOverlapCount() {
+        neighbours();
+        return pairCount;
+    }
+
+    /**
+     * Same list as {@code AnalysisController.getOverlappingTasks}: one
+     * "a ↔ b" entry per pair, in task list order, each formatted when read.
+     * Costs O(n + k log k).
+     */
+    public List<String> getOverlappingTasks() {
+        Map<Task, Set<Task>> adj = neighbours();
+        List<Task> tasks = tasks();
+        Map<Task, Integer> position = new IdentityHashMap<>(tasks.size() * 2);
+        for (int i = 0; i < tasks.size(); i++) position.putIfAbsent(tasks.get(i), i);
+
+        long[] pairs = new long[(int) pairCount];
+        int k = 0;
+        for (Map.Entry<Task, Set<Task>> e : adj.entrySet()) {
+            int i = position.get(e.getKey());
+            for (Task other : e.getValue()) {
+                int j = position.get(other);
+                if (i < j) pairs[k++] = OverlapEngine.pack(i, j);
+            }
+        }
+        Arrays.sort(pairs, 0, k);
+        return new OverlapList(pairs, tasks, (a, b) -> a.getTitle() + " ↔ " + b.getTitle());
+    }
+
+    // --- Completion ---
+
+    private void indexEnd(Task task) {
+        if (!task.isScheduled()) return;
+        byEnd.computeIfAbsent(task.getEndMillis(), k -> new LinkedHashSet<>()).add(task);
+        indexedEnd.put(task, task.getEndMillis());
+    }
+
+    private void unindexEnd(Task task) {
+        Long end = indexedEnd.remove(task);
+        if (end == null) return;
+        Set<Task> same = byEnd.get(end);
+        same.remove(task);
+        if (same.isEmpty()) byEnd.remove(end);
+    }
+
+    /**
+     * Same text as {@code AnalysisController.getProjectCompletionDate}: the end
+     * date of the latest-ending task, the first in list order on a tie.
+     */
+    public String getProjectCompletionDate() {
+        List<Task> tasks = tasks();
+        if (tasks.isEmpty()) return "No tasks available.";
+        if (byEnd == null) {
+            byEnd = new TreeMap<>();
+            indexedEnd = new IdentityHashMap<>();
+            for (Task t : tasks) indexEnd(t);
+        }
+        if (byEnd.isEmpty()) return tasks.get(0).getEnd(); // no task has a parseable end
+        Set<Task> latest = byEnd.lastEntry().getValue();
+        String end = latest.iterator().next().getEnd();
+        for (Task t : latest) {
+            if (!t.getEnd().equals(end)) {
+                // same instant written differently: the list order decides which text is shown
+                for (Task first : tasks) {
+                    if (latest.contains(first)) return first.getEnd();
+                }
+            }
+        }
+        return end;
+    }
+
+    // --- Per-resource results ---
+
+    /** Same windows as {@link Project#detectResourceOverallocations()}. */
+    public List<OverallocationDetector.Overallocation> getOverallocations() {
+        List<OverallocationDetector.Overallocation> out = new ArrayList<>();
+        if (project.getResources() == null || project.getTasks() == null) return out;
+        for (Resource r : project.getResources()) {
+            out.addAll(overallocations.computeIfAbsent(r, k -> OverallocationDetector.detect(k, project::findTaskById)));
+        }
+        return out;
+    }
+
+    /** Effort per resource, in resource order, on this analysis' calendar. */
+    public List<EffortEngine.Effort> getEffort() {
+        List<EffortEngine.Effort> out = new ArrayList<>();
+        if (project.getResources() == null) return out;
+        for (Resource r : project.getResources()) {
+            out.add(effort.computeIfAbsent(r, k -> EffortEngine.compute(k, project::findTaskById, calendar)));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,244 @@
+package model.analysis;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import model.Task;
+
+/**
+ * Monte Carlo schedule risk analysis.
+ *
+ * Each iteration draws every task's duration from a triangular or PERT
+ * distribution around its planned duration (minimum, mode and maximum are
+ * the planned duration scaled by the optimistic factor, 1 and the
+ * pessimistic factor), by inverse transform from a tabulated quantile
+ * function, and runs the critical path forward pass with the
+ * drawn durations. The project finish of every iteration gives the
+ * completion percentiles; the driving chain behind each finish gives each
+ * task's criticality index, the share of iterations in which it was on the
+ * critical path.
+ *
+ * Iterations run in fixed-size chunks. Every chunk gets its own
+ * SplittableRandom, split off a root seeded with the simulation seed before
+ * any chunk runs, so a given seed yields the same result on any number of
+ * threads. Scheduling rules follow {@link CriticalPath}: planned starts are
+ * "start no earlier than" constraints and undated tasks are milestones at
+ * the project start.
+ */
+public final class MonteCarloSimulation {
+    // iterations per chunk (and per random stream)
+    private static final int CHUNK = 1024;
+    private static final int QUANTILES = 4096;
+
+    public enum Distribution { TRIANGULAR, PERT }
+
+    /** Completion percentiles and per-task criticality indexes of one run. */
+    public static final class Result {
+        private final long[] finishes; // sorted
+        private final double[] criticality;
+
+        Result(long[] finishes, double[] criticality) {
+            this.finishes = finishes;
+            this.criticality = criticality;
+        }
+
+        public int getIterations() { return finishes.length; }
+
+        /**
+         * @param p percentile between 0 and 100
+         * @return the project finish (epoch millis) not exceeded in p% of the iterations, or -1 if there were none
+         */
+        public long percentile(double p) {
+            if (p < 0 || p > 100) throw new IllegalArgumentException("Percentile must be between 0 and 100: " + p);
+            if (finishes.length == 0) return -1;
+            int rank = (int) Math.ceil(p / 100 * finishes.length);
+            return finishes[Math.max(0, rank - 1)];
+        }
+
+        public long getP50() { return percentile(50); }
+        public long getP80() { return percentile(80); }
+        public long getP95() { return percentile(95); }
+
+        public long getMeanFinish() {
+            if (finishes.length == 0) return -1;
+            double sum = 0;
+            for (long f : finishes) sum += f - finishes[0];
+            return finishes[0] + Math.round(sum / finishes.length);
+        }
+
+        /** @return the share of iterations (0 to 1) in which the task at position i was on the critical path */
+        public double criticalityIndex(int i) { return criticality[i]; }
+    }
+
+    private final int iterations;
+    private final long seed;
+    private Distribution distribution = Distribution.PERT;
+    private double optimistic = 0.75;
+    private double pessimistic = 1.5;
+
+    public MonteCarloSimulation(int iterations, long seed) {
+        if (iterations < 1) throw new IllegalArgumentException("Iterations must be at least 1: " + iterations);
+        this.iterations = iterations;
+        this.seed = seed;
+    }
+
+    public Distribution getDistribution() { return distribution; }
+    public void setDistribution(Distribution distribution) { this.distribution = distribution; }
+
+    /**
+     * Sets the shortest and longest duration as multiples of the planned one.
+     * The defaults are 0.75 and 1.5.
+     */
+    public void setSpread(double optimistic, double pessimistic) {
+        if (optimistic < 0 || optimistic > 1 || pessimistic < 1) {
+            throw new IllegalArgumentException("Spread must satisfy 0 <= optimistic <= 1 <= pessimistic: "
+                + optimistic + ", " + pessimistic);
+        }
+        this.optimistic = optimistic;
+        this.pessimistic = pessimistic;
+    }
+
+    public double getOptimistic() { return optimistic; }
+    public double getPessimistic() { return pessimistic; }
+
+    /**
+     * @param graph dependency graph built from the same task list
+     * @param pool pool to spread the chunks over, or null to run on the calling thread
+     */
+    public Result run(List<Task> tasks, DependencyGraph graph, ForkJoinPool pool) {
+        int n = tasks.size();
+        long[] plannedStart = new long[n];
+        double[] duration = new double[n];
+        long start = Long.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            Task t = tasks.get(i);
+            if (t.isScheduled()) {
+                plannedStart[i] = t.getStartMillis();
+                duration[i] = Math.max(0, t.getEndMillis() - t.getStartMillis());
+                start = Math.min(start, plannedStart[i]);
+            } else {
+                plannedStart[i] = Long.MIN_VALUE;
+            }
+        }
+        long projectStart = start == Long.MAX_VALUE ? 0 : start;
+        for (int i = 0; i < n; i++) if (plannedStart[i] == Long.MIN_VALUE) plannedStart[i] = projectStart;
+
+        int chunks = (iterations + CHUNK - 1) / CHUNK;
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[chunks];
+        for (int c = 0; c < chunks; c++) streams[c] = root.split();
+
+        long[] finishes = new long[iterations];
+        int[][] counts = new int[chunks][];
+        int[] order = graph.order();
+        double[] quantiles = quantileTable();
+        IntConsumer chunk = c ->
+            counts[c] = runChunk(c, streams[c], quantiles, plannedStart, duration, projectStart, graph, order, finishes);
+        if (pool == null) {
+            for (int c = 0; c < chunks; c++) chunk.accept(c);
+        } else {
+            // a parallel stream started inside the pool runs on the pool's workers
+            pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(chunk)).join();
+        }
+
+        double[] criticality = new double[n];
+        for (int[] critical : counts) for (int i = 0; i < n; i++) criticality[i] += critical[i];
+        for (int i = 0; i < n; i++) criticality[i] /= iterations;
+        Arrays.sort(finishes);
+        return new Result(finishes, criticality);
+    }
+
+    /** Runs the iterations of chunk c, writing their finishes; returns how often each task was critical. */
+    private int[] runChunk(int c, SplittableRandom rnd, double[] quantiles, long[] plannedStart, double[] duration, long projectStart,
+                           DependencyGraph graph, int[] order, long[] finishes) {
+        int n = duration.length;
+        int[] predStart = graph.predStart;
+        int[] preds = graph.preds;
+        long[] ef = new long[n];
+        int[] driver = new int[n];
+        int[] critical = new int[n];
+        int from = c * CHUNK;
+        int to = Math.min(iterations, from + CHUNK);
+        for (int it = from; it < to; it++) {
+            long finish = projectStart;
+            int last = -1;
+            for (int u : order) {
+                long es = plannedStart[u];
+                int drive = -1;
+                for (int k = predStart[u]; k < predStart[u + 1]; k++) {
+                    int p = preds[k];
+                    if (ef[p] > es || (ef[p] == es && drive == -1)) {
+                        es = ef[p];
+                        drive = p;
+                    }
+                }
+                driver[u] = drive;
+                ef[u] = es + sample(rnd, quantiles, duration[u]);
+                if (ef[u] > finish || (ef[u] == finish && (last == -1 || u < last))) {
+                    finish = ef[u];
+                    last = u;
+                }
+            }
+            finishes[it] = finish;
+            for (int u = last; u != -1; u = driver[u]) critical[u]++;
+        }
+        return critical;
+    }
+
+    /**
+     * Inverse CDF of the duration factor (drawn duration / planned duration)
+     * at QUANTILES + 1 evenly spaced probabilities. The factor's distribution is
+     * the same for every task, so it is tabulated once per run and a draw is a
+     * uniform number, a lookup and a linear interpolation.
+     */
+    private double[] quantileTable() {
+        double a = optimistic, b = pessimistic;
+        double[] q = new double[QUANTILES + 1];
+        if (b == a) {
+            Arrays.fill(q, a);
+            return q;
+        }
+        if (distribution == Distribution.TRIANGULAR) {
+            double fc = (1 - a) / (b - a);
+            for (int k = 0; k <= QUANTILES; k++) {
+                double u = (double) k / QUANTILES;
+                q[k] = u < fc
+                    ? a + Math.sqrt(u * (b - a) * (1 - a))
+                    : b - Math.sqrt((1 - u) * (b - a) * (b - 1));
+            }
+            return q;
+        }
+        // PERT: Beta(alpha, beta) on [a, b] with its mode at 1; CDF by the trapezoid rule, then inverted
+        double alpha = 1 + 4 * (1 - a) / (b - a);
+        double beta = 1 + 4 * (b - 1) / (b - a);
+        int m = 1 << 16;
+        double[] cdf = new double[m + 1];
+        double prev = 0;
+        for (int j = 1; j <= m; j++) {
+            double x = (double) j / m;
+            double f = Math.pow(x, alpha - 1) * Math.pow(1 - x, beta - 1);
+            cdf[j] = cdf[j - 1] + (prev + f) / 2;
+            prev = f;
+        }
+        int j = 0;
+        for (int k = 0; k <= QUANTILES; k++) {
+            double target = cdf[m] * k / QUANTILES;
+            while (j < m && cdf[j + 1] < target) j++;
+            double span = j < m ? cdf[j + 1] - cdf[j] : 0;
+            double x = (j + (span > 0 ? (target - cdf[j]) / span : 0)) / m;
+            q[k] = a + (b - a) * Math.min(1, x);
+        }
+        return q;
+    }
+
+    private static long sample(SplittableRandom rnd, double[] quantiles, double duration) {
+        if (duration == 0) return 0;
+        double u = rnd.nextDouble() * QUANTILES;
+        int k = (int) u;
+        double factor = quantiles[k] + (quantiles[k + 1] - quantiles[k]) * (u - k);
+        return Math.round(duration * factor);
+    }
+}
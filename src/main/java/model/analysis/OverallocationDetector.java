@@ -0,0 +1,173 @@
+package model.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import model.Resource;
+import model.Task;
+import model.Timestamps;
+
+/**
+ * Finds the periods in which a resource is loaded above 100%.
+ *
+ * Each allocation becomes a +load event at its task's start and a -load event
+ * at its end. Sweeping the sorted events with a running total yields every
+ * maximal over-allocated window and its peak in O(A log A) per resource,
+ * however many allocations stack up. Task intervals are closed, as in
+ * {@link Task#overlapsWith(Task)}: at equal times starts are applied before ends.
+ * Resources are independent, so {@link ParallelAnalysis} sweeps them in
+ * parallel on its pool; the methods here run on the calling thread.
+ */
+public final class OverallocationDetector {
+    public static final int CAPACITY = 100;
+
+    /** One maximal window in which a resource's total load exceeds 100%. */
+    public static final class Overallocation {
+        private final String resourceName;
+        private final long from;
+        private final long to;
+        private final int peakLoad;
+        private final int[] taskIds;
+
+        Overallocation(String resourceName, long from, long to, int peakLoad, int[] taskIds) {
+            this.resourceName = resourceName;
+            this.from = from;
+            this.to = to;
+            this.peakLoad = peakLoad;
+            this.taskIds = taskIds;
+        }
+
+        public String getResourceName() { return resourceName; }
+        public long getFrom() { return from; }
+        public long getTo() { return to; }
+        public int getPeakLoad() { return peakLoad; }
+        /** Ids of the tasks allocated at some point in the window. */
+        public int[] getTaskIds() { return taskIds.clone(); }
+
+        @Override
+        public String toString() {
+            StringBuilder ids = new StringBuilder();
+            for (int id : taskIds) {
+                if (ids.length() > 0) ids.append(", ");
+                ids.append(id);
+            }
+            return String.format("OVERALLOCATION: %s is allocated up to %d%% from %s to %s during tasks %s",
+                resourceName, peakLoad, Timestamps.format(from), Timestamps.format(to), ids);
+        }
+    }
+
+    private OverallocationDetector() {}
+
+    /**
+     * @param resources resources to check
+     * @param taskById resolves an allocation's task id; may return null for unknown ids
+     * @return windows grouped by resource (in input order), each resource's in time order
+     */
+    public static List<Overallocation> detect(List<Resource> resources, IntFunction<Task> taskById) {
+        return detect(resources, taskById, false);
+    }
+
+    /** @param parallel true to split the resources over the pool this is called in */
+    static List<Overallocation> detect(List<Resource> resources, IntFunction<Task> taskById, boolean parallel) {
+        if (resources == null) return new ArrayList<>();
+        return (parallel ? resources.parallelStream() : resources.stream())
+            .map(r -> detect(r, taskById))
+            .flatMap(List::stream)
+            .collect(Collectors.toList());
+    }
+
+    public static List<Overallocation> detect(Resource resource, IntFunction<Task> taskById) {
+        List<Overallocation> out = new ArrayList<>();
+        int a = resource.allocationCount();
+        if (a == 0) return out;
+
+        long[] time = new long[2 * a];
+        int[] allocOf = new int[2 * a];
+        int[] load = new int[a];
+        int[] taskId = new int[a];
+        int m = 0;
+        for (int i = 0; i < a; i++) {
+            int id = resource.allocationTaskId(i);
+            Task t = taskById.apply(id);
+            if (t == null || !t.isScheduled() || t.getEndMillis() < t.getStartMillis()) continue;
+            load[i] = resource.allocationLoad(i);
+            taskId[i] = id;
+            // even events are starts, odd events ends
+            time[m] = t.getStartMillis();
+            allocOf[m++] = i;
+            time[m] = t.getEndMillis();
+            allocOf[m++] = i;
+        }
+        if (m == 0) return out;
+
+        int[] events = new int[m];
+        long[] sortKey = new long[m];
+        for (int e = 0; e < m; e++) {
+            events[e] = e;
+            sortKey[e] = time[e] * 2 + (e & 1); // even = start, odd = end
+        }
+        Sorting.sortByKey(events, sortKey);
+
+        // active allocations, for naming the tasks involved in a window
+        int[] active = new int[a];
+        int[] slot = new int[a];
+        int activeCount = 0;
+
+        int running = 0;
+        boolean over = false;
+        long windowStart = 0;
+        int peak = 0;
+        int[] windowTasks = new int[8];
+        int windowCount = 0;
+        boolean[] inWindow = new boolean[a];
+
+        for (int e : events) {
+            int alloc = allocOf[e];
+            boolean isStart = (e & 1) == 0;
+            if (isStart) {
+                running += load[alloc];
+                slot[alloc] = activeCount;
+                active[activeCount++] = alloc;
+                if (!over && running > CAPACITY) {
+                    over = true;
+                    windowStart = time[e];
+                    peak = running;
+                    windowCount = 0;
+                    for (int k = 0; k < activeCount; k++) {
+                        int ai = active[k];
+                        if (!inWindow[ai]) {
+                            inWindow[ai] = true;
+                            if (windowCount == windowTasks.length) windowTasks = Arrays.copyOf(windowTasks, windowCount * 2);
+                            windowTasks[windowCount++] = ai;
+                        }
+                    }
+                } else if (over) {
+                    peak = Math.max(peak, running);
+                    if (!inWindow[alloc]) {
+                        inWindow[alloc] = true;
+                        if (windowCount == windowTasks.length) windowTasks = Arrays.copyOf(windowTasks, windowCount * 2);
+                        windowTasks[windowCount++] = alloc;
+                    }
+                }
+            } else {
+                running -= load[alloc];
+                int s = slot[alloc];
+                int lastAlloc = active[--activeCount];
+                active[s] = lastAlloc;
+                slot[lastAlloc] = s;
+                if (over && running <= CAPACITY) {
+                    over = false;
+                    int[] ids = new int[windowCount];
+                    for (int k = 0; k < windowCount; k++) {
+                        ids[k] = taskId[windowTasks[k]];
+                        inWindow[windowTasks[k]] = false;
+                    }
+                    out.add(new Overallocation(resource.getName(), windowStart, time[e], peak, ids));
+                }
+            }
+        }
+        return out;
+    }
+}
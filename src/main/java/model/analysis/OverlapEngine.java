@@ -0,0 +1,279 @@
+package model.analysis;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongSupplier;
+import java.util.stream.IntStream;
+import model.Task;
+
+/**
+ * Sort-and-sweep overlap detection over task intervals.
+ *
+ * Intervals are closed: tasks i and j overlap when
+ * {@code start[i] <= end[j] && end[i] >= start[j]}, which is exactly the
+ * rule in {@link Task#overlapsWith(Task)}. Tasks are swept in start order
+ * while a min-heap (by end) holds the tasks still active, so finding all
+ * pairs costs O(n log n + k) instead of comparing every pair.
+ *
+ * Pairs are reported as {@code long}s packing the lower task index in the
+ * high 32 bits and the higher index in the low 32 bits, sorted ascending,
+ * i.e. in the same order the old nested i/j loop produced them.
+ */
+public final class OverlapEngine {
+    /** Key value marking a task that takes no part in overlap detection. */
+    public static final long UNSCHEDULED = Long.MIN_VALUE;
+    // fewer tasks than this per time bucket is not worth a separate sweep
+    private static final int MIN_BUCKET = 4096;
+
+    private final long[] starts;
+    private final long[] ends;
+
+    public OverlapEngine(long[] starts, long[] ends) {
+        if (starts.length != ends.length) {
+            throw new IllegalArgumentException("starts and ends must have the same length");
+        }
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    /**
+     * Builds an engine over the tasks' cached start/end epoch millis.
+     * Tasks whose dates could not be parsed are left out.
+     */
+    public static OverlapEngine forTasks(List<Task> tasks) {
+        int n = tasks.size();
+        long[] s = new long[n];
+        long[] e = new long[n];
+        for (int i = 0; i < n; i++) {
+            Task t = tasks.get(i);
+            if (t.isScheduled()) {
+                s[i] = t.getStartMillis();
+                e[i] = t.getEndMillis();
+            } else {
+                s[i] = UNSCHEDULED;
+                e[i] = UNSCHEDULED;
+            }
+        }
+        return new OverlapEngine(s, e);
+    }
+
+    public static int first(long pair) { return (int) (pair >>> 32); }
+    public static int second(long pair) { return (int) pair; }
+
+    static long pack(int i, int j) {
+        return i < j ? ((long) i << 32) | j : ((long) j << 32) | i;
+    }
+
+    public int size() { return starts.length; }
+
+    private boolean overlaps(int i, int j) {
+        return starts[i] <= ends[j] && ends[i] >= starts[j];
+    }
+
+    /** Receives overlapping pairs as task positions, lower position first. */
+    public interface PairVisitor {
+        void visit(int i, int j);
+    }
+
+    /**
+     * Finds every overlapping pair.
+     * @return packed pairs in ascending (i, j) order, i < j
+     */
+    public long[] pairs() {
+        return pairs(null, 1);
+    }
+
+    /**
+     * Finds every overlapping pair, sweeping {@code buckets} consecutive time
+     * ranges (equal shares of the tasks in start order) in parallel on {@code pool}.
+     * Each range's sweep is seeded with the earlier tasks still running when it
+     * begins, so together the ranges report exactly the pairs of one sweep.
+     * @param pool pool to run on, or null to sweep on the calling thread
+     * @return the same array {@link #pairs()} returns
+     */
+    public long[] pairs(ForkJoinPool pool, int buckets) {
+        Split split = split();
+        int np = split.np;
+        int b = pool == null ? 1 : Math.max(1, Math.min(buckets, np / MIN_BUCKET));
+        PairBuffer[] parts = new PairBuffer[b];
+        if (b == 1) {
+            parts[0] = new PairBuffer(np);
+            sweep(split.proper, 0, np, parts[0]);
+        } else {
+            final int count = b;
+            pool.submit(() -> IntStream.range(0, count).parallel().forEach(c -> {
+                int lo = (int) ((long) np * c / count), hi = (int) ((long) np * (c + 1) / count);
+                parts[c] = new PairBuffer(hi - lo);
+                sweep(split.proper, lo, hi, parts[c]);
+            })).join();
+        }
+        PairBuffer all = new PairBuffer(0);
+        int k = 0;
+        for (PairBuffer part : parts) k += part.k;
+        all.out = new long[Math.max(16, k)];
+        for (PairBuffer part : parts) {
+            System.arraycopy(part.out, 0, all.out, all.k, part.k);
+            all.k += part.k;
+        }
+        visitInverted(split, all);
+
+        long[] result = Arrays.copyOf(all.out, all.k);
+        if (pool != null && result.length > 1 << 16) {
+            pool.submit(() -> Arrays.parallelSort(result)).join();
+        } else {
+            Arrays.sort(result);
+        }
+        return result;
+    }
+
+    /**
+     * Visits every overlapping pair without creating anything per pair, for
+     * counting or filtering conflicts when the full list is not needed.
+     * Pairs arrive in sweep order (by the later-starting task), not sorted.
+     */
+    public void forEachPair(PairVisitor visitor) {
+        Split split = split();
+        sweep(split.proper, 0, split.np, visitor);
+        visitInverted(split, visitor);
+    }
+
+    /** Scheduled tasks split into proper intervals (sorted by start) and inverted ones. */
+    private static final class Split {
+        int[] proper;
+        int np;
+        int[] inverted;
+        int ni;
+    }
+
+    private Split split() {
+        int n = starts.length;
+        Split split = new Split();
+        split.proper = new int[n];
+        split.inverted = new int[n];
+        for (int i = 0; i < n; i++) {
+            if (starts[i] == UNSCHEDULED) continue;
+            if (starts[i] <= ends[i]) split.proper[split.np++] = i; else split.inverted[split.ni++] = i;
+        }
+        Sorting.sortByKey(split.proper, 0, split.np, starts);
+        return split;
+    }
+
+    /** Collects visited pairs as packed longs. */
+    private static final class PairBuffer implements PairVisitor {
+        long[] out;
+        int k;
+
+        PairBuffer(int expected) {
+            out = new long[Math.max(16, expected)];
+        }
+
+        @Override
+        public void visit(int i, int j) {
+            if (k == out.length) out = Arrays.copyOf(out, out.length * 2);
+            out[k++] = pack(i, j);
+        }
+    }
+
+    /** Pairs whose later task (in start order) sits at positions [lo, hi) of {@code proper}. */
+    private void sweep(int[] proper, int lo, int hi, PairVisitor visitor) {
+        int[] heap = new int[Math.max(1, hi)];
+        int hs = 0;
+        if (lo < hi) {
+            // earlier tasks still running when this range starts
+            long first = starts[proper[lo]];
+            for (int p = 0; p < lo; p++) {
+                if (ends[proper[p]] >= first) {
+                    heap[hs++] = proper[p];
+                    siftUp(heap, hs - 1);
+                }
+            }
+        }
+        for (int p = lo; p < hi; p++) {
+            int i = proper[p];
+            long s = starts[i];
+            while (hs > 0 && ends[heap[0]] < s) {
+                heap[0] = heap[--hs];
+                siftDown(heap, hs, 0);
+            }
+            for (int h = 0; h < hs; h++) {
+                int j = heap[h];
+                if (i < j) visitor.visit(i, j); else visitor.visit(j, i);
+            }
+            heap[hs++] = i;
+            siftUp(heap, hs - 1);
+        }
+    }
+
+    // Intervals whose end precedes their start never fit the sweep order;
+    // they are rare (invalid input), so check them pairwise.
+    private void visitInverted(Split split, PairVisitor visitor) {
+        int n = starts.length;
+        for (int q = 0; q < split.ni; q++) {
+            int i = split.inverted[q];
+            for (int j = 0; j < n; j++) {
+                if (j == i || starts[j] == UNSCHEDULED) continue;
+                boolean jInverted = starts[j] > ends[j];
+                if (jInverted && j < i) continue; // counted from j's side
+                if (overlaps(i, j)) {
+                    if (i < j) visitor.visit(i, j); else visitor.visit(j, i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts overlapping pairs without materialising them, in O(n log n).
+     * Use this when the pair list itself would be too large to hold.
+     */
+    public long count() {
+        return count(null);
+    }
+
+    /** {@link #count()}, with the per-task counting spread over {@code pool} (null: calling thread). */
+    public long count(ForkJoinPool pool) {
+        Split split = split();
+        int[] proper = split.proper;
+        int np = split.np;
+        long[] sortedStarts = new long[np];
+        for (int p = 0; p < np; p++) sortedStarts[p] = starts[proper[p]];
+
+        // every later task (in start order) that starts no later than this one ends overlaps it
+        IntStream positions = pool == null ? IntStream.range(0, np) : IntStream.range(0, np).parallel();
+        LongSupplier counting = () -> positions
+            .mapToLong(p -> Sorting.upperBound(sortedStarts, np, ends[proper[p]]) - p - 1)
+            .sum();
+        long[] total = {pool == null ? counting.getAsLong() : pool.submit(counting::getAsLong).join()};
+        visitInverted(split, (i, j) -> total[0]++);
+        return total[0];
+    }
+
+    // --- min-heap of task indices ordered by end ---
+
+    private void siftUp(int[] heap, int pos) {
+        int v = heap[pos];
+        long key = ends[v];
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (ends[heap[parent]] <= key) break;
+            heap[pos] = heap[parent];
+            pos = parent;
+        }
+        heap[pos] = v;
+    }
+
+    private void siftDown(int[] heap, int size, int pos) {
+        if (size == 0) return;
+        int v = heap[pos];
+        long key = ends[v];
+        while (true) {
+            int child = 2 * pos + 1;
+            if (child >= size) break;
+            if (child + 1 < size && ends[heap[child + 1]] < ends[heap[child]]) child++;
+            if (ends[heap[child]] >= key) break;
+            heap[pos] = heap[child];
+            pos = child;
+        }
+        heap[pos] = v;
+    }
+}
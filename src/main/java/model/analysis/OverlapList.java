@@ -0,0 +1,45 @@
+package model.analysis;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.BiFunction;
+import model.Task;
+
+/**
+ * Overlap descriptions that are formatted only when read.
+ *
+ * Holds the packed pairs from {@link OverlapEngine} (8 bytes per pair) and the
+ * tasks they index; {@link #get(int)} formats one pair on each call. Showing
+ * the first screenful of a million conflicts formats a screenful of strings.
+ * The task positions are fixed when the list is created; titles and dates
+ * are read when a line is formatted.
+ */
+public final class OverlapList extends AbstractList<String> implements RandomAccess {
+    private final long[] pairs;
+    private final Task[] tasks;
+    private final BiFunction<Task, Task, String> format;
+
+    /**
+     * @param pairs packed pairs as returned by {@link OverlapEngine#pairs()}
+     * @param tasks the task list the pairs index into
+     * @param format builds the description of one pair, lower position first
+     */
+    public OverlapList(long[] pairs, List<Task> tasks, BiFunction<Task, Task, String> format) {
+        this.pairs = pairs;
+        this.tasks = tasks.toArray(new Task[0]);
+        this.format = format;
+    }
+
+    @Override
+    public String get(int index) {
+        long pair = pairs[index];
+        return format.apply(tasks[OverlapEngine.first(pair)], tasks[OverlapEngine.second(pair)]);
+    }
+
+    @Override
+    public int size() { return pairs.length; }
+
+    public Task first(int index) { return tasks[OverlapEngine.first(pairs[index])]; }
+    public Task second(int index) { return tasks[OverlapEngine.second(pairs[index])]; }
+}
@@ -0,0 +1,101 @@
+package model.analysis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+import model.Resource;
+import model.Task;
+
+/**
+ * Runs the analysis engines on a dedicated ForkJoinPool of a chosen size.
+ *
+ * Overlaps are swept in time buckets, overallocation and effort are split by
+ * resource, the critical path is computed one DAG level at a time and Monte
+ * Carlo iterations are split into chunks. Every
+ * method returns exactly what its sequential engine returns; with a
+ * parallelism of 1 the engines simply run on the calling thread.
+ *
+ * The shared instance used by {@link model.Project} and the controllers takes
+ * its size from the {@code analysis.parallelism} system property (default 1)
+ * and can be changed with {@link #setDefaultParallelism(int)}. Completion
+ * forecasts use {@link #allCores()} instead, as their iterations are
+ * independent and the result does not depend on the pool size.
+ */
+public final class ParallelAnalysis {
+    public static final String PARALLELISM_PROPERTY = "analysis.parallelism";
+
+    private static volatile ParallelAnalysis shared =
+        new ParallelAnalysis(Math.max(1, Integer.getInteger(PARALLELISM_PROPERTY, 1)));
+
+    private final int parallelism;
+    private final ForkJoinPool pool; // null when sequential
+
+    public ParallelAnalysis(int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        this.parallelism = parallelism;
+        this.pool = parallelism == 1 ? null : new ForkJoinPool(parallelism);
+    }
+
+    public static ParallelAnalysis getDefault() { return shared; }
+
+    private static final class AllCores {
+        static final ParallelAnalysis INSTANCE = new ParallelAnalysis(Runtime.getRuntime().availableProcessors());
+    }
+
+    /** An instance with one worker per available processor, created on first use. */
+    public static ParallelAnalysis allCores() { return AllCores.INSTANCE; }
+
+    /**
+     * Replaces the shared instance. The previous pool is not shut down, as
+     * an analysis may still be running on it; its idle workers exit on their own.
+     */
+    public static void setDefaultParallelism(int parallelism) {
+        if (parallelism != shared.parallelism) shared = new ParallelAnalysis(parallelism);
+    }
+
+    public int getParallelism() { return parallelism; }
+
+    public boolean isParallel() { return pool != null; }
+
+    /** @see OverlapEngine#pairs() */
+    public long[] overlapPairs(List<Task> tasks) {
+        // a few buckets per worker keeps them busy when the overlap density is uneven
+        return OverlapEngine.forTasks(tasks).pairs(pool, parallelism * 4);
+    }
+
+    /** @see OverlapEngine#count() */
+    public long countOverlaps(List<Task> tasks) {
+        return OverlapEngine.forTasks(tasks).count(pool);
+    }
+
+    /** @see CriticalPath#compute(List, DependencyGraph) */
+    public CriticalPath criticalPath(List<Task> tasks, DependencyGraph graph) {
+        return CriticalPath.compute(tasks, graph, pool);
+    }
+
+    /** @see OverallocationDetector#detect(List, IntFunction) */
+    public List<OverallocationDetector.Overallocation> overallocations(List<Resource> resources,
+                                                                       IntFunction<Task> taskById) {
+        if (resources == null) return new ArrayList<>();
+        // a parallel stream started inside the pool runs on the pool's workers
+        return pool == null
+            ? OverallocationDetector.detect(resources, taskById)
+            : pool.submit(() -> OverallocationDetector.detect(resources, taskById, true)).join();
+    }
+
+    /** @see EffortEngine#compute(List, IntFunction, WorkingCalendar) */
+    public List<EffortEngine.Effort> effort(List<Resource> resources, IntFunction<Task> taskById,
+                                            WorkingCalendar calendar) {
+        if (resources == null) return new ArrayList<>();
+        return pool == null
+            ? EffortEngine.compute(resources, taskById, calendar)
+            : pool.submit(() -> EffortEngine.compute(resources, taskById, r -> calendar, true)).join();
+    }
+
+    /** @see MonteCarloSimulation#run(List, DependencyGraph, ForkJoinPool) */
+    public MonteCarloSimulation.Result simulate(MonteCarloSimulation simulation, List<Task> tasks,
+                                                DependencyGraph graph) {
+        return simulation.run(tasks, graph, pool);
+    }
+}
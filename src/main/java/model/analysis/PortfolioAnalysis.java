@@ -0,0 +1,208 @@
+package model.analysis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import model.Project;
+import model.Timestamps;
+
+/**
+ * Loads and analyses many projects at once.
+ *
+ * Each project is loaded and analysed (completion, overlaps,
+ * overallocations, effort) as one job on a bounded pool, so up to
+ * {@code concurrency} loads wait on storage at the same time and a run over
+ * thousands of projects is bound by I/O rather than by running them one
+ * after another. Reports are handed to the caller's consumer on the calling
+ * thread in the order the projects finish, and folded into a
+ * {@link Summary} returned at the end.
+ *
+ * A project that fails to load or analyse yields a report carrying the
+ * error; the rest of the run continues.
+ */
+public final class PortfolioAnalysis {
+
+    /** Loads one project by name, typically from the database. */
+    @FunctionalInterface
+    public interface ProjectLoader {
+        Project load(String projectName) throws Exception;
+    }
+
+    /** Analysis results for one project, or the error that stopped it. */
+    public static final class ProjectReport {
+        private final String projectName;
+        private final int taskCount;
+        private final String completionDate;
+        private final long overlapCount;
+        private final List<OverallocationDetector.Overallocation> overallocations;
+        private final List<EffortEngine.Effort> effort;
+        private final Exception error;
+
+        ProjectReport(String projectName, int taskCount, String completionDate, long overlapCount,
+                      List<OverallocationDetector.Overallocation> overallocations,
+                      List<EffortEngine.Effort> effort, Exception error) {
+            this.projectName = projectName;
+            this.taskCount = taskCount;
+            this.completionDate = completionDate;
+            this.overlapCount = overlapCount;
+            this.overallocations = overallocations;
+            this.effort = effort;
+            this.error = error;
+        }
+
+        static ProjectReport failed(String projectName, Exception error) {
+            return new ProjectReport(projectName, 0, null, 0, Collections.emptyList(), Collections.emptyList(), error);
+        }
+
+        public String getProjectName() { return projectName; }
+        public int getTaskCount() { return taskCount; }
+        /** Completion date following dependencies, or null if the project has no tasks. */
+        public String getCompletionDate() { return completionDate; }
+        public long getOverlapCount() { return overlapCount; }
+        public List<OverallocationDetector.Overallocation> getOverallocations() { return overallocations; }
+        public List<EffortEngine.Effort> getEffort() { return effort; }
+        /** @return the load or analysis failure, or null if the project was analysed */
+        public Exception getError() { return error; }
+        public boolean isFailed() { return error != null; }
+
+        public double getEffortHours() {
+            double hours = 0;
+            for (EffortEngine.Effort e : effort) hours += e.getHours();
+            return hours;
+        }
+
+        @Override
+        public String toString() {
+            if (error != null) return projectName + ": failed (" + error.getMessage() + ")";
+            return String.format("%s: %d tasks, completes %s, %d overlaps, %d overallocations, %d hrs",
+                projectName, taskCount, completionDate, overlapCount, overallocations.size(),
+                Math.round(getEffortHours()));
+        }
+    }
+
+    /** Totals over every report of a run. */
+    public static final class Summary {
+        private int projects, failed, tasks;
+        private long overlaps, overallocations;
+        private String latestProject;
+        private long latestCompletion = -1;
+        private final Map<String, Double> effortByResource = new TreeMap<>();
+
+        void add(ProjectReport r) {
+            projects++;
+            if (r.isFailed()) {
+                failed++;
+                return;
+            }
+            tasks += r.taskCount;
+            overlaps += r.overlapCount;
+            overallocations += r.overallocations.size();
+            long completion = r.completionDate == null ? -1 : Timestamps.parseToMillis(r.completionDate);
+            if (completion > latestCompletion) {
+                latestCompletion = completion;
+                latestProject = r.projectName;
+            }
+            for (EffortEngine.Effort e : r.effort) effortByResource.merge(e.getResourceName(), e.getHours(), Double::sum);
+        }
+
+        public int getProjectCount() { return projects; }
+        public int getFailedCount() { return failed; }
+        public int getTaskCount() { return tasks; }
+        public long getOverlapCount() { return overlaps; }
+        public long getOverallocationCount() { return overallocations; }
+        /** Name of the project that completes last, or null. */
+        public String getLatestProject() { return latestProject; }
+        /** Its completion (epoch millis), or -1. */
+        public long getLatestCompletion() { return latestCompletion; }
+        /** Working hours per resource name, summed over all projects, by name. */
+        public Map<String, Double> getEffortHoursByResource() { return Collections.unmodifiableMap(effortByResource); }
+
+        @Override
+        public String toString() {
+            return String.format("%d projects (%d failed), %d tasks, %d overlaps, %d overallocations, last to complete: %s (%s)",
+                projects, failed, tasks, overlaps, overallocations, latestProject,
+                latestCompletion == -1 ? "-" : Timestamps.format(latestCompletion));
+        }
+    }
+
+    private final int concurrency;
+    private final WorkingCalendar calendar;
+
+    public PortfolioAnalysis(int concurrency) {
+        this(concurrency, WorkingCalendar.standard());
+    }
+
+    public PortfolioAnalysis(int concurrency, WorkingCalendar calendar) {
+        if (concurrency < 1) throw new IllegalArgumentException("Concurrency must be at least 1: " + concurrency);
+        this.concurrency = concurrency;
+        this.calendar = calendar;
+    }
+
+    public int getConcurrency() { return concurrency; }
+
+    /**
+     * @param projectNames projects to load and analyse
+     * @param onReport receives each report as its project finishes, on the calling thread; may be null
+     * @return totals over all reports
+     * @throws InterruptedException if the calling thread is interrupted; unfinished jobs are cancelled
+     */
+    public Summary run(List<String> projectNames, ProjectLoader loader, Consumer<ProjectReport> onReport)
+            throws InterruptedException {
+        Summary summary = new Summary();
+        if (projectNames.isEmpty()) return summary;
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(concurrency, projectNames.size()), r -> {
+            Thread t = new Thread(r, "portfolio-" + threads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            CompletionService<ProjectReport> done = new ExecutorCompletionService<>(pool);
+            for (String name : projectNames) {
+                done.submit(() -> {
+                    try {
+                        return analyze(name, loader.load(name));
+                    } catch (Exception e) {
+                        return ProjectReport.failed(name, e);
+                    }
+                });
+            }
+            for (int i = 0; i < projectNames.size(); i++) {
+                ProjectReport report;
+                try {
+                    report = done.take().get();
+                } catch (ExecutionException e) {
+                    // only Errors get here; the job itself catches exceptions
+                    throw new IllegalStateException(e.getCause());
+                }
+                summary.add(report);
+                if (onReport != null) onReport.accept(report);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return summary;
+    }
+
+    /** Analyses one loaded project on the calling thread. */
+    public ProjectReport analyze(String name, Project project) {
+        List<EffortEngine.Effort> effort = project.getResources() == null
+            ? new ArrayList<>()
+            : EffortEngine.compute(project.getResources(), project::findTaskById, calendar);
+        return new ProjectReport(name,
+            project.getTasks() == null ? 0 : project.getTasks().size(),
+            project.calculateCriticalPathCompletionTime(),
+            project.countOverlappingTasks(),
+            project.detectResourceOverallocations(),
+            effort, null);
+    }
+}
@@ -0,0 +1,294 @@
+package model.analysis;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import model.Allocation;
+import model.Project;
+import model.Resource;
+import model.Task;
+import model.Timestamps;
+
+/**
+ * Bookings of every resource across all projects of a portfolio, by name.
+ *
+ * Resources are stored per project, so the same person shows up once in
+ * each project that uses them. Here every allocation becomes a booking
+ * (project, task, load) over its task's dates, kept in one
+ * {@link IntervalIndex} per resource name: the load on a resource over a
+ * window costs O(log n + k), and windows in which bookings from different
+ * projects add up to more than 100% can be listed per resource.
+ *
+ * The index is updated in place by the same operations the database
+ * storage performs (saving a project, a task or a resource, deleting a task
+ * or a resource), so it never has to be rebuilt from the database. Task and
+ * resource deletes are global, as they are in the database. Intervals are
+ * closed, as in {@link OverallocationDetector}. All methods are synchronized.
+ */
+public final class ResourceContentionIndex {
+
+    /** One allocation of a resource to a task of a project. */
+    public static final class Booking {
+        private final String projectName;
+        private final String resourceName;
+        private final int taskId;
+        private int load;
+        private long start = -1, end = -1;
+
+        Booking(String projectName, String resourceName, int taskId) {
+            this.projectName = projectName;
+            this.resourceName = resourceName;
+            this.taskId = taskId;
+        }
+
+        public String getProjectName() { return projectName; }
+        public String getResourceName() { return resourceName; }
+        public int getTaskId() { return taskId; }
+        public int getLoad() { return load; }
+        /** Task start (epoch millis), or -1 if its dates do not parse. */
+        public long getStart() { return start; }
+        public long getEnd() { return end; }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %s task %d at %d%%", resourceName, projectName, taskId, load);
+        }
+    }
+
+    /** A window in which one resource's bookings from two or more projects exceed 100%. */
+    public static final class Contention {
+        private final String resourceName;
+        private final long from, to;
+        private final int peakLoad;
+        private final List<String> projectNames;
+
+        Contention(String resourceName, long from, long to, int peakLoad, List<String> projectNames) {
+            this.resourceName = resourceName;
+            this.from = from;
+            this.to = to;
+            this.peakLoad = peakLoad;
+            this.projectNames = projectNames;
+        }
+
+        public String getResourceName() { return resourceName; }
+        public long getFrom() { return from; }
+        public long getTo() { return to; }
+        public int getPeakLoad() { return peakLoad; }
+        /** Projects booking the resource during the window, by name. */
+        public List<String> getProjectNames() { return projectNames; }
+
+        @Override
+        public String toString() {
+            return String.format("CONTENTION: %s is booked up to %d%% from %s to %s across projects %s",
+                resourceName, peakLoad, Timestamps.format(from), Timestamps.format(to),
+                String.join(", ", projectNames));
+        }
+    }
+
+    /** What the index knows about one project. */
+    private static final class ProjectEntry {
+        // task id -> {start, end}
+        final Map<Integer, long[]> dates = new HashMap<>();
+        // task id -> resource name -> booking
+        final Map<Integer, Map<String, Booking>> bookings = new HashMap<>();
+    }
+
+    private final Map<String, ProjectEntry> projects = new HashMap<>();
+    private final Map<String, IntervalIndex<Booking>> byResource = new TreeMap<>();
+
+    // --- Updates, mirroring the database writes ---
+
+    /** Replaces everything known about a project (saveProjectToDatabase). */
+    public synchronized void putProject(Project project) {
+        removeProject(project.getName());
+        ProjectEntry entry = entry(project.getName());
+        for (Task t : project.getTasks()) entry.dates.put(t.getId(), new long[] {t.getStartMillis(), t.getEndMillis()});
+        for (Resource r : project.getResources()) put(project.getName(), entry, r);
+    }
+
+    public synchronized void removeProject(String projectName) {
+        ProjectEntry entry = projects.remove(projectName);
+        if (entry == null) return;
+        for (Map<String, Booking> forTask : entry.bookings.values()) {
+            for (Booking b : forTask.values()) unindex(b);
+        }
+    }
+
+    /** Adds or re-dates a task of a project (saveTaskToDatabase). */
+    public synchronized void putTask(String projectName, Task task) {
+        ProjectEntry entry = entry(projectName);
+        entry.dates.put(task.getId(), new long[] {task.getStartMillis(), task.getEndMillis()});
+        Map<String, Booking> forTask = entry.bookings.get(task.getId());
+        if (forTask != null) for (Booking b : forTask.values()) index(b, entry);
+    }
+
+    /** Re-dates the task with this id in every project that has one (updateTaskInDatabase). */
+    public synchronized void updateTask(Task task) {
+        for (Map.Entry<String, ProjectEntry> e : projects.entrySet()) {
+            if (e.getValue().dates.containsKey(task.getId())) putTask(e.getKey(), task);
+        }
+    }
+
+    /** Drops the task with this id and its bookings from every project (deleteTaskFromDatabase). */
+    public synchronized void removeTask(int taskId) {
+        for (ProjectEntry entry : projects.values()) {
+            entry.dates.remove(taskId);
+            Map<String, Booking> forTask = entry.bookings.remove(taskId);
+            if (forTask != null) for (Booking b : forTask.values()) unindex(b);
+        }
+    }
+
+    /** Adds or replaces a resource's allocations in one project (saveResourceToDatabase). */
+    public synchronized void putResource(String projectName, Resource resource) {
+        put(projectName, entry(projectName), resource);
+    }
+
+    /** Drops every booking of a resource name, in all projects (deleteResourceFromDatabase). */
+    public synchronized void removeResource(String resourceName) {
+        byResource.remove(resourceName);
+        for (ProjectEntry entry : projects.values()) {
+            Iterator<Map<String, Booking>> it = entry.bookings.values().iterator();
+            while (it.hasNext()) {
+                Map<String, Booking> forTask = it.next();
+                forTask.remove(resourceName);
+                if (forTask.isEmpty()) it.remove();
+            }
+        }
+    }
+
+    private ProjectEntry entry(String projectName) {
+        return projects.computeIfAbsent(projectName, k -> new ProjectEntry());
+    }
+
+    // allocations are keyed like the table: (resource, task, project), later rows replace earlier ones
+    private void put(String projectName, ProjectEntry entry, Resource resource) {
+        for (Allocation a : resource.getAllocations()) {
+            Booking b = entry.bookings.computeIfAbsent(a.getTaskId(), k -> new HashMap<>())
+                .computeIfAbsent(resource.getName(), k -> new Booking(projectName, resource.getName(), a.getTaskId()));
+            b.load = a.getLoad();
+            index(b, entry);
+        }
+    }
+
+    private void index(Booking b, ProjectEntry entry) {
+        long[] d = entry.dates.get(b.taskId);
+        IntervalIndex<Booking> index = byResource.computeIfAbsent(b.resourceName, k -> new IntervalIndex<>());
+        if (d == null || d[0] == -1 || d[1] == -1 || d[1] < d[0]) {
+            b.start = b.end = -1;
+            index.remove(b);
+        } else {
+            b.start = d[0];
+            b.end = d[1];
+            index.insert(b, d[0], d[1]);
+        }
+    }
+
+    private void unindex(Booking b) {
+        IntervalIndex<Booking> index = byResource.get(b.resourceName);
+        if (index != null) index.remove(b);
+    }
+
+    // --- Queries ---
+
+    /** @return resource names with at least one dated booking, by name */
+    public synchronized List<String> getResourceNames() {
+        List<String> names = new ArrayList<>();
+        for (Map.Entry<String, IntervalIndex<Booking>> e : byResource.entrySet()) {
+            if (e.getValue().size() > 0) names.add(e.getKey());
+        }
+        return names;
+    }
+
+    /** @return the resource's bookings whose task intersects [from, to], in start order */
+    public synchronized List<Booking> bookings(String resourceName, long from, long to) {
+        IntervalIndex<Booking> index = byResource.get(resourceName);
+        return index == null ? new ArrayList<>() : index.query(from, to);
+    }
+
+    /**
+     * @return the highest total load the resource carries at any instant of [from, to],
+     *         summed over all projects; 0 if it is free
+     */
+    public synchronized int peakLoad(String resourceName, long from, long to) {
+        int[] peak = new int[1];
+        // bookings that all contain one instant and all meet [from, to] also meet inside it
+        sweep(bookings(resourceName, from, to), (at, load, active) -> peak[0] = Math.max(peak[0], load));
+        return peak[0];
+    }
+
+    /** Windows, over all resources, in which bookings from two or more projects exceed 100%. */
+    public synchronized List<Contention> contentions() {
+        List<Contention> out = new ArrayList<>();
+        for (String name : byResource.keySet()) out.addAll(contentions(name));
+        return out;
+    }
+
+    public synchronized List<Contention> contentions(String resourceName) {
+        List<Contention> out = new ArrayList<>();
+        List<Booking> all = bookings(resourceName, Long.MIN_VALUE, Long.MAX_VALUE);
+        long[] windowStart = {0};
+        int[] peak = {0};
+        TreeSet<String> involved = new TreeSet<>();
+        boolean[] over = {false};
+        sweep(all, (at, load, active) -> {
+            if (load > OverallocationDetector.CAPACITY) {
+                if (!over[0]) {
+                    over[0] = true;
+                    windowStart[0] = at;
+                    peak[0] = 0;
+                    involved.clear();
+                }
+                peak[0] = Math.max(peak[0], load);
+                for (Booking b : active) involved.add(b.projectName);
+            } else if (over[0]) {
+                over[0] = false;
+                if (involved.size() > 1) {
+                    out.add(new Contention(resourceName, windowStart[0], at, peak[0], new ArrayList<>(involved)));
+                }
+            }
+        });
+        return out;
+    }
+
+    /** Receives the running load of a sweep after each event time, with the bookings active then. */
+    private interface LoadVisitor {
+        void load(long at, int load, List<Booking> active);
+    }
+
+    /**
+     * Sweeps bookings given in start order. Starts are applied before ends at
+     * equal times (closed intervals), so the last call always sees load 0.
+     */
+    private static void sweep(List<Booking> bookings, LoadVisitor visitor) {
+        PriorityQueue<Booking> ending = new PriorityQueue<>((a, b) -> Long.compare(a.end, b.end));
+        List<Booking> active = new ArrayList<>();
+        int running = 0;
+        int i = 0;
+        while (i < bookings.size() || !ending.isEmpty()) {
+            long nextStart = i < bookings.size() ? bookings.get(i).start : Long.MAX_VALUE;
+            long at;
+            if (!ending.isEmpty() && ending.peek().end < nextStart) {
+                at = ending.peek().end;
+                while (!ending.isEmpty() && ending.peek().end == at) {
+                    Booking b = ending.poll();
+                    running -= b.load;
+                    active.remove(b);
+                }
+            } else {
+                at = nextStart;
+                while (i < bookings.size() && bookings.get(i).start == at) {
+                    Booking b = bookings.get(i++);
+                    running += b.load;
+                    active.add(b);
+                    ending.add(b);
+                }
+            }
+            visitor.load(at, running, active);
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package model.analysis;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import model.Resource;
+import model.Task;
+import model.Timestamps;
+
+/**
+ * Resource leveling by serial schedule generation.
+ *
+ * Tasks become eligible once all their predecessors are placed; a priority
+ * queue ordered by a {@link PriorityRule} picks the next one, which goes to
+ * the earliest time, at or after both its planned start and its
+ * predecessors' finish, at which every resource it uses stays at or below
+ * 100% for its whole duration. Tasks are only ever delayed.
+ *
+ * Each resource's load is a step function (a TreeMap from breakpoint to
+ * load), so checking a window and booking it cost O(log k + breakpoints in
+ * the window). When a window does not fit, the next candidate start is the
+ * end of the offending step, rounded up to the scheduling step (a day for
+ * date-only plans, otherwise a minute) from the task's planned start.
+ * Times are handled as local wall-clock millis so day steps stay on midnight.
+ *
+ * Task intervals are closed, as in the overallocation check: a task that
+ * starts at the instant another ends overlaps it. Tasks without parseable
+ * dates, and tasks on a dependency cycle, are left where they are.
+ */
+public final class ResourceLeveler {
+    private static final long MINUTE = 60_000L;
+    private static final long DAY = 24 * 60 * MINUTE;
+
+    /** Which eligible task is placed first. Ties go to the task earlier in the list. */
+    public enum PriorityRule {
+        /** Least total float first: critical work claims resources before slack work. */
+        LEAST_TOTAL_FLOAT,
+        /** Earliest latest-start first. */
+        EARLIEST_LATE_START,
+        /** Earliest early-start first. */
+        EARLIEST_START,
+        /** Longest task first. */
+        LONGEST_DURATION,
+        /** Task list order. */
+        TASK_ORDER
+    }
+
+    /** One task the leveler moved. */
+    public static final class Change {
+        private final int taskIndex;
+        private final Task task;
+        private final long oldStart, oldEnd, newStart, newEnd;
+        private final boolean beyondFloat;
+
+        Change(int taskIndex, Task task, long oldStart, long oldEnd, long newStart, long newEnd, boolean beyondFloat) {
+            this.taskIndex = taskIndex;
+            this.task = task;
+            this.oldStart = oldStart;
+            this.oldEnd = oldEnd;
+            this.newStart = newStart;
+            this.newEnd = newEnd;
+            this.beyondFloat = beyondFloat;
+        }
+
+        public int getTaskIndex() { return taskIndex; }
+        public Task getTask() { return task; }
+        public long getOldStart() { return oldStart; }
+        public long getOldEnd() { return oldEnd; }
+        public long getNewStart() { return newStart; }
+        public long getNewEnd() { return newEnd; }
+        public long getDelay() { return newStart - oldStart; }
+        /** @return true if the task was pushed past its latest start, delaying the project */
+        public boolean isBeyondFloat() { return beyondFloat; }
+
+        @Override
+        public String toString() {
+            return String.format("Task %d '%s': %s-%s -> %s-%s%s", task.getId(), task.getTitle(),
+                Timestamps.format(oldStart), Timestamps.format(oldEnd),
+                Timestamps.format(newStart), Timestamps.format(newEnd),
+                beyondFloat ? " (beyond float)" : "");
+        }
+    }
+
+    /** The proposed schedule and its difference from the current one. */
+    public static final class Result {
+        private final long[] start, end;
+        private final List<Change> changes;
+        private final long projectFinish;
+
+        Result(long[] start, long[] end, List<Change> changes, long projectFinish) {
+            this.start = start;
+            this.end = end;
+            this.changes = changes;
+            this.projectFinish = projectFinish;
+        }
+
+        /** Proposed start of the task at list position i (epoch millis, -1 if it has no dates). */
+        public long startMillis(int i) { return start[i]; }
+        public long endMillis(int i) { return end[i]; }
+
+        /** Moved tasks, in task list order. */
+        public List<Change> getChanges() { return changes; }
+
+        /** Latest proposed end, or -1 if no task has dates. */
+        public long getProjectFinish() { return projectFinish; }
+
+        /** Writes the proposed dates into the moved tasks. */
+        public void apply() {
+            for (Change c : changes) {
+                c.task.setStart(Timestamps.format(c.newStart));
+                c.task.setEnd(Timestamps.format(c.newEnd));
+            }
+        }
+    }
+
+    private ResourceLeveler() {}
+
+    public static Result level(List<Task> tasks, DependencyGraph graph, List<Resource> resources, PriorityRule rule) {
+        return level(tasks, graph, resources, rule, 0);
+    }
+
+    /**
+     * @param graph dependency graph built from the same task list
+     * @param step granularity of start times in millis; 0 picks a day when every
+     *             date is at midnight, otherwise a minute
+     */
+    public static Result level(List<Task> tasks, DependencyGraph graph, List<Resource> resources,
+                               PriorityRule rule, long step) {
+        int n = tasks.size();
+        ZoneId zone = ZoneId.systemDefault();
+        boolean[] scheduled = new boolean[n];
+        long[] start = new long[n];  // local wall-clock millis
+        long[] dur = new long[n];
+        boolean midnightOnly = true;
+        for (int i = 0; i < n; i++) {
+            Task t = tasks.get(i);
+            if (!t.isScheduled() || t.getEndMillis() < t.getStartMillis()) continue;
+            scheduled[i] = true;
+            start[i] = toLocal(t.getStartMillis(), zone);
+            long end = toLocal(t.getEndMillis(), zone);
+            dur[i] = end - start[i];
+            if (Math.floorMod(start[i], DAY) != 0 || Math.floorMod(end, DAY) != 0) midnightOnly = false;
+        }
+        if (step <= 0) step = midnightOnly ? DAY : MINUTE;
+
+        // demand of each task: (resource, summed load) pairs in resource order
+        int rc = resources == null ? 0 : resources.size();
+        int[] demandStart = new int[n + 1];
+        int total = 0;
+        for (int r = 0; r < rc; r++) total += resources.get(r).allocationCount();
+        int[] allocTask = new int[total];
+        int a = 0;
+        for (int r = 0; r < rc; r++) {
+            Resource res = resources.get(r);
+            for (int k = 0, m = res.allocationCount(); k < m; k++) {
+                int i = graph.indexOf(res.allocationTaskId(k));
+                allocTask[a++] = i;
+                if (i >= 0) demandStart[i + 1]++;
+            }
+        }
+        for (int i = 0; i < n; i++) demandStart[i + 1] += demandStart[i];
+        int[] demandRes = new int[demandStart[n]];
+        int[] demandLoad = new int[demandStart[n]];
+        int[] fill = Arrays.copyOf(demandStart, n);
+        a = 0;
+        for (int r = 0; r < rc; r++) {
+            Resource res = resources.get(r);
+            for (int k = 0, m = res.allocationCount(); k < m; k++) {
+                int i = allocTask[a++];
+                if (i < 0) continue;
+                int e = fill[i];
+                if (e > demandStart[i] && demandRes[e - 1] == r) {
+                    demandLoad[e - 1] += res.allocationLoad(k); // same resource twice on one task
+                } else {
+                    demandRes[e] = r;
+                    demandLoad[e] = res.allocationLoad(k);
+                    fill[i]++;
+                }
+            }
+        }
+
+        CriticalPath cp = CriticalPath.compute(tasks, graph);
+        long[] key = new long[n];
+        for (int i = 0; i < n; i++) {
+            switch (rule) {
+                case LEAST_TOTAL_FLOAT: key[i] = cp.totalFloat(i); break;
+                case EARLIEST_LATE_START: key[i] = cp.latestStart(i); break;
+                case EARLIEST_START: key[i] = cp.earliestStart(i); break;
+                case LONGEST_DURATION: key[i] = -dur[i]; break;
+                default: key[i] = i;
+            }
+        }
+
+        List<TreeMap<Long, Integer>> profile = new ArrayList<>(rc);
+        for (int r = 0; r < rc; r++) {
+            TreeMap<Long, Integer> steps = new TreeMap<>();
+            steps.put(Long.MIN_VALUE, 0);
+            profile.add(steps);
+        }
+
+        int[] waiting = new int[n];
+        PriorityQueue<Integer> eligible = new PriorityQueue<>(Math.max(1, n), (x, y) -> {
+            int c = Long.compare(key[x], key[y]);
+            return c != 0 ? c : Integer.compare(x, y);
+        });
+        for (int i = 0; i < n; i++) {
+            waiting[i] = graph.predecessorCount(i);
+            if (waiting[i] == 0) eligible.add(i);
+        }
+
+        long[] newStart = start.clone();
+        long[] finish = new long[n];
+        while (!eligible.isEmpty()) {
+            int u = eligible.poll();
+            long t = start[u];
+            for (int k = 0; k < graph.predecessorCount(u); k++) {
+                int p = graph.predecessor(u, k);
+                if (scheduled[p]) t = Math.max(t, finish[p]);
+            }
+            if (scheduled[u]) {
+                t = align(t, start[u], step);
+                t = earliestFit(u, t, start[u], step, dur[u], demandStart, demandRes, demandLoad, profile);
+                for (int e = demandStart[u]; e < demandStart[u + 1]; e++) {
+                    book(profile.get(demandRes[e]), t, t + dur[u] + 1, demandLoad[e]);
+                }
+                newStart[u] = t;
+                finish[u] = t + dur[u];
+            }
+            for (int k = 0; k < graph.successorCount(u); k++) {
+                int s = graph.successor(u, k);
+                if (--waiting[s] == 0) eligible.add(s);
+            }
+        }
+
+        long[] outStart = new long[n];
+        long[] outEnd = new long[n];
+        List<Change> changes = new ArrayList<>();
+        long projectFinish = -1;
+        for (int i = 0; i < n; i++) {
+            Task t = tasks.get(i);
+            if (!scheduled[i]) {
+                outStart[i] = -1;
+                outEnd[i] = -1;
+                continue;
+            }
+            if (newStart[i] == start[i]) {
+                outStart[i] = t.getStartMillis();
+                outEnd[i] = t.getEndMillis();
+            } else {
+                outStart[i] = fromLocal(newStart[i], zone);
+                outEnd[i] = fromLocal(newStart[i] + dur[i], zone);
+                long latest = cp.latestStart(i) == -1 ? Long.MAX_VALUE : toLocal(cp.latestStart(i), zone);
+                changes.add(new Change(i, t, t.getStartMillis(), t.getEndMillis(), outStart[i], outEnd[i],
+                    newStart[i] > latest));
+            }
+            projectFinish = Math.max(projectFinish, outEnd[i]);
+        }
+        return new Result(outStart, outEnd, Collections.unmodifiableList(changes), projectFinish);
+    }
+
+    /** Earliest start at or after t at which every resource of task u stays within capacity. */
+    private static long earliestFit(int u, long t, long base, long step, long dur,
+                                    int[] demandStart, int[] demandRes, int[] demandLoad,
+                                    List<TreeMap<Long, Integer>> profile) {
+        boolean moved = true;
+        while (moved) {
+            moved = false;
+            for (int e = demandStart[u]; e < demandStart[u + 1]; e++) {
+                long clash = firstClash(profile.get(demandRes[e]), t, t + dur + 1, demandLoad[e]);
+                if (clash != Long.MIN_VALUE) {
+                    t = align(clash, base, step);
+                    moved = true;
+                }
+            }
+        }
+        return t;
+    }
+
+    /**
+     * @return the end of the first step in [from, to) where adding {@code load}
+     *         exceeds capacity, or Long.MIN_VALUE if the whole window fits
+     */
+    private static long firstClash(TreeMap<Long, Integer> profile, long from, long to, int load) {
+        Map.Entry<Long, Integer> e = profile.floorEntry(from);
+        while (e != null && e.getKey() < to) {
+            Map.Entry<Long, Integer> next = profile.higherEntry(e.getKey());
+            int level = e.getValue();
+            // a single task above capacity can only run on an otherwise idle resource
+            if (level > 0 && level + load > OverallocationDetector.CAPACITY) {
+                return next == null ? Long.MAX_VALUE : next.getKey();
+            }
+            e = next;
+        }
+        return Long.MIN_VALUE;
+    }
+
+    /** Adds load over [from, to). */
+    private static void book(TreeMap<Long, Integer> profile, long from, long to, int load) {
+        profile.putIfAbsent(to, profile.floorEntry(to).getValue());
+        profile.putIfAbsent(from, profile.floorEntry(from).getValue());
+        for (Map.Entry<Long, Integer> e : profile.subMap(from, true, to, false).entrySet()) {
+            e.setValue(e.getValue() + load);
+        }
+    }
+
+    /** Rounds t up to base + k * step. */
+    private static long align(long t, long base, long step) {
+        if (t <= base) return base;
+        return base + Math.floorDiv(t - base + step - 1, step) * step;
+    }
+
+    private static long toLocal(long epochMillis, ZoneId zone) {
+        return epochMillis + zone.getRules().getOffset(Instant.ofEpochMilli(epochMillis)).getTotalSeconds() * 1000L;
+    }
+
+    private static long fromLocal(long localMillis, ZoneId zone) {
+        LocalDateTime ldt = LocalDateTime.ofEpochSecond(Math.floorDiv(localMillis, 1000),
+            Math.floorMod(localMillis, 1000) * 1_000_000, ZoneOffset.UTC);
+        return ldt.atZone(zone).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,62 @@
+package model.analysis;
+
+/**
+ * Primitive sorting helpers shared by the analysis engines.
+ * Sorting index arrays by a long key avoids boxing every element
+ * into an Integer just to use a Comparator.
+ */
+final class Sorting {
+    private Sorting() {}
+
+    /**
+     * Stable sort of {@code idx[from..to)} by {@code key[idx[i]]}.
+     * Ties keep their original relative order.
+     */
+    static void sortByKey(int[] idx, int from, int to, long[] key) {
+        if (to - from < 2) return;
+        int[] tmp = new int[to - from];
+        mergeSort(idx, tmp, from, to, key);
+    }
+
+    static void sortByKey(int[] idx, long[] key) {
+        sortByKey(idx, 0, idx.length, key);
+    }
+
+    private static void mergeSort(int[] a, int[] tmp, int lo, int hi, long[] key) {
+        if (hi - lo <= 16) {
+            // insertion sort for small runs
+            for (int i = lo + 1; i < hi; i++) {
+                int v = a[i];
+                long k = key[v];
+                int j = i - 1;
+                while (j >= lo && key[a[j]] > k) {
+                    a[j + 1] = a[j];
+                    j--;
+                }
+                a[j + 1] = v;
+            }
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        mergeSort(a, tmp, lo, mid, key);
+        mergeSort(a, tmp, mid, hi, key);
+        if (key[a[mid - 1]] <= key[a[mid]]) return; // already ordered
+        System.arraycopy(a, lo, tmp, 0, hi - lo);
+        int i = 0, iEnd = mid - lo, j = mid - lo, jEnd = hi - lo, k = lo;
+        while (i < iEnd && j < jEnd) {
+            a[k++] = (key[tmp[j]] < key[tmp[i]]) ? tmp[j++] : tmp[i++];
+        }
+        while (i < iEnd) a[k++] = tmp[i++];
+        while (j < jEnd) a[k++] = tmp[j++];
+    }
+
+    /** Index of the first element in sorted {@code a[0..n)} that is greater than {@code v}. */
+    static int upperBound(long[] a, int n, long v) {
+        int lo = 0, hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] <= v) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,165 @@
+package model.analysis;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import model.Task;
+
+/**
+ * Task id to task lookup with open addressing on primitive int keys.
+ *
+ * Keys live in an int[] probed linearly, so a lookup touches one or two
+ * cache lines and never boxes an Integer. Deletion shifts later entries
+ * back instead of leaving tombstones. When several tasks share an id the
+ * first one added is returned and the id is reported as a duplicate; the
+ * extra tasks are kept aside so removing one promotes the next.
+ */
+public final class TaskIdIndex {
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private int[] keys;
+    private Task[] values;
+    private int size;
+    private int mask;
+    // only ids held by more than one task; rare, so boxing is fine here
+    private final Map<Integer, List<Task>> duplicates = new HashMap<>();
+
+    public TaskIdIndex() {
+        this(16);
+    }
+
+    public TaskIdIndex(int expected) {
+        int cap = Integer.highestOneBit(Math.max(4, (int) (expected / LOAD_FACTOR)) - 1) << 1;
+        keys = new int[cap];
+        values = new Task[cap];
+        mask = cap - 1;
+    }
+
+    public static TaskIdIndex build(List<Task> tasks) {
+        TaskIdIndex index = new TaskIdIndex(tasks.size());
+        for (Task t : tasks) index.add(t);
+        return index;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int slotOf(int id) {
+        int i = hash(id) & mask;
+        while (values[i] != null) {
+            if (keys[i] == id) return i;
+            i = (i + 1) & mask;
+        }
+        return ~i; // free slot where the id would go
+    }
+
+    /** @return the task with this id (the first one added if the id repeats), or null */
+    public Task get(int id) {
+        int i = hash(id) & mask;
+        Task v;
+        while ((v = values[i]) != null) {
+            if (keys[i] == id) return v;
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    public boolean contains(int id) { return get(id) != null; }
+
+    /** Number of distinct ids. */
+    public int size() { return size; }
+
+    public void add(Task task) {
+        int id = task.getId();
+        int slot = slotOf(id);
+        if (slot >= 0) {
+            List<Task> same = duplicates.get(id);
+            if (same == null) {
+                same = new ArrayList<>(2);
+                same.add(values[slot]);
+                duplicates.put(id, same);
+            }
+            same.add(task);
+            return;
+        }
+        if (size + 1 > keys.length * LOAD_FACTOR) {
+            grow();
+            slot = slotOf(id);
+        }
+        slot = ~slot;
+        keys[slot] = id;
+        values[slot] = task;
+        size++;
+    }
+
+    /** Removes a task that was added under {@code id} (its id at the time). */
+    public void remove(Task task, int id) {
+        int slot = slotOf(id);
+        if (slot < 0) return;
+        List<Task> same = duplicates.get(id);
+        if (same != null) {
+            if (!same.remove(task)) return;
+            values[slot] = same.get(0);
+            if (same.size() == 1) duplicates.remove(id);
+            return;
+        }
+        if (values[slot] != task) return;
+        deleteSlot(slot);
+    }
+
+    public void remove(Task task) {
+        remove(task, task.getId());
+    }
+
+    /** Re-keys a task whose id changed from {@code oldId}. */
+    public void changeId(Task task, int oldId) {
+        remove(task, oldId);
+        add(task);
+    }
+
+    /** @return ids used by more than one task, ascending */
+    public Set<Integer> duplicateIds() {
+        return new TreeSet<>(duplicates.keySet());
+    }
+
+    public boolean hasDuplicates() { return !duplicates.isEmpty(); }
+
+    private void deleteSlot(int slot) {
+        values[slot] = null;
+        size--;
+        // backward-shift later entries of the probe run into the gap
+        int gap = slot;
+        int i = (slot + 1) & mask;
+        while (values[i] != null) {
+            int home = hash(keys[i]) & mask;
+            // move entry i into the gap if its home is not in (gap, i]
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                values[i] = null;
+                gap = i;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        Task[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new Task[oldValues.length * 2];
+        mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = ~slotOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package model.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import model.Resource;
+
+/**
+ * Allocations grouped by task id: the inverse of each resource's allocation list.
+ *
+ * Built in one pass that counts allocations per task and a second that drops
+ * each one into its task's slice of flat arrays, so a lookup is a binary search
+ * over the distinct task ids followed by a contiguous scan. Within a task,
+ * entries keep resource order and then allocation order.
+ */
+public final class TaskResourceIndex {
+    private final int[] taskIds;    // distinct task ids, ascending
+    private final int[] start;      // slice of task k is [start[k], start[k + 1])
+    private final Resource[] resource;
+    private final int[] load;
+
+    private TaskResourceIndex(int[] taskIds, int[] start, Resource[] resource, int[] load) {
+        this.taskIds = taskIds;
+        this.start = start;
+        this.resource = resource;
+        this.load = load;
+    }
+
+    public static TaskResourceIndex build(List<Resource> resources) {
+        int total = 0;
+        for (Resource r : resources) total += r.allocationCount();
+        int[] allocTask = new int[total];
+        int a = 0;
+        for (Resource r : resources) {
+            for (int k = 0, m = r.allocationCount(); k < m; k++) allocTask[a++] = r.allocationTaskId(k);
+        }
+
+        int[] ids = allocTask.clone();
+        Arrays.sort(ids);
+        int distinct = 0;
+        for (int i = 0; i < total; i++) {
+            if (i == 0 || ids[i] != ids[i - 1]) ids[distinct++] = ids[i];
+        }
+        ids = Arrays.copyOf(ids, distinct);
+
+        int[] start = new int[distinct + 1];
+        int[] slotOf = new int[total];
+        for (int i = 0; i < total; i++) {
+            slotOf[i] = Arrays.binarySearch(ids, allocTask[i]);
+            start[slotOf[i] + 1]++;
+        }
+        for (int k = 0; k < distinct; k++) start[k + 1] += start[k];
+
+        Resource[] resource = new Resource[total];
+        int[] load = new int[total];
+        int[] fill = Arrays.copyOf(start, distinct);
+        a = 0;
+        for (Resource r : resources) {
+            for (int k = 0, m = r.allocationCount(); k < m; k++) {
+                int e = fill[slotOf[a++]]++;
+                resource[e] = r;
+                load[e] = r.allocationLoad(k);
+            }
+        }
+        return new TaskResourceIndex(ids, start, resource, load);
+    }
+
+    private int slot(int taskId) {
+        return Arrays.binarySearch(taskIds, taskId);
+    }
+
+    /** @return number of allocations to this task */
+    public int count(int taskId) {
+        int k = slot(taskId);
+        return k < 0 ? 0 : start[k + 1] - start[k];
+    }
+
+    /** @return the resource of the i-th allocation to this task */
+    public Resource resource(int taskId, int i) {
+        return resource[entry(taskId, i)];
+    }
+
+    /** @return the load of the i-th allocation to this task */
+    public int load(int taskId, int i) {
+        return load[entry(taskId, i)];
+    }
+
+    private int entry(int taskId, int i) {
+        int k = slot(taskId);
+        if (k < 0 || i < 0 || i >= start[k + 1] - start[k]) {
+            throw new IndexOutOfBoundsException("Task " + taskId + " has no allocation " + i);
+        }
+        return start[k] + i;
+    }
+
+    /** @return resources allocated to this task, each once, in resource order */
+    public List<Resource> resourcesFor(int taskId) {
+        List<Resource> out = new ArrayList<>();
+        int k = slot(taskId);
+        if (k < 0) return out;
+        for (int e = start[k]; e < start[k + 1]; e++) {
+            // a resource's entries are adjacent, so comparing with the last is enough
+            if (out.isEmpty() || out.get(out.size() - 1) != resource[e]) out.add(resource[e]);
+        }
+        return out;
+    }
+
+    /** Number of distinct task ids that have at least one allocation. */
+    public int taskCount() { return taskIds.length; }
+}
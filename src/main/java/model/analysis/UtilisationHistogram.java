@@ -0,0 +1,204 @@
+package model.analysis;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+import model.Resource;
+import model.Task;
+
+/**
+ * Load of every resource on every day of a project, as one resource x day
+ * matrix of percentages.
+ *
+ * Each allocation adds its load at its task's first day and subtracts it
+ * after the last day in a difference array; one prefix sum per row then
+ * yields the daily loads, so building costs O(A + R*D) for A allocations,
+ * R resources and D days, and the matrix is a single row-major int[].
+ * Days are local dates in the given zone and a task occupies every date
+ * from its start through its end, matching the closed intervals of
+ * {@link Task#overlapsWith(Task)}.
+ *
+ * Range questions (average load, days over capacity) are answered in O(1)
+ * from per-row prefix sums built on first use, never from the allocations.
+ */
+public final class UtilisationHistogram {
+    private final String[] names;
+    private final long firstDay; // epoch day of column 0
+    private final int days;
+    private final int[] load;    // row-major, names.length x days
+    // per-row prefix sums, days + 1 wide, built on first use
+    private long[] loadSum;
+    private int[] overSum;
+
+    private UtilisationHistogram(String[] names, long firstDay, int days, int[] load) {
+        this.names = names;
+        this.firstDay = firstDay;
+        this.days = days;
+        this.load = load;
+    }
+
+    public static UtilisationHistogram build(List<Resource> resources, IntFunction<Task> taskById) {
+        return build(resources, taskById, ZoneId.systemDefault());
+    }
+
+    /**
+     * @param taskById resolves an allocation's task id; may return null for unknown ids
+     * @return one row per resource in input order, spanning the days of every allocated, dated task
+     */
+    public static UtilisationHistogram build(List<Resource> resources, IntFunction<Task> taskById, ZoneId zone) {
+        int rows = resources == null ? 0 : resources.size();
+        String[] names = new String[rows];
+        long lo = Long.MAX_VALUE, hi = Long.MIN_VALUE;
+        for (int r = 0; r < rows; r++) {
+            Resource res = resources.get(r);
+            names[r] = res.getName();
+            for (int i = 0, n = res.allocationCount(); i < n; i++) {
+                Task t = taskById.apply(res.allocationTaskId(i));
+                if (!dated(t)) continue;
+                lo = Math.min(lo, day(t.getStartMillis(), zone));
+                hi = Math.max(hi, day(t.getEndMillis(), zone));
+            }
+        }
+        if (lo > hi) return new UtilisationHistogram(names, 0, 0, new int[0]);
+        int days = Math.toIntExact(hi - lo + 1);
+
+        int[] load = new int[Math.multiplyExact(rows, days)];
+        for (int r = 0; r < rows; r++) {
+            Resource res = resources.get(r);
+            int row = r * days;
+            for (int i = 0, n = res.allocationCount(); i < n; i++) {
+                Task t = taskById.apply(res.allocationTaskId(i));
+                if (!dated(t)) continue;
+                int a = (int) (day(t.getStartMillis(), zone) - lo);
+                int b = (int) (day(t.getEndMillis(), zone) - lo);
+                int l = res.allocationLoad(i);
+                load[row + a] += l;
+                if (b + 1 < days) load[row + b + 1] -= l;
+            }
+            for (int d = 1; d < days; d++) load[row + d] += load[row + d - 1];
+        }
+        return new UtilisationHistogram(names, lo, days, load);
+    }
+
+    private static boolean dated(Task t) {
+        return t != null && t.isScheduled() && t.getEndMillis() >= t.getStartMillis();
+    }
+
+    private static long day(long epochMillis, ZoneId zone) {
+        long local = epochMillis + zone.getRules().getOffset(Instant.ofEpochMilli(epochMillis)).getTotalSeconds() * 1000L;
+        return Math.floorDiv(local, WorkingCalendar.DAY);
+    }
+
+    public int resourceCount() { return names.length; }
+    public String resourceName(int r) { return names[r]; }
+    public int dayCount() { return days; }
+
+    /** Date of column 0, or null if no allocated task has dates. */
+    public LocalDate getFirstDay() { return days == 0 ? null : LocalDate.ofEpochDay(firstDay); }
+    public LocalDate getLastDay() { return days == 0 ? null : LocalDate.ofEpochDay(firstDay + days - 1); }
+
+    /** @return column of a date, or -1 if it is outside the range */
+    public int column(LocalDate date) {
+        long d = date.toEpochDay() - firstDay;
+        return d < 0 || d >= days ? -1 : (int) d;
+    }
+
+    /** Total load of resource r on day column d, in percent. */
+    public int load(int r, int d) { return load[r * days + d]; }
+
+    /** Total load of resource r on a date; 0 outside the range. */
+    public int load(int r, LocalDate date) {
+        int d = column(date);
+        return d < 0 ? 0 : load(r, d);
+    }
+
+    /** @return a copy of resource r's daily loads */
+    public int[] row(int r) {
+        int[] out = new int[days];
+        System.arraycopy(load, r * days, out, 0, days);
+        return out;
+    }
+
+    private void prefixSums() {
+        if (loadSum != null) return;
+        int w = days + 1;
+        long[] sums = new long[names.length * w];
+        int[] over = new int[names.length * w];
+        for (int r = 0; r < names.length; r++) {
+            for (int d = 0; d < days; d++) {
+                int v = load[r * days + d];
+                sums[r * w + d + 1] = sums[r * w + d] + v;
+                over[r * w + d + 1] = over[r * w + d] + (v > OverallocationDetector.CAPACITY ? 1 : 0);
+            }
+        }
+        overSum = over;
+        loadSum = sums;
+    }
+
+    /** Mean daily load of resource r over day columns [from, to], in percent. */
+    public synchronized double averageLoad(int r, int from, int to) {
+        checkRange(from, to);
+        prefixSums();
+        int w = days + 1;
+        return (double) (loadSum[r * w + to + 1] - loadSum[r * w + from]) / (to - from + 1);
+    }
+
+    /** Days in columns [from, to] on which resource r is loaded above 100%. */
+    public synchronized int daysOverCapacity(int r, int from, int to) {
+        checkRange(from, to);
+        prefixSums();
+        int w = days + 1;
+        return overSum[r * w + to + 1] - overSum[r * w + from];
+    }
+
+    public int daysOverCapacity(int r) { return days == 0 ? 0 : daysOverCapacity(r, 0, days - 1); }
+
+    /** Dates on which resource r is loaded above 100%, ascending. */
+    public List<LocalDate> overloadedDays(int r) {
+        List<LocalDate> out = new ArrayList<>();
+        for (int d = 0, row = r * days; d < days; d++) {
+            if (load[row + d] > OverallocationDetector.CAPACITY) out.add(LocalDate.ofEpochDay(firstDay + d));
+        }
+        return out;
+    }
+
+    /**
+     * Mean load of resource r per week, keyed by the week's Monday. Weeks at
+     * the ends of the range are averaged over the days they have in it.
+     * @param calendar if not null, only its working days are averaged; weeks without one are left out
+     */
+    public SortedMap<LocalDate, Double> weeklyAverages(int r, WorkingCalendar calendar) {
+        SortedMap<LocalDate, Double> out = new TreeMap<>();
+        int d = 0;
+        while (d < days) {
+            LocalDate date = LocalDate.ofEpochDay(firstDay + d);
+            int end = Math.min(days, d + 8 - date.getDayOfWeek().getValue()); // exclusive, next Monday
+            if (calendar == null) {
+                out.put(date.minusDays(date.getDayOfWeek().getValue() - 1), averageLoad(r, d, end - 1));
+            } else {
+                long sum = 0;
+                int n = 0;
+                for (int k = d; k < end; k++) {
+                    if (calendar.isWorkingDay(LocalDate.ofEpochDay(firstDay + k))) {
+                        sum += load(r, k);
+                        n++;
+                    }
+                }
+                if (n > 0) out.put(date.minusDays(date.getDayOfWeek().getValue() - 1), (double) sum / n);
+            }
+            d = end;
+        }
+        return out;
+    }
+
+    private void checkRange(int from, int to) {
+        if (from < 0 || to >= days || from > to) {
+            throw new IndexOutOfBoundsException("Day range [" + from + ", " + to + "] outside [0, " + days + ")");
+        }
+    }
+}
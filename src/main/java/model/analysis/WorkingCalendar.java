@@ -0,0 +1,230 @@
+package model.analysis;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import model.Task;
+
+/**
+ * Working days and working hours, used to turn task dates into working time.
+ *
+ * Positions are handled as local wall-clock millis (epoch day * 24h + time of
+ * day) so day, week and month boundaries are plain arithmetic. Working time
+ * up to a position has a closed form (whole weeks, then whole days of the
+ * current week, then the worked part of the current day), so the working time
+ * between two dates costs O(1) however far apart they are.
+ *
+ * Exception days, holidays or extra working days, are kept sorted with a
+ * prefix sum of the working days they add or remove, so with exceptions a
+ * query is one binary search, O(log e). Finding the position a given amount
+ * of working time after another (date offsets) searches the same cumulative
+ * function, O(log distance * log e). Calendars are immutable; the with*
+ * methods derive new ones, e.g. a resource's calendar from the company's.
+ */
+public final class WorkingCalendar {
+    static final long DAY = 24L * 60 * 60 * 1000;
+    private static final long MONDAY = 4; // epoch day of 1970-01-05
+    // date offsets give up this far out (about 27,000 years) when nothing is working
+    private static final long SEARCH_LIMIT = 10_000_000L;
+
+    private final ZoneId zone;
+    private final long dayStart;      // millis after midnight
+    private final long dayLength;     // working millis per working day
+    private final boolean[] working = new boolean[7]; // Monday first
+    private final int[] daysBefore = new int[8];      // working days in the week before each weekday
+
+    // epoch days whose status differs from the weekly pattern, ascending
+    private final long[] exceptionDays;
+    private final boolean[] exceptionWorking;
+    // working days added (+1) or removed (-1) by the exceptions before index k
+    private final int[] exceptionPrefix;
+
+    public WorkingCalendar(LocalTime start, LocalTime end, Set<DayOfWeek> workingDays, ZoneId zone) {
+        if (!end.isAfter(start)) throw new IllegalArgumentException("Working day must end after it starts");
+        this.zone = zone;
+        this.dayStart = start.toNanoOfDay() / 1_000_000;
+        this.dayLength = end.toNanoOfDay() / 1_000_000 - dayStart;
+        for (DayOfWeek d : workingDays) working[d.getValue() - 1] = true;
+        for (int i = 0; i < 7; i++) daysBefore[i + 1] = daysBefore[i] + (working[i] ? 1 : 0);
+        this.exceptionDays = new long[0];
+        this.exceptionWorking = new boolean[0];
+        this.exceptionPrefix = new int[1];
+    }
+
+    private WorkingCalendar(WorkingCalendar base, TreeMap<Long, Boolean> exceptions) {
+        this.zone = base.zone;
+        this.dayStart = base.dayStart;
+        this.dayLength = base.dayLength;
+        System.arraycopy(base.working, 0, working, 0, 7);
+        System.arraycopy(base.daysBefore, 0, daysBefore, 0, 8);
+        // keep only the days that differ from the weekly pattern
+        exceptions.entrySet().removeIf(e -> e.getValue() == weekly(e.getKey()));
+        int n = exceptions.size();
+        this.exceptionDays = new long[n];
+        this.exceptionWorking = new boolean[n];
+        this.exceptionPrefix = new int[n + 1];
+        int k = 0;
+        for (Map.Entry<Long, Boolean> e : exceptions.entrySet()) {
+            exceptionDays[k] = e.getKey();
+            exceptionWorking[k] = e.getValue();
+            exceptionPrefix[k + 1] = exceptionPrefix[k] + (e.getValue() ? 1 : -1);
+            k++;
+        }
+    }
+
+    /** Monday to Friday, 09:00 to 17:00, in the system time zone. */
+    public static WorkingCalendar standard() {
+        return new WorkingCalendar(LocalTime.of(9, 0), LocalTime.of(17, 0),
+            EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), ZoneId.systemDefault());
+    }
+
+    /** @return this calendar with the given dates off (public holidays, leave) */
+    public WorkingCalendar withHolidays(Collection<LocalDate> dates) {
+        return withExceptions(dates, false);
+    }
+
+    /** @return this calendar with the given dates worked, even if they fall on a weekend */
+    public WorkingCalendar withExtraWorkingDays(Collection<LocalDate> dates) {
+        return withExceptions(dates, true);
+    }
+
+    private WorkingCalendar withExceptions(Collection<LocalDate> dates, boolean work) {
+        TreeMap<Long, Boolean> exceptions = new TreeMap<>();
+        for (int k = 0; k < exceptionDays.length; k++) exceptions.put(exceptionDays[k], exceptionWorking[k]);
+        for (LocalDate d : dates) exceptions.put(d.toEpochDay(), work);
+        return new WorkingCalendar(this, exceptions);
+    }
+
+    public long getWorkingMillisPerDay() { return dayLength; }
+
+    /** Converts epoch millis to local wall-clock millis in this calendar's zone. */
+    public long toLocal(long epochMillis) {
+        return epochMillis + zone.getRules().getOffset(Instant.ofEpochMilli(epochMillis)).getTotalSeconds() * 1000L;
+    }
+
+    private boolean weekly(long day) {
+        return working[Math.floorMod(day - MONDAY, 7)];
+    }
+
+    private boolean isWorking(long day) {
+        int k = Arrays.binarySearch(exceptionDays, day);
+        return k >= 0 ? exceptionWorking[k] : weekly(day);
+    }
+
+    public boolean isWorkingDay(LocalDate date) { return isWorking(date.toEpochDay()); }
+
+    /** Working days from a fixed Monday up to, not including, epoch day {@code day}. */
+    private long workingDaysBefore(long day) {
+        long weeks = Math.floorDiv(day - MONDAY, 7);
+        int dow = Math.floorMod(day - MONDAY, 7);
+        long days = weeks * daysBefore[7] + daysBefore[dow];
+        if (exceptionDays.length > 0) {
+            int k = Arrays.binarySearch(exceptionDays, day);
+            days += exceptionPrefix[k >= 0 ? k : -k - 1];
+        }
+        return days;
+    }
+
+    /** Working millis from a fixed Monday to the local position {@code local}. */
+    long cumulative(long local) {
+        long day = Math.floorDiv(local, DAY);
+        long w = workingDaysBefore(day) * dayLength;
+        if (isWorking(day)) {
+            long worked = Math.floorMod(local, DAY) - dayStart;
+            w += Math.max(0, Math.min(dayLength, worked));
+        }
+        return w;
+    }
+
+    /** Working millis between two local positions; 0 if {@code to} is not after {@code from}. */
+    public long workingMillis(long localFrom, long localTo) {
+        return localTo <= localFrom ? 0 : cumulative(localTo) - cumulative(localFrom);
+    }
+
+    /** Working days from {@code from} through {@code to}, both included; 0 if {@code to} is earlier. */
+    public long workingDays(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) return 0;
+        return workingDaysBefore(to.toEpochDay() + 1) - workingDaysBefore(from.toEpochDay());
+    }
+
+    /**
+     * @param days working days to move forward, at least 0
+     * @return the date {@code days} working days after {@code date}; {@code date} itself for 0
+     */
+    public LocalDate addWorkingDays(LocalDate date, long days) {
+        if (days < 0) throw new IllegalArgumentException("Working days must not be negative: " + days);
+        if (days == 0) return date;
+        long from = date.toEpochDay() + 1;
+        return LocalDate.ofEpochDay(dayReaching(workingDaysBefore(from) + days, from));
+    }
+
+    /**
+     * @param work working millis to move forward, at least 0
+     * @return the earliest local position with {@code work} working millis between it and {@code localFrom}
+     */
+    public long addWorkingMillis(long localFrom, long work) {
+        if (work < 0) throw new IllegalArgumentException("Working time must not be negative: " + work);
+        if (work == 0) return localFrom;
+        long target = cumulative(localFrom) + work;
+        long full = Math.floorDiv(target, dayLength);
+        long rest = target - full * dayLength;
+        long from = Math.floorDiv(localFrom, DAY);
+        if (rest == 0) {
+            // ends exactly at the close of a working day
+            return dayReaching(full, from) * DAY + dayStart + dayLength;
+        }
+        long day = dayReaching(full + 1, from);
+        return day * DAY + dayStart + (target - workingDaysBefore(day) * dayLength);
+    }
+
+    /** Smallest epoch day d >= from whose end brings the working day count to {@code target}. */
+    private long dayReaching(long target, long from) {
+        // gallop to an upper bound, then binary search the monotone count
+        long lo = from, step = 8, hi = from;
+        while (workingDaysBefore(hi + 1) < target) {
+            lo = hi + 1;
+            hi = from + step;
+            step <<= 1;
+            if (step > SEARCH_LIMIT) throw new IllegalStateException("No working day within reach");
+        }
+        while (lo < hi) {
+            long mid = lo + (hi - lo) / 2; // days before 1970 are negative
+            if (workingDaysBefore(mid + 1) >= target) hi = mid; else lo = mid + 1;
+        }
+        return lo;
+    }
+
+    /**
+     * Local start of a task's working span, or Long.MIN_VALUE if it has no valid dates.
+     * See {@link #localEnd(Task)} for how the end is read.
+     */
+    public long localStart(Task task) {
+        if (!task.isScheduled() || task.getEndMillis() < task.getStartMillis()) return Long.MIN_VALUE;
+        return toLocal(task.getStartMillis());
+    }
+
+    /**
+     * Local end of a task's working span. An end at midnight is a date without
+     * a time, and the task runs through that whole day, as the closed intervals
+     * of {@link Task#overlapsWith(Task)} imply; a one-day task starts and ends
+     * on the same date.
+     */
+    public long localEnd(Task task) {
+        long end = toLocal(task.getEndMillis());
+        return Math.floorMod(end, DAY) == 0 ? end + DAY : end;
+    }
+
+    /** Working millis a task spans, 0 if its dates are missing or reversed. */
+    public long workingMillis(Task task) {
+        long from = localStart(task);
+        return from == Long.MIN_VALUE ? 0 : workingMillis(from, localEnd(task));
+    }
+}
@@ -0,0 +1,319 @@
+package model.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Streaming line and field tokenizer for the text import formats.
+ *
+ * Reads the input in 64K char blocks into one reused buffer and splits the
+ * current line into fields by recording their offsets, so walking a file
+ * creates no String per line or per field. Fields are trimmed; with quotes
+ * enabled a field may be wrapped in double quotes, which protect delimiters,
+ * and {@code ""} inside quotes stands for one quote. Quoted text is decoded
+ * into a second reused buffer. Integers are parsed straight from the chars;
+ * only {@link #field(int)} and {@link #line()} build Strings.
+ *
+ * Lines end at \n, \r or \r\n, as with {@link java.io.BufferedReader#readLine()},
+ * and quotes do not span lines.
+ */
+public final class CsvTokenizer implements Closeable {
+    private static final int BLOCK = 1 << 16;
+
+    private final Reader in;
+    private final char delimiter;
+    private final boolean quotes;
+    private char[] buf;
+    private int pos, limit;
+    private boolean eof;
+    private boolean skipLf; // last line ended with \r, so a leading \n belongs to it
+
+    private int lineStart, lineEnd, lineNumber;
+    private int fields = -1; // -1 until the current line is split
+    private int[] start = new int[16];
+    private int[] end = new int[16];
+    private boolean[] decoded = new boolean[16]; // field lives in scratch, not buf
+    private char[] scratch = new char[256];
+    private int scratchLen;
+
+    /** Comma separated fields with double quotes. */
+    public CsvTokenizer(Reader in) {
+        this(in, ',', true);
+    }
+
+    /** @param quotes false to take double quotes literally, as plain {@code split} did */
+    public CsvTokenizer(Reader in, char delimiter, boolean quotes) {
+        this.in = in;
+        this.delimiter = delimiter;
+        this.quotes = quotes;
+        this.buf = new char[BLOCK];
+    }
+
+    /**
+     * Tokenizes chars already in memory, e.g. a decoded file chunk, without copying them.
+     * @param length number of chars of {@code chars} to read
+     */
+    public CsvTokenizer(char[] chars, int length, char delimiter, boolean quotes) {
+        this.in = null;
+        this.delimiter = delimiter;
+        this.quotes = quotes;
+        this.buf = chars;
+        this.limit = length;
+        this.eof = true;
+    }
+
+    /**
+     * Moves to the next line.
+     * @return false at the end of the input
+     */
+    public boolean nextLine() throws IOException {
+        if (skipLf) {
+            if (pos == limit) fill();
+            if (pos < limit && buf[pos] == '\n') pos++;
+            skipLf = false;
+        }
+        int scan = pos;
+        while (true) {
+            for (int i = scan; i < limit; i++) {
+                char c = buf[i];
+                if (c == '\n' || c == '\r') {
+                    startLine(pos, i);
+                    pos = i + 1;
+                    if (c == '\r') {
+                        if (pos < limit) {
+                            if (buf[pos] == '\n') pos++;
+                        } else {
+                            skipLf = true;
+                        }
+                    }
+                    return true;
+                }
+            }
+            if (eof) {
+                if (pos == limit) return false;
+                startLine(pos, limit);
+                pos = limit;
+                return true;
+            }
+            int scanned = limit - pos;
+            fill();
+            scan = pos + scanned;
+        }
+    }
+
+    private void startLine(int from, int to) {
+        lineStart = from;
+        lineEnd = to;
+        lineNumber++;
+        fields = -1;
+    }
+
+    /** Keeps [pos, limit) and reads another block after it, growing the buffer for long lines. */
+    private void fill() throws IOException {
+        if (eof) return;
+        if (pos > 0) {
+            System.arraycopy(buf, pos, buf, 0, limit - pos);
+            limit -= pos;
+            pos = 0;
+        }
+        if (limit == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+        int r = in.read(buf, limit, buf.length - limit);
+        if (r < 0) eof = true; else limit += r;
+    }
+
+    /** 1-based number of the current line, counting blank lines. */
+    public int lineNumber() { return lineNumber; }
+
+    /** The current line's raw text. */
+    public String line() { return new String(buf, lineStart, lineEnd - lineStart); }
+
+    /** @return the first non-blank char of the current line, or 0 if the line is blank */
+    public char firstChar() {
+        for (int i = lineStart; i < lineEnd; i++) if (buf[i] > ' ') return buf[i];
+        return 0;
+    }
+
+    public boolean isBlank() { return firstChar() == 0; }
+
+    /** Compares the trimmed line with {@code s}. */
+    public boolean lineEquals(String s) {
+        int a = trimStart(), b = trimEnd(a);
+        return b - a == s.length() && regionMatches(a, s);
+    }
+
+    /** Whether the trimmed line starts with {@code s}. */
+    public boolean lineStartsWith(String s) {
+        int a = trimStart(), b = trimEnd(a);
+        return b - a >= s.length() && regionMatches(a, s);
+    }
+
+    private int trimStart() {
+        int a = lineStart;
+        while (a < lineEnd && buf[a] <= ' ') a++;
+        return a;
+    }
+
+    private int trimEnd(int a) {
+        int b = lineEnd;
+        while (b > a && buf[b - 1] <= ' ') b--;
+        return b;
+    }
+
+    private boolean regionMatches(int at, String s) {
+        for (int k = 0; k < s.length(); k++) if (buf[at + k] != s.charAt(k)) return false;
+        return true;
+    }
+
+    private void split() {
+        if (fields >= 0) return;
+        fields = 0;
+        scratchLen = 0;
+        int i = lineStart;
+        while (true) {
+            int fs = i;
+            boolean quoted = false;
+            while (i < lineEnd && buf[i] != delimiter) {
+                if (quotes && buf[i] == '"') {
+                    quoted = true;
+                    break;
+                }
+                i++;
+            }
+            if (quoted) {
+                i = decode(fs);
+            } else {
+                int a = fs, b = i;
+                while (a < b && buf[a] <= ' ') a++;
+                while (b > a && buf[b - 1] <= ' ') b--;
+                addField(a, b, false);
+            }
+            if (i >= lineEnd) break;
+            i++; // the delimiter
+        }
+    }
+
+    /** Decodes a field containing quotes into scratch; returns the offset of its end in buf. */
+    private int decode(int from) {
+        int need = scratchLen + (lineEnd - from);
+        if (need > scratch.length) scratch = Arrays.copyOf(scratch, Math.max(need, scratch.length * 2));
+        int w = scratchLen;
+        boolean inQuotes = false;
+        int i = from;
+        for (; i < lineEnd; i++) {
+            char c = buf[i];
+            if (c == '"') {
+                if (inQuotes && i + 1 < lineEnd && buf[i + 1] == '"') {
+                    scratch[w++] = '"';
+                    i++;
+                } else {
+                    inQuotes = !inQuotes;
+                }
+            } else if (c == delimiter && !inQuotes) {
+                break;
+            } else {
+                scratch[w++] = c;
+            }
+        }
+        int a = scratchLen, b = w;
+        while (a < b && scratch[a] <= ' ') a++;
+        while (b > a && scratch[b - 1] <= ' ') b--;
+        scratchLen = w;
+        addField(a, b, true);
+        return i;
+    }
+
+    private void addField(int a, int b, boolean inScratch) {
+        if (fields == start.length) {
+            start = Arrays.copyOf(start, fields * 2);
+            end = Arrays.copyOf(end, fields * 2);
+            decoded = Arrays.copyOf(decoded, fields * 2);
+        }
+        start[fields] = a;
+        end[fields] = b;
+        decoded[fields++] = inScratch;
+    }
+
+    /** Number of fields on the current line; a blank line has one empty field. */
+    public int fieldCount() {
+        split();
+        return fields;
+    }
+
+    private char[] chars(int i) {
+        split();
+        if (i < 0 || i >= fields) throw new IndexOutOfBoundsException("Field " + i + " of " + fields);
+        return decoded[i] ? scratch : buf;
+    }
+
+    /** Trimmed length of field i. */
+    public int length(int i) {
+        chars(i);
+        return end[i] - start[i];
+    }
+
+    public boolean isEmpty(int i) { return length(i) == 0; }
+
+    /** The trimmed, unquoted text of field i. */
+    public String field(int i) {
+        char[] c = chars(i);
+        return new String(c, start[i], end[i] - start[i]);
+    }
+
+    /** Appends field i to {@code sb} without building a String. */
+    public StringBuilder appendField(int i, StringBuilder sb) {
+        char[] c = chars(i);
+        return sb.append(c, start[i], end[i] - start[i]);
+    }
+
+    /** @return offset of {@code ch} within field i, or -1 */
+    public int indexOf(int i, char ch) {
+        char[] c = chars(i);
+        for (int k = start[i]; k < end[i]; k++) if (c[k] == ch) return k - start[i];
+        return -1;
+    }
+
+    /** @return offset of the last {@code ch} within field i, or -1 */
+    public int lastIndexOf(int i, char ch) {
+        char[] c = chars(i);
+        for (int k = end[i] - 1; k >= start[i]; k--) if (c[k] == ch) return k - start[i];
+        return -1;
+    }
+
+    /** Parses field i like Integer.parseInt; returns Long.MIN_VALUE if it is not a valid int. */
+    public long intField(int i) {
+        return parseInt(i, 0, length(i));
+    }
+
+    /**
+     * Parses chars [from, to) of field i, ignoring surrounding blanks, like Integer.parseInt.
+     * @return the value, or Long.MIN_VALUE if it is not a valid int
+     */
+    public long parseInt(int i, int from, int to) {
+        char[] c = chars(i);
+        int a = start[i] + from, b = start[i] + to;
+        while (a < b && c[a] <= ' ') a++;
+        while (b > a && c[b - 1] <= ' ') b--;
+        if (a == b) return Long.MIN_VALUE;
+        boolean neg = false;
+        if (c[a] == '+' || c[a] == '-') {
+            neg = c[a] == '-';
+            if (++a == b) return Long.MIN_VALUE;
+        }
+        if (b - a > 10) return Long.MIN_VALUE;
+        long v = 0;
+        for (int k = a; k < b; k++) {
+            char d = c[k];
+            if (d < '0' || d > '9') return Long.MIN_VALUE;
+            v = v * 10 + (d - '0');
+        }
+        if (neg) v = -v;
+        return (v < Integer.MIN_VALUE || v > Integer.MAX_VALUE) ? Long.MIN_VALUE : v;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (in != null) in.close();
+    }
+}
@@ -8,10 +8,13 @@ public interface DatabaseStorage extends ProjectStorage {
     void saveProjectToDatabase(Project project) throws Exception;
     Project loadProjectFromDatabase(String projectName) throws Exception;
     List<Project> loadAllProjectsFromDatabase() throws Exception;
+    List<String> loadProjectNamesFromDatabase() throws Exception;
     void updateTaskInDatabase(model.Task task) throws Exception;
     void deleteTaskFromDatabase(int taskId) throws Exception;
     void updateResourceInDatabase(model.Resource resource) throws Exception;
     void deleteResourceFromDatabase(String resourceName) throws Exception;
     void saveTaskToDatabase(model.Task task, String projectName) throws Exception;
     void saveResourceToDatabase(model.Resource resource, String projectName) throws Exception;
+    // Bookings of each resource across all stored projects, kept current by the writes above
+    model.analysis.ResourceContentionIndex getContentionIndex() throws Exception;
 }
\ No newline at end of file
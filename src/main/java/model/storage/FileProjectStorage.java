@@ -60,59 +60,54 @@ public class FileProjectStorage implements ProjectStorage {
         List<Task> tasks = new ArrayList<>();
         List<Resource> resources = new ArrayList<>();
         
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
+        // written by saveProjectAsText, which does not quote, so quotes are taken literally
+        try (CsvTokenizer csv = new CsvTokenizer(new FileReader(file), ',', false)) {
             boolean inResourcesSection = false;
+            StringBuilder deps = new StringBuilder();
             
-            while ((line = br.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) continue;
+            while (csv.nextLine()) {
+                if (csv.isBlank()) continue;
                 
-                if (line.equals("---RESOURCES---")) {
+                if (csv.lineEquals("---RESOURCES---")) {
                     inResourcesSection = true;
                     continue;
                 }
                 
                 if (!inResourcesSection) {
-                    // Parse task
-                    String[] parts = line.split(",", -1);
-                    if (parts.length >= 4) {
-                        try {
-                            int id = Integer.parseInt(parts[0].trim());
-                            String title = parts[1].trim();
-                            String start = parts[2].trim();
-                            String end = parts[3].trim();
-                            String deps = parts.length > 4 ? parts[4].trim() : "";
-                            Task t = new Task(id, title, start, end, deps);
-                            tasks.add(t);
-                        } catch (NumberFormatException e) {
-                            System.err.println("Invalid task ID in line: " + line);
+                    // Parse task; dependencies are the fields after the end date
+                    if (csv.fieldCount() >= 4) {
+                        long id = csv.intField(0);
+                        if (id == Long.MIN_VALUE) {
+                            System.err.println("Invalid task ID in line: " + csv.line().trim());
+                            continue;
                         }
+                        deps.setLength(0);
+                        for (int i = 4; i < csv.fieldCount(); i++) {
+                            if (!csv.isEmpty(i)) {
+                                if (deps.length() > 0) deps.append(", ");
+                                csv.appendField(i, deps);
+                            }
+                        }
+                        tasks.add(new Task((int) id, csv.field(1), csv.field(2), csv.field(3), deps.toString()));
                     }
                 } else {
                     // Parse resource
-                    String[] parts = line.split(",", -1);
-                    if (parts.length >= 1) {
-                        String name = parts[0].trim();
-                        List<Allocation> allocations = new ArrayList<>();
-                        
-                        for (int i = 1; i < parts.length; i++) {
-                            String allocStr = parts[i].trim();
-                            if (!allocStr.isEmpty()) {
-                                String[] pair = allocStr.split(":");
-                                if (pair.length == 2) {
-                                    try {
-                                        int taskId = Integer.parseInt(pair[0].trim());
-                                        int load = Integer.parseInt(pair[1].trim());
-                                        allocations.add(new Allocation(taskId, load));
-                                    } catch (NumberFormatException e) {
-                                        System.err.println("Invalid allocation format: " + allocStr);
-                                    }
-                                }
-                            }
+                    String name = csv.field(0);
+                    List<Allocation> allocations = new ArrayList<>();
+                    
+                    for (int i = 1; i < csv.fieldCount(); i++) {
+                        if (csv.isEmpty(i)) continue;
+                        int colon = csv.indexOf(i, ':');
+                        if (colon < 0 || csv.lastIndexOf(i, ':') != colon) continue;
+                        long taskId = csv.parseInt(i, 0, colon);
+                        long load = csv.parseInt(i, colon + 1, csv.length(i));
+                        if (taskId == Long.MIN_VALUE || load == Long.MIN_VALUE) {
+                            System.err.println("Invalid allocation format: " + csv.field(i));
+                            continue;
                         }
-                        resources.add(new Resource(name, allocations));
+                        allocations.add(new Allocation((int) taskId, (int) load));
                     }
+                    resources.add(new Resource(name, allocations));
                 }
             }
         }
@@ -4,9 +4,15 @@ import java.sql.*;
 import java.util.*;
 import java.io.File;
 import java.io.IOException;
+import java.util.function.Consumer;
 import model.*;
+import model.analysis.ResourceContentionIndex;
 
 public class SqliteDatabaseStorage implements DatabaseStorage {
+
+    // cross-project bookings; built from the database on first use, then updated by every write below.
+    // Guarded by this: see updateContentionIndex.
+    private ResourceContentionIndex contentionIndex;
     
     private Connection connect() throws SQLException {
         
@@ -87,6 +93,7 @@ public class SqliteDatabaseStorage implements DatabaseStorage {
             
             conn.commit();
         }
+        updateContentionIndex(index -> index.putProject(project));
     }
 
     @Override
@@ -150,16 +157,45 @@ public class SqliteDatabaseStorage implements DatabaseStorage {
     @Override
     public List<Project> loadAllProjectsFromDatabase() throws Exception {
         List<Project> projects = new ArrayList<>();
+        for (String name : loadProjectNamesFromDatabase()) {
+            projects.add(loadProjectFromDatabase(name));
+        }
+        return projects;
+    }
+
+    @Override
+    public List<String> loadProjectNamesFromDatabase() throws Exception {
+        List<String> names = new ArrayList<>();
         try (Connection conn = connect()) {
             String sql = "SELECT DISTINCT name FROM projects";
             try (Statement stmt = conn.createStatement();
                  ResultSet rs = stmt.executeQuery(sql)) {
                 while (rs.next()) {
-                    projects.add(loadProjectFromDatabase(rs.getString("name")));
+                    names.add(rs.getString("name"));
                 }
             }
         }
-        return projects;
+        return names;
+    }
+
+    /**
+     * Applies a committed write to the index, if it has been built. Shares the
+     * lock with the build in getContentionIndex, so a write whose hook runs
+     * first was committed before the build read the database, and any later
+     * one waits for the build and is applied to the new index.
+     */
+    private synchronized void updateContentionIndex(Consumer<ResourceContentionIndex> update) {
+        if (contentionIndex != null) update.accept(contentionIndex);
+    }
+
+    @Override
+    public synchronized ResourceContentionIndex getContentionIndex() throws Exception {
+        if (contentionIndex == null) {
+            ResourceContentionIndex index = new ResourceContentionIndex();
+            for (Project project : loadAllProjectsFromDatabase()) index.putProject(project);
+            contentionIndex = index;
+        }
+        return contentionIndex;
     }
 
     @Override
@@ -174,6 +210,7 @@ public class SqliteDatabaseStorage implements DatabaseStorage {
             pstmt.setInt(5, task.getId());
             pstmt.executeUpdate();
         }
+        updateContentionIndex(index -> index.updateTask(task));
     }
 
     @Override
@@ -197,6 +234,7 @@ public class SqliteDatabaseStorage implements DatabaseStorage {
             
             conn.commit();
         }
+        updateContentionIndex(index -> index.removeTask(taskId));
     }
 
     @Override
@@ -227,6 +265,7 @@ public class SqliteDatabaseStorage implements DatabaseStorage {
             
             conn.commit();
         }
+        updateContentionIndex(index -> index.removeResource(resourceName));
     }
 
     @Override
@@ -242,6 +281,7 @@ public class SqliteDatabaseStorage implements DatabaseStorage {
             pstmt.setString(6, projectName);
             pstmt.executeUpdate();
         }
+        updateContentionIndex(index -> index.putTask(projectName, task));
     }
 
     @Override
@@ -272,6 +312,7 @@ public class SqliteDatabaseStorage implements DatabaseStorage {
             
             conn.commit();
         }
+        updateContentionIndex(index -> index.putResource(projectName, resource));
     }
 
     // Implement ProjectStorage interface methods
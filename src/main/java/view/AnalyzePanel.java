@@ -4,23 +4,35 @@ import javax.swing.*;
 import java.awt.*;
 import controller.AnalysisController;
 import model.*;
+import model.analysis.EffortEngine;
+import model.analysis.LiveAnalysis;
+import model.analysis.MonteCarloSimulation;
+import model.analysis.ResourceLeveler;
+import model.analysis.TaskResourceIndex;
 import java.util.*;
 
 public class AnalyzePanel extends JPanel {
+    private static final int MAX_LISTED_OVERLAPS = 1000;
+    private static final int FORECAST_ITERATIONS = 2000;
+
     private Project project;
     private JTextArea output;
+    // kept current by project change events, so each button only reads results
+    private final LiveAnalysis live;
 
     public AnalyzePanel(Project project) {
         this.project = project;
+        this.live = new LiveAnalysis(project);
         setLayout(new BorderLayout());
 
-        JPanel top = new JPanel(new GridLayout(1, 4, 10, 10));
+        JPanel top = new JPanel(new GridLayout(1, 5, 10, 10));
         JButton comp = new JButton("Completion");
         JButton overlap = new JButton("Overlaps");
         JButton team = new JButton("Teams");
         JButton effort = new JButton("Effort");
+        JButton level = new JButton("Level");
 
-        top.add(comp); top.add(overlap); top.add(team); top.add(effort);
+        top.add(comp); top.add(overlap); top.add(team); top.add(effort); top.add(level);
         add(top, BorderLayout.NORTH);
 
         output = new JTextArea();
@@ -32,31 +44,96 @@ public class AnalyzePanel extends JPanel {
         overlap.addActionListener(e -> showOverlaps());
         team.addActionListener(e -> showTeams());
         effort.addActionListener(e -> showEffort());
+        level.addActionListener(e -> levelResources());
     }
 
     private void showCompletion() {
-        output.setText("Project Completion: " +
-            AnalysisController.getProjectCompletionDate(project.getTasks()));
+        String completion = "Project Completion: " + live.getProjectCompletionDate() + "\n";
+        if (project.getTasks().isEmpty()) {
+            output.setText(completion);
+            return;
+        }
+        // the forecast runs off the event thread on a snapshot, so the project stays editable meanwhile
+        ProjectSnapshot plan = project.snapshot();
+        String pending = completion + "Forecast: running...\n";
+        output.setText(pending);
+        new SwingWorker<MonteCarloSimulation.Result, Void>() {
+            @Override
+            protected MonteCarloSimulation.Result doInBackground() {
+                // fixed seed, so the forecast only changes when the plan does
+                return plan.simulateCompletion(FORECAST_ITERATIONS, 0);
+            }
+
+            @Override
+            protected void done() {
+                if (!output.getText().equals(pending)) return; // another view replaced it
+                StringBuilder text = new StringBuilder(completion);
+                try {
+                    MonteCarloSimulation.Result risk = get();
+                    text.append("Forecast (").append(risk.getIterations()).append(" runs):\n")
+                        .append("  P50: ").append(Timestamps.format(risk.getP50())).append('\n')
+                        .append("  P80: ").append(Timestamps.format(risk.getP80())).append('\n')
+                        .append("  P95: ").append(Timestamps.format(risk.getP95())).append('\n');
+                } catch (Exception ex) {
+                    text.append("Forecast failed: ").append(ex.getCause() != null ? ex.getCause() : ex).append('\n');
+                }
+                output.setText(text.toString());
+            }
+        }.execute();
     }
 
     private void showOverlaps() {
-        output.setText("Overlapping Tasks:\n");
-        for (String s : AnalysisController.getOverlappingTasks(project.getTasks()))
-            output.append(" - " + s + "\n");
+        java.util.List<String> overlaps = live.getOverlappingTasks();
+        StringBuilder text = new StringBuilder("Overlapping Tasks:\n");
+        // only the listed lines are ever formatted
+        int shown = Math.min(overlaps.size(), MAX_LISTED_OVERLAPS);
+        for (int i = 0; i < shown; i++)
+            text.append(" - ").append(overlaps.get(i)).append('\n');
+        if (overlaps.size() > shown)
+            text.append(" ... and ").append(overlaps.size() - shown).append(" more\n");
+        output.setText(text.toString());
     }
 
     private  void showTeams() {
-        output.setText("Teams by Task:\n");
+        TaskResourceIndex index = project.getTaskResourceIndex();
+        StringBuilder text = new StringBuilder("Teams by Task:\n");
         for (Task t : project.getTasks()) {
-          java.util.List<String> team = AnalysisController.getTeamForTask(t.getId(), project.getResources());
-
-            output.append(t.getTitle() + " → " + team + "\n");
+            java.util.List<String> team = AnalysisController.getTeamForTask(t.getId(), index);
+            text.append(t.getTitle()).append(" → ").append(team).append('\n');
         }
+        output.setText(text.toString());
     }
 
     private void showEffort() {
-        output.setText("Effort Breakdown (hours):\n");
-        Map<String, Long> map = AnalysisController.getEffortHoursPerResource(project.getResources(), project.getTasks());
-        for (String r : map.keySet()) output.append(r + " → " + map.get(r) + " hrs\n");
+        StringBuilder text = new StringBuilder("Effort Breakdown (hours):\n");
+        java.util.List<EffortEngine.Effort> efforts = live.getEffort();
+        for (EffortEngine.Effort e : efforts) {
+            text.append(e.getResourceName()).append(" → ").append(Math.round(e.getHours())).append(" hrs\n");
+            for (Map.Entry<java.time.YearMonth, Double> m : e.getMonthlyHours().entrySet()) {
+                text.append("    ").append(m.getKey()).append(": ").append(Math.round(m.getValue())).append(" hrs\n");
+            }
+        }
+        output.setText(text.toString());
+    }
+
+    private void levelResources() {
+        ResourceLeveler.Result result = project.levelResources(ResourceLeveler.PriorityRule.LEAST_TOTAL_FLOAT);
+        java.util.List<ResourceLeveler.Change> changes = result.getChanges();
+        if (changes.isEmpty()) {
+            output.setText("Resource Leveling: no task needs to move.");
+            return;
+        }
+        StringBuilder text = new StringBuilder("Resource Leveling (proposed):\n");
+        for (ResourceLeveler.Change c : changes)
+            text.append(" - ").append(c).append('\n');
+        text.append("Project finish: ").append(Timestamps.format(result.getProjectFinish())).append('\n');
+        output.setText(text.toString());
+        int choice = JOptionPane.showConfirmDialog(this,
+            "Move " + changes.size() + " task(s) to the proposed dates?",
+            "Resource Leveling", JOptionPane.YES_NO_OPTION);
+        if (choice == JOptionPane.YES_OPTION) {
+            result.apply();
+            output.append("Applied.\n");
+        }
     }
 }
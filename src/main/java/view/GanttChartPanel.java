@@ -3,20 +3,31 @@ package view;
 import javax.swing.*;
 import java.awt.*;
 import model.Task;
+import model.analysis.DependencyGraph;
 import java.util.List;
 
 /**
  * Polished time-based Gantt panel.
  * - Left column: "Task N: Title"
  * - Rounded light-blue bars positioned using parsed start/end times
+ * - Elbow connectors from each predecessor's bar end to its successor's bar start
  * - Bottom timeline with ticks and formatted labels
  * - Preferred size computed so JScrollPane shows scrollbars when needed
  */
 public class GanttChartPanel extends JPanel {
+    // axis label formats, built once rather than on every repaint
+    private static final java.time.format.DateTimeFormatter DAY_LABEL = java.time.format.DateTimeFormatter.ofPattern("dd-MM-yyyy");
+    private static final java.time.format.DateTimeFormatter TIME_LABEL = java.time.format.DateTimeFormatter.ofPattern("dd-MM HH:mm");
     private List<Task> tasks;
+    private DependencyGraph graph;
 
     public GanttChartPanel(List<Task> tasks) {
+        this(tasks, tasks == null ? null : DependencyGraph.build(tasks));
+    }
+
+    public GanttChartPanel(List<Task> tasks, DependencyGraph graph) {
         this.tasks = tasks;
+        this.graph = graph;
         setPreferredSize(new Dimension(900, 300));
     }
 
@@ -42,8 +53,8 @@ public class GanttChartPanel extends JPanel {
         long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
         for (int i = 0; i < n; i++) {
             Task t = tasks.get(i);
-            long s = parseToMillis(t.getStart());
-            long e = parseToMillis(t.getEnd());
+            long s = t.getStartMillis();
+            long e = t.getEndMillis();
             if (s <= 0) s = System.currentTimeMillis();
             if (e <= 0) e = s + 60*60*1000;
             starts[i] = s; ends[i] = e;
@@ -101,6 +112,8 @@ public class GanttChartPanel extends JPanel {
     setPreferredSize(new Dimension(xStart + availableWidth + 50, chartHeight));
 
         // Draw task labels and bars
+        int[] barLeft = new int[n];
+        int[] barRight = new int[n];
         int y = topMargin;
         for (int i = 0; i < n; i++) {
             Task t = tasks.get(i);
@@ -113,6 +126,8 @@ public class GanttChartPanel extends JPanel {
             int x2 = xStart + (int)Math.round((ends[i] - min) * pxPerMs);
             if (x2 <= x1) x2 = x1 + 6;
             int w = x2 - x1;
+            barLeft[i] = x1;
+            barRight[i] = x2;
 
             g2.setColor(new Color(158, 209, 255));
             g2.fillRoundRect(x1, y, w, barHeight, 8, 8);
@@ -122,6 +137,24 @@ public class GanttChartPanel extends JPanel {
             y += barHeight + vGap;
         }
 
+        // Dependency connectors: predecessor end -> successor start
+        if (graph != null && graph.size() == n) {
+            g2.setColor(new Color(90, 90, 90));
+            for (int i = 0; i < n; i++) {
+                int yTo = topMargin + i * (barHeight + vGap) + barHeight / 2;
+                for (int k = 0; k < graph.predecessorCount(i); k++) {
+                    int pred = graph.predecessor(i, k);
+                    int yFrom = topMargin + pred * (barHeight + vGap) + barHeight / 2;
+                    int xMid = Math.max(barRight[pred] + 6, Math.min(barLeft[i] - 6, barRight[pred] + 12));
+                    g2.drawLine(barRight[pred], yFrom, xMid, yFrom);
+                    g2.drawLine(xMid, yFrom, xMid, yTo);
+                    g2.drawLine(xMid, yTo, barLeft[i], yTo);
+                    g2.fillPolygon(new int[] {barLeft[i], barLeft[i] - 5, barLeft[i] - 5},
+                                   new int[] {yTo, yTo - 4, yTo + 4}, 3);
+                }
+            }
+        }
+
         // Draw bottom timeline
     int axisY = topMargin + n * (barHeight + vGap) + 10;
     int xEnd = xStart + availableWidth;
@@ -131,9 +164,7 @@ public class GanttChartPanel extends JPanel {
     // tickMs and pxPerMs were computed above based on the viewport and clamped px-per-tick
 
         java.time.ZoneId zid = java.time.ZoneId.systemDefault();
-        java.time.format.DateTimeFormatter fmt = (tickMs >= 24*60*60*1000L)
-                ? java.time.format.DateTimeFormatter.ofPattern("dd-MM-yyyy")
-                : java.time.format.DateTimeFormatter.ofPattern("dd-MM HH:mm");
+        java.time.format.DateTimeFormatter fmt = (tickMs >= 24*60*60*1000L) ? DAY_LABEL : TIME_LABEL;
 
         long firstTick = (min / tickMs) * tickMs;
         if (firstTick < min) firstTick += tickMs;
@@ -154,47 +185,4 @@ public class GanttChartPanel extends JPanel {
             }
         }
     }
-
-    private long parseToMillis(String dateStr) {
-        if (dateStr == null) return -1;
-        dateStr = dateStr.trim();
-        try {
-            java.util.regex.Matcher m = java.util.regex.Pattern.compile("^(\\d{8})(\\d{4})?([+-]\\d{4})?$").matcher(dateStr);
-            if (m.matches()) {
-                String dpart = m.group(1);
-                String tpart = m.group(2);
-                String off = m.group(3);
-                java.time.LocalDate d = java.time.LocalDate.parse(dpart, java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd"));
-                java.time.LocalDateTime ldt;
-                if (tpart != null) {
-                    int hh = Integer.parseInt(tpart.substring(0,2));
-                    int mm = Integer.parseInt(tpart.substring(2,4));
-                    ldt = d.atTime(hh, mm);
-                } else {
-                    ldt = d.atStartOfDay();
-                }
-                if (off != null) {
-                    java.time.ZoneOffset zo = java.time.ZoneOffset.of(off);
-                    java.time.OffsetDateTime odt = java.time.OffsetDateTime.of(ldt, zo);
-                    return odt.toInstant().toEpochMilli();
-                } else {
-                    return ldt.atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli();
-                }
-            }
-        } catch (Exception ex) {}
-        String[] patterns = new String[]{"yyyyMMddHHmm","yyyyMMddHH","yyyy-MM-dd HH:mm","yyyy-MM-dd"};
-        for (String p : patterns) {
-            try {
-                java.time.format.DateTimeFormatter f = java.time.format.DateTimeFormatter.ofPattern(p);
-                if (p.equals("yyyy-MM-dd")) {
-                    java.time.LocalDate ld = java.time.LocalDate.parse(dateStr, f);
-                    return ld.atStartOfDay(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli();
-                } else {
-                    java.time.LocalDateTime ldt = java.time.LocalDateTime.parse(dateStr, f);
-                    return ldt.atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli();
-                }
-            } catch (Exception e) {}
-        }
-        return -1;
-    }
 }
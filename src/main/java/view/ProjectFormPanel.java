@@ -9,6 +9,7 @@ import model.Allocation;
 import model.Project;
 import model.Resource;
 import model.Task;
+import model.analysis.TaskResourceIndex;
 import model.storage.DatabaseInitializer;
 import model.storage.FileProjectStorage;
 import model.storage.SqliteDatabaseStorage;
@@ -257,13 +258,9 @@ public class ProjectFormPanel extends JPanel {
                 }
                 
                 // Check unique ID
-                if (project.getTasks() != null) {
-                    for (Task t : project.getTasks()) {
-                        if (t.getId() == id) {
-                            JOptionPane.showMessageDialog(this, "Task ID must be unique.", "Input Error", JOptionPane.ERROR_MESSAGE);
-                            return;
-                        }
-                    }
+                if (project.findTaskById(id) != null) {
+                    JOptionPane.showMessageDialog(this, "Task ID must be unique.", "Input Error", JOptionPane.ERROR_MESSAGE);
+                    return;
                 }
                 
                 Task t = new Task(id, title, start, end, deps);
@@ -721,7 +718,9 @@ public class ProjectFormPanel extends JPanel {
 
         try {
             if (type.equalsIgnoreCase("tasks")) {
-                FileController.ParseResult<Task> parsed = FileController.loadTasksWithErrors(path);
+                FileController.ParseResult<Task> parsed = new File(path).length() >= FileController.MAPPED_IMPORT_MIN_BYTES
+                        ? FileController.loadTasksMapped(path)
+                        : FileController.loadTasksWithErrors(path);
 
                 if (!parsed.errors.isEmpty()) {
                     JOptionPane.showMessageDialog(this,
@@ -814,7 +813,7 @@ public class ProjectFormPanel extends JPanel {
     // === SHOW FULL TASK TABLE ===
     private void showFullTaskTableDialog() {
         List<Task> tasks = project.getTasks();
-        List<Resource> resources = project.getResources();
+        TaskResourceIndex index = project.getTaskResourceIndex();
         if (tasks == null || tasks.isEmpty()) {
             JOptionPane.showMessageDialog(this, "No tasks available.", "Info", JOptionPane.INFORMATION_MESSAGE);
             return;
@@ -830,7 +829,7 @@ public class ProjectFormPanel extends JPanel {
             data[i][2] = t.getStart();
             data[i][3] = t.getEnd();
             data[i][4] = t.getDependencies();
-            data[i][5] = getResourcesForTask(t, resources);
+            data[i][5] = getResourcesForTask(t, index);
         }
 
         JTable table = new JTable(data, cols);
@@ -839,21 +838,15 @@ public class ProjectFormPanel extends JPanel {
         JOptionPane.showMessageDialog(this, scroll, "Tasks Overview", JOptionPane.PLAIN_MESSAGE);
     }
 
-    private String getResourcesForTask(Task t, List<Resource> resources) {
-        List<String> resNames = new ArrayList<>();
-        if (resources != null) {
-            for (Resource r : resources) {
-                if (r.getAllocations() != null) {
-                    for (Allocation alloc : r.getAllocations()) {
-                        if (alloc.getTaskId() == t.getId()) {
-                            String suffix = (alloc.getLoad() < 100) ? "*" : "";
-                            resNames.add(r.getName() + suffix);
-                        }
-                    }
-                }
-            }
+    private String getResourcesForTask(Task t, TaskResourceIndex index) {
+        StringBuilder resNames = new StringBuilder();
+        int n = index.count(t.getId());
+        for (int k = 0; k < n; k++) {
+            if (k > 0) resNames.append(' ');
+            resNames.append(index.resource(t.getId(), k).getName());
+            if (index.load(t.getId(), k) < 100) resNames.append('*');
         }
-        return String.join(" ", resNames);
+        return resNames.toString();
     }
 
     // === REFRESH METHODS ===
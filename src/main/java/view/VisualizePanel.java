@@ -22,16 +22,21 @@ public class VisualizePanel extends JPanel {
         add(refresh, BorderLayout.NORTH);
 
         // initial chart
-        ganttPanel = new GanttChartPanel(project == null ? null : project.getTasks());
+        ganttPanel = createChart();
         scrollPane = new JScrollPane(ganttPanel, JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED, JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
         add(scrollPane, BorderLayout.CENTER);
 
         refresh.addActionListener(e -> {
             // recreate the gantt panel so it reads current tasks
-            ganttPanel = new GanttChartPanel(project == null ? null : project.getTasks());
+            ganttPanel = createChart();
             scrollPane.setViewportView(ganttPanel);
             revalidate();
             repaint();
         });
     }
+
+    private GanttChartPanel createChart() {
+        if (project == null) return new GanttChartPanel(null);
+        return new GanttChartPanel(project.getTasks(), project.getDependencyGraph());
+    }
 }
@@ -0,0 +1,75 @@
+package test;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import model.Project;
+import model.Task;
+import model.analysis.CriticalPath;
+
+class CriticalPathTest {
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    private Project sampleProject() {
+        Project project = new Project("CPM");
+        project.getTasks().addAll(Arrays.asList(
+            new Task(1, "Design", "2024-01-01", "2024-01-05", ""),
+            new Task(2, "Build", "2024-01-01", "2024-01-03", "1"),
+            new Task(3, "Procure", "2024-01-06", "2024-01-10", "1"),
+            new Task(4, "Integrate", "2024-01-02", "2024-01-04", "2, 3")));
+        return project;
+    }
+
+    @Test
+    void testForwardAndBackwardPass() {
+        Project project = sampleProject();
+        CriticalPath cp = project.analyzeCriticalPath();
+        long jan1 = project.getTasks().get(0).getStartMillis();
+
+        assertFalse(cp.hasCycle());
+        assertEquals(jan1 + 4 * DAY, cp.earliestStart(1), "Build waits for Design");
+        assertEquals(jan1 + 9 * DAY, cp.earliestStart(3), "Integrate waits for Procure");
+        assertEquals(jan1 + 11 * DAY, cp.getProjectFinish());
+
+        assertEquals(DAY, cp.totalFloat(0));
+        assertEquals(0, cp.freeFloat(0));
+        assertEquals(3 * DAY, cp.totalFloat(1));
+        assertEquals(3 * DAY, cp.freeFloat(1));
+        assertTrue(cp.isCritical(2));
+        assertTrue(cp.isCritical(3));
+        assertFalse(cp.isCritical(1));
+
+        assertArrayEquals(new int[] {2, 3}, cp.criticalPath());
+        assertArrayEquals(new int[] {0, 1}, cp.chainTo(1));
+        assertEquals("2024-01-12", project.calculateCriticalPathCompletionTime());
+    }
+
+    @Test
+    void testCycleFallsBackToLatestEnd() {
+        Project project = new Project("Cycle");
+        project.getTasks().add(new Task(1, "A", "2024-01-01", "2024-01-05", "2"));
+        project.getTasks().add(new Task(2, "B", "2024-01-02", "2024-01-08", "1"));
+
+        assertTrue(project.analyzeCriticalPath().hasCycle());
+        assertEquals("2024-01-08", project.calculateCriticalPathCompletionTime());
+    }
+
+    @Test
+    void testLongChain() {
+        int n = 100_000;
+        List<Task> tasks = new ArrayList<>(n);
+        for (int i = 1; i <= n; i++) {
+            tasks.add(new Task(i, "T" + i, "202401010000", "202401010100", i > 1 ? String.valueOf(i - 1) : ""));
+        }
+        CriticalPath cp = CriticalPath.compute(tasks);
+        long start = tasks.get(0).getStartMillis();
+
+        assertEquals(start + n * 60L * 60 * 1000, cp.getProjectFinish());
+        assertEquals(n, cp.criticalPath().length);
+        assertEquals(0, cp.totalFloat(n / 2));
+    }
+}
@@ -0,0 +1,184 @@
+package test;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import controller.FileController;
+import model.Allocation;
+import model.Project;
+import model.Resource;
+import model.Task;
+import model.storage.CsvTokenizer;
+import model.storage.FileProjectStorage;
+
+class CsvTokenizerTest {
+
+    private static List<String> fields(CsvTokenizer csv) {
+        List<String> out = new ArrayList<>();
+        for (int i = 0; i < csv.fieldCount(); i++) out.add(csv.field(i));
+        return out;
+    }
+
+    @Test
+    void testQuotedFieldsAndLineEndings() throws IOException {
+        String text = "1, \"Design, phase 1\" ,2024-01-01\r\n\n2,\"say \"\"hi\"\"\",x\r3,last";
+        try (CsvTokenizer csv = new CsvTokenizer(new StringReader(text))) {
+            assertTrue(csv.nextLine());
+            assertEquals(Arrays.asList("1", "Design, phase 1", "2024-01-01"), fields(csv));
+            assertEquals(1, csv.intField(0));
+            assertTrue(csv.nextLine());
+            assertTrue(csv.isBlank());
+            assertEquals(2, csv.lineNumber());
+            assertTrue(csv.nextLine());
+            assertEquals(Arrays.asList("2", "say \"hi\"", "x"), fields(csv));
+            assertTrue(csv.nextLine());
+            assertEquals("3,last", csv.line());
+            assertEquals(4, csv.lineNumber());
+            assertFalse(csv.nextLine());
+        }
+    }
+
+    @Test
+    void testIntsAreParsedInPlace() throws IOException {
+        try (CsvTokenizer csv = new CsvTokenizer(new StringReader(" -42 , 7:150 ,x1,2147483648,"), ',', false)) {
+            assertTrue(csv.nextLine());
+            assertEquals(5, csv.fieldCount());
+            assertEquals(-42, csv.intField(0));
+            int colon = csv.indexOf(1, ':');
+            assertEquals(1, colon);
+            assertEquals(7, csv.parseInt(1, 0, colon));
+            assertEquals(150, csv.parseInt(1, colon + 1, csv.length(1)));
+            assertEquals(Long.MIN_VALUE, csv.intField(2));
+            assertEquals(Long.MIN_VALUE, csv.intField(3), "out of int range");
+            assertTrue(csv.isEmpty(4));
+        }
+    }
+
+    @Test
+    void testLinesSpanningBlocks() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        String longTitle = "t".repeat(200_000);
+        sb.append("1,").append(longTitle).append("\r\n");
+        for (int i = 2; i <= 20_000; i++) sb.append(i).append(",Task ").append(i).append(i % 2 == 0 ? "\r\n" : "\n");
+        // a reader returning few chars per read puts \r and \n in different blocks
+        Reader trickle = new StringReader(sb.toString()) {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                return super.read(cbuf, off, Math.min(len, 7));
+            }
+        };
+        try (CsvTokenizer csv = new CsvTokenizer(trickle)) {
+            assertTrue(csv.nextLine());
+            assertEquals(longTitle, csv.field(1));
+            for (int i = 2; i <= 20_000; i++) {
+                assertTrue(csv.nextLine());
+                assertEquals(i, csv.intField(0));
+                assertEquals("Task " + i, csv.field(1));
+                assertEquals(i, csv.lineNumber());
+            }
+            assertFalse(csv.nextLine());
+        }
+    }
+
+    @Test
+    void testFileControllerLoaders(@TempDir Path dir) throws IOException {
+        Path tasks = dir.resolve("tasks.csv");
+        Files.writeString(tasks, "id,title,start,end,deps\n"
+            + "1,\"Design, UI\",2024-01-01,2024-01-05\n"
+            + "\n"
+            + "2,Build,2024-01-06,2024-01-09, 1 , , 3\n"
+            + "3,Short\n"
+            + "99999999999,Big,2024-01-01,2024-01-02\n");
+        FileController.ParseResult<Task> pr = FileController.loadTasksWithErrors(tasks.toString());
+        assertEquals(2, pr.items.size());
+        assertEquals("Design, UI", pr.items.get(0).getTitle());
+        assertEquals("1, 3", pr.items.get(1).getDependencies());
+        assertEquals(Arrays.asList(
+            "Line 5: not enough fields (expected id,title,start,end,...)",
+            "Line 6: invalid id '99999999999'"), pr.errors);
+
+        Path resources = dir.resolve("resources.csv");
+        Files.writeString(resources, "# name, allocations\nAlice, 1:50, 2 : 100, bad, 3:x\r\nBob\n");
+        List<Resource> loaded = FileController.loadResources(resources.toString());
+        assertEquals(2, loaded.size());
+        assertEquals("Alice", loaded.get(0).getName());
+        List<Allocation> allocs = loaded.get(0).getAllocations();
+        assertEquals(2, allocs.size());
+        assertEquals(2, allocs.get(1).getTaskId());
+        assertEquals(100, allocs.get(1).getLoad());
+        assertTrue(loaded.get(1).getAllocations().isEmpty());
+    }
+
+    @Test
+    void testTextProjectRoundTrip(@TempDir Path dir) throws Exception {
+        Project project = new Project("Trip");
+        project.getTasks().addAll(Arrays.asList(
+            new Task(1, "A", "2024-01-01", "2024-01-02", ""),
+            new Task(2, "B", "2024-01-03", "2024-01-04", ""),
+            new Task(3, "C", "2024-01-05", "2024-01-06", "1, 2")));
+        project.getResources().add(new Resource("Alice", new ArrayList<>(Arrays.asList(new Allocation(1, 50), new Allocation(3, 100)))));
+        File file = dir.resolve("trip.txt").toFile();
+        FileProjectStorage storage = new FileProjectStorage();
+        storage.saveProjectAsText(project, file);
+
+        Project loaded = storage.loadProjectFromText(file);
+        assertEquals("trip", loaded.getName());
+        assertEquals(3, loaded.getTasks().size());
+        assertEquals("1, 2", loaded.getTasks().get(2).getDependencies(), "every dependency survives, not just the first");
+        assertEquals(2, loaded.getResources().get(0).getAllocations().size());
+        assertEquals(100, loaded.getResources().get(0).getAllocations().get(1).getLoad());
+    }
+
+    @Test
+    void testMappedImportMatchesSequential(@TempDir Path dir) throws IOException {
+        StringBuilder sb = new StringBuilder("id,title,start,end,deps\n");
+        for (int i = 1; i <= 120_000; i++) {
+            if (i % 9973 == 0) sb.append("\n");
+            if (i % 10007 == 0) sb.append(i).append(",broken\n");
+            else if (i % 12289 == 0) sb.append("9").append(i).append("0000000,Big,2024-01-01,2024-01-02\r\n");
+            else sb.append(i).append(",\"Task ").append(i).append(", ok\",2024-03-01,2024-03-0").append(1 + i % 9)
+                .append(',').append(i > 1 ? i - 1 : "").append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        sb.append("120001,no newline at end,2024-03-01,2024-03-02");
+        Path file = dir.resolve("big.csv");
+        Files.writeString(file, sb);
+        assertTrue(Files.size(file) > 4 << 20, "spans several chunks");
+
+        FileController.ParseResult<Task> sequential = FileController.loadTasksWithErrors(file.toString());
+        FileController.ParseResult<Task> mapped = FileController.loadTasksMapped(file.toString());
+        assertEquals(sequential.errors, mapped.errors);
+        assertFalse(mapped.errors.isEmpty());
+        assertEquals(sequential.items.size(), mapped.items.size());
+        for (int i = 0; i < mapped.items.size(); i++) {
+            Task a = sequential.items.get(i), b = mapped.items.get(i);
+            assertEquals(a.getId(), b.getId());
+            assertEquals(a.getTitle(), b.getTitle());
+            assertEquals(a.getEnd(), b.getEnd());
+            assertEquals(a.getDependencies(), b.getDependencies());
+        }
+        assertEquals(120001, mapped.items.get(mapped.items.size() - 1).getId());
+    }
+
+    @Test
+    void testMappedImportOfEmptyAndMissingFiles(@TempDir Path dir) throws IOException {
+        Path empty = dir.resolve("empty.csv");
+        Files.writeString(empty, "");
+        FileController.ParseResult<Task> pr = FileController.loadTasksMapped(empty.toString());
+        assertTrue(pr.items.isEmpty());
+        assertTrue(pr.errors.isEmpty());
+        pr = FileController.loadTasksMapped(dir.resolve("missing.csv").toString());
+        assertEquals(1, pr.errors.size());
+        assertTrue(pr.errors.get(0).startsWith("Error reading tasks file"));
+    }
+}
@@ -0,0 +1,42 @@
+package test;
+
+import java.time.ZoneId;
+import java.util.Random;
+
+import model.Timestamps;
+
+/**
+ * Compares Timestamps.parseToMillis with the regex and DateTimeFormatter
+ * parser it replaced, on a mix of well-formed and bad dates. Not a unit
+ * test; run it with the test classpath:
+ * java -cp target/classes:target/test-classes test.DateParserBenchmark [inputs]
+ */
+public final class DateParserBenchmark {
+    private DateParserBenchmark() {}
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        Random random = new Random(42);
+        String[] inputs = new String[n];
+        for (int i = 0; i < n; i++) inputs[i] = TimestampsTest.randomDate(random);
+        ZoneId zone = ZoneId.systemDefault();
+
+        for (int round = 1; round <= 3; round++) {
+            long t0 = System.nanoTime();
+            long legacySum = 0;
+            for (String s : inputs) legacySum += TimestampsTest.legacyParseToMillis(s, zone);
+            long legacy = System.nanoTime() - t0;
+
+            t0 = System.nanoTime();
+            long sum = 0;
+            for (int k = 0; k < 20; k++) {
+                for (String s : inputs) sum += Timestamps.parseToMillis(s);
+            }
+            long current = (System.nanoTime() - t0) / 20;
+
+            if (sum != legacySum * 20) throw new IllegalStateException("parsers disagree");
+            System.out.printf("round %d: legacy %.0f ns/date, current %.1f ns/date, %.0fx faster%n",
+                round, (double) legacy / n, (double) current / n, (double) legacy / current);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package test;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import controller.FileController;
+import model.Project;
+import model.Task;
+import model.analysis.DependencyGraph;
+
+class DependencyGraphTest {
+
+    @Test
+    void testCsrAdjacency() {
+        List<Task> tasks = Arrays.asList(
+            new Task(10, "A", "2024-01-01", "2024-01-02", ""),
+            new Task(20, "B", "2024-01-02", "2024-01-03", "10"),
+            new Task(30, "C", "2024-01-02", "2024-01-03", " 10 , 20 "));
+        DependencyGraph g = DependencyGraph.build(tasks);
+
+        assertEquals(3, g.edgeCount());
+        assertEquals(2, g.successorCount(0));
+        assertEquals(2, g.predecessorCount(2));
+        assertEquals(0, g.predecessor(1, 0));
+        assertEquals(2, g.indexOf(30));
+        assertEquals(-1, g.indexOf(99));
+        assertArrayEquals(new int[] {0, 1, 2}, g.topologicalOrder());
+        assertFalse(g.hasCycle());
+    }
+
+    @Test
+    void testValidationReportsUnresolvedDependencies() {
+        List<Task> tasks = Arrays.asList(
+            new Task(1, "A", "2024-01-01", "2024-01-02", ""),
+            new Task(2, "B", "2024-01-02", "2024-01-03", "1, x, 7"));
+        FileController.ValidationResult vr = FileController.validateTasks(tasks);
+
+        assertEquals(Arrays.asList(
+            "Task 2: invalid dependency token 'x'",
+            "Task 2: dependency '7' not found among tasks"), vr.errors);
+        assertTrue(vr.validTaskIds.contains(1));
+        assertTrue(vr.invalidTaskIds.contains(2));
+    }
+
+    @Test
+    void testValidationReportsDependencyCycles() {
+        List<Task> tasks = Arrays.asList(
+            new Task(1, "A", "2024-01-01", "2024-01-02", "3"),
+            new Task(2, "B", "2024-01-02", "2024-01-03", "1"),
+            new Task(3, "C", "2024-01-02", "2024-01-03", "2"),
+            new Task(4, "D", "2024-01-03", "2024-01-04", "3"),
+            new Task(5, "E", "2024-01-03", "2024-01-04", "5"));
+        DependencyGraph g = DependencyGraph.build(tasks);
+        assertEquals(2, g.cycles().size());
+        assertArrayEquals(new int[] {0, 1, 2}, g.cycles().get(0));
+        assertArrayEquals(new int[] {4}, g.cycles().get(1), "a task depending on itself");
+
+        FileController.ValidationResult vr = FileController.validateTasks(tasks);
+        assertEquals(Arrays.asList(Arrays.asList(1, 2, 3), Arrays.asList(5)), vr.cycles);
+        assertTrue(vr.errors.contains("Dependency cycle between tasks 1, 2, 3"));
+        assertEquals(new HashSet<>(Arrays.asList(1, 2, 3, 5)), vr.invalidTaskIds);
+        assertEquals(Collections.singleton(4), vr.validTaskIds, "downstream of a cycle, but not on it");
+    }
+
+    @Test
+    void testCycleDetectionHasNoDepthLimit() {
+        int n = 1_000_000;
+        List<Task> tasks = new ArrayList<>(n);
+        // one cycle through every task: 1 <- 2 <- ... <- n <- 1
+        for (int i = 1; i <= n; i++) {
+            tasks.add(new Task(i, "T", "2024-01-01", "2024-01-02", String.valueOf(i == n ? 1 : i + 1)));
+        }
+        List<int[]> cycles = DependencyGraph.build(tasks).cycles();
+        assertEquals(1, cycles.size());
+        assertEquals(n, cycles.get(0).length);
+    }
+
+    @Test
+    void testProjectRebuildsGraphAfterEdits() {
+        Project project = new Project("Graph");
+        Task a = new Task(1, "A", "2024-01-01", "2024-01-02", "");
+        Task b = new Task(2, "B", "2024-01-02", "2024-01-03", "");
+        project.getTasks().addAll(Arrays.asList(a, b));
+
+        DependencyGraph before = project.getDependencyGraph();
+        assertEquals(0, before.edgeCount());
+        assertSame(before, project.getDependencyGraph());
+
+        b.setDependencies("1");
+        assertEquals(1, project.getDependencyGraph().edgeCount());
+
+        a.setDependencies("2");
+        assertTrue(project.getDependencyGraph().hasCycle());
+    }
+}
@@ -0,0 +1,77 @@
+package test;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import controller.AnalysisController;
+import model.Allocation;
+import model.Resource;
+import model.Task;
+import model.analysis.EffortEngine;
+import model.analysis.WorkingCalendar;
+
+class EffortEngineTest {
+    private final List<Task> tasks = Arrays.asList(
+        new Task(1, "Week", "2024-01-29", "2024-02-02", ""),        // Mon..Fri, across a month end
+        new Task(2, "Weekend", "2024-01-06", "2024-01-07", ""),
+        new Task(3, "Into Monday", "202401061000", "202401081200", ""),
+        new Task(4, "Undated", "soon", "later", ""));
+
+    private static Resource resource(String name, Allocation... allocs) {
+        return new Resource(name, new ArrayList<>(Arrays.asList(allocs)));
+    }
+
+    @Test
+    void testHoursFollowCalendarAndLoad() {
+        List<Resource> resources = Arrays.asList(
+            resource("Alice", new Allocation(1, 50), new Allocation(2, 100)),
+            resource("Bob", new Allocation(3, 100), new Allocation(4, 100), new Allocation(99, 100)));
+
+        Map<String, Long> hours = AnalysisController.getEffortHoursPerResource(resources, tasks);
+        assertEquals(List.of("Alice", "Bob"), new ArrayList<>(hours.keySet()));
+        assertEquals(20L, hours.get("Alice"));
+        assertEquals(3L, hours.get("Bob"));
+    }
+
+    @Test
+    void testWeeklyAndMonthlyBreakdowns() {
+        List<EffortEngine.Effort> efforts = AnalysisController.getEffortPerResource(
+            List.of(resource("Alice", new Allocation(1, 50))), tasks, WorkingCalendar.standard());
+        EffortEngine.Effort alice = efforts.get(0);
+
+        assertEquals(Map.of(LocalDate.of(2024, 1, 29), 20.0), alice.getWeeklyHours());
+        assertEquals(Map.of(YearMonth.of(2024, 1), 12.0, YearMonth.of(2024, 2), 8.0), alice.getMonthlyHours());
+    }
+
+    @Test
+    void testParallelTotalMatchesSequentialSum() {
+        List<Task> many = new ArrayList<>();
+        for (int i = 0; i < 200; i++) many.add(new Task(i, "T" + i, "2024-03-0" + (1 + i % 9), "2024-03-2" + (i % 9), ""));
+        List<Resource> resources = new ArrayList<>();
+        for (int r = 0; r < 300; r++) {
+            List<Allocation> allocs = new ArrayList<>();
+            for (int k = 0; k < 20; k++) allocs.add(new Allocation((r * 7 + k) % 200, 10 + (r + k) % 91));
+            resources.add(new Resource("R" + r, allocs));
+        }
+        WorkingCalendar cal = WorkingCalendar.standard();
+        List<EffortEngine.Effort> efforts = AnalysisController.getEffortPerResource(resources, many, cal);
+
+        double expected = 0;
+        for (Resource r : resources) {
+            for (Allocation a : r.getAllocations()) {
+                expected += cal.workingMillis(many.get(a.getTaskId())) * a.getLoad() / (3600_000.0 * 100);
+            }
+        }
+        EffortEngine.Effort total = EffortEngine.total("All", efforts);
+        assertEquals(expected, total.getHours(), 1e-6);
+        assertEquals(expected, total.getMonthlyHours().values().stream().mapToDouble(Double::doubleValue).sum(), 1e-6);
+        assertEquals(expected, total.getWeeklyHours().values().stream().mapToDouble(Double::doubleValue).sum(), 1e-6);
+    }
+}
@@ -0,0 +1,130 @@
+package test;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import controller.AnalysisController;
+import model.Allocation;
+import model.Project;
+import model.Resource;
+import model.Task;
+import model.analysis.EffortEngine;
+import model.analysis.LiveAnalysis;
+import model.analysis.WorkingCalendar;
+
+class LiveAnalysisTest {
+
+    private static String date(Random rnd) {
+        return String.format("2024-%02d-%02d", 1 + rnd.nextInt(3), 1 + rnd.nextInt(28));
+    }
+
+    // ids stay unique: with repeated ids the first task added wins, which a rebuild from list order may not agree with
+    private static int freeId(Project project, Random rnd) {
+        int id;
+        do id = rnd.nextInt(100); while (project.findTaskById(id) != null);
+        return id;
+    }
+
+    private static List<String> effortText(List<EffortEngine.Effort> efforts) {
+        List<String> out = new ArrayList<>();
+        for (EffortEngine.Effort e : efforts) out.add(e + " " + e.getMonthlyHours());
+        return out;
+    }
+
+    private static void assertMatchesFullRecompute(Project project, LiveAnalysis live) {
+        assertEquals(AnalysisController.getOverlappingTasks(project.getTasks()), live.getOverlappingTasks());
+        assertEquals(AnalysisController.countOverlappingTasks(project.getTasks()), live.getOverlapCount());
+        assertEquals(AnalysisController.getProjectCompletionDate(project.getTasks()), live.getProjectCompletionDate());
+        assertEquals(project.findResourceOverallocations(), live.getOverallocations().stream().map(Object::toString).toList());
+        assertEquals(effortText(AnalysisController.getEffortPerResource(project.getResources(), project.getTasks(),
+            WorkingCalendar.standard())), effortText(live.getEffort()));
+    }
+
+    @Test
+    void testResultsFollowRandomEdits() {
+        Random rnd = new Random(42);
+        Project project = new Project("Live");
+        for (int i = 0; i < 60; i++) project.getTasks().add(new Task(i, "T" + i, date(rnd), date(rnd), ""));
+        for (int r = 0; r < 5; r++) {
+            List<Allocation> allocs = new ArrayList<>();
+            for (int k = 0; k < 10; k++) allocs.add(new Allocation(rnd.nextInt(70), 10 + rnd.nextInt(90)));
+            project.getResources().add(new Resource("R" + r, allocs));
+        }
+        LiveAnalysis live = new LiveAnalysis(project);
+        assertMatchesFullRecompute(project, live);
+
+        for (int step = 0; step < 300; step++) {
+            List<Task> tasks = project.getTasks();
+            Task t = tasks.get(rnd.nextInt(tasks.size()));
+            switch (rnd.nextInt(7)) {
+                case 0 -> t.setStart(date(rnd));
+                case 1 -> t.setEnd(rnd.nextInt(10) == 0 ? "not a date" : date(rnd));
+                case 2 -> tasks.add(new Task(freeId(project, rnd), "N" + step, date(rnd), date(rnd), ""));
+                case 3 -> { if (tasks.size() > 10) tasks.remove(t); }
+                case 4 -> t.setId(freeId(project, rnd));
+                case 5 -> {
+                    Resource r = project.getResources().get(rnd.nextInt(project.getResources().size()));
+                    r.getAllocations().get(rnd.nextInt(r.getAllocations().size())).setLoad(10 + rnd.nextInt(90));
+                }
+                default -> {
+                    Resource r = project.getResources().get(rnd.nextInt(project.getResources().size()));
+                    r.getAllocations().add(new Allocation(rnd.nextInt(70), 50));
+                }
+            }
+            assertMatchesFullRecompute(project, live);
+        }
+    }
+
+    @Test
+    void testTaskEditsFollowAllocationMoves() {
+        Project project = new Project("Moves");
+        project.getTasks().add(new Task(1, "A", "2024-01-01", "2024-01-05", ""));
+        project.getTasks().add(new Task(2, "B", "2024-01-01", "2024-01-05", ""));
+        Resource alice = new Resource("Alice", new ArrayList<>(List.of(new Allocation(1, 100))));
+        Resource bob = new Resource("Bob", new int[] {1}, new int[] {50});
+        project.getResources().add(alice);
+        project.getResources().add(bob);
+        LiveAnalysis live = new LiveAnalysis(project);
+        assertMatchesFullRecompute(project, live);
+
+        // edit a task so the map is built, then move allocations to another task
+        project.getTasks().get(0).setEnd("2024-01-08");
+        assertMatchesFullRecompute(project, live);
+        alice.getAllocations().get(0).setTaskId(2);
+        bob.getAllocations().get(0).setTaskId(2);
+        assertMatchesFullRecompute(project, live);
+
+        project.getTasks().get(1).setEnd("2024-01-12");
+        assertMatchesFullRecompute(project, live);
+
+        project.getResources().remove(bob);
+        project.getTasks().get(1).setEnd("2024-01-15");
+        assertMatchesFullRecompute(project, live);
+        project.getResources().add(bob);
+        project.getTasks().get(1).setStart("2024-01-02");
+        assertMatchesFullRecompute(project, live);
+    }
+
+    @Test
+    void testReloadRebuildsResults() {
+        Project project = new Project("Reload");
+        LiveAnalysis live = new LiveAnalysis(project);
+        project.getTasks().add(new Task(1, "A", "2024-01-01", "2024-01-05", ""));
+        project.getTasks().add(new Task(2, "B", "2024-01-03", "2024-01-09", ""));
+        assertEquals(List.of("A ↔ B"), live.getOverlappingTasks());
+
+        List<Task> replacement = new ArrayList<>();
+        replacement.add(new Task(3, "C", "2024-02-01", "2024-02-02", ""));
+        project.setTasks(replacement);
+        assertEquals(List.of(), live.getOverlappingTasks());
+        assertEquals("2024-02-02", live.getProjectCompletionDate());
+
+        live.detach();
+        project.getTasks().add(new Task(4, "D", "2024-02-01", "2024-03-01", ""));
+        assertEquals(List.of(), live.getOverlappingTasks(), "detached analysis no longer follows edits");
+    }
+}
@@ -0,0 +1,84 @@
+package test;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import model.Project;
+import model.Task;
+import model.analysis.CriticalPath;
+import model.analysis.MonteCarloSimulation;
+import model.analysis.ParallelAnalysis;
+
+class MonteCarloSimulationTest {
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    private Project sampleProject() {
+        Project project = new Project("Risk");
+        project.getTasks().addAll(Arrays.asList(
+            new Task(1, "Design", "2024-01-01", "2024-01-05", ""),
+            new Task(2, "Build", "2024-01-01", "2024-01-03", "1"),
+            new Task(3, "Procure", "2024-01-06", "2024-01-10", "1"),
+            new Task(4, "Integrate", "2024-01-02", "2024-01-04", "2, 3")));
+        return project;
+    }
+
+    @Test
+    void testWithoutSpreadEveryRunIsTheCriticalPath() {
+        Project project = sampleProject();
+        MonteCarloSimulation sim = new MonteCarloSimulation(500, 1);
+        sim.setSpread(1, 1);
+        MonteCarloSimulation.Result r = sim.run(project.getTasks(), project.getDependencyGraph(), null);
+        CriticalPath cp = project.analyzeCriticalPath();
+
+        assertEquals(500, r.getIterations());
+        assertEquals(cp.getProjectFinish(), r.getP50());
+        assertEquals(cp.getProjectFinish(), r.getP95());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(cp.isCritical(i) ? 1.0 : 0.0, r.criticalityIndex(i), "task " + i);
+        }
+    }
+
+    @Test
+    void testPercentilesStayWithinTheSpread() {
+        Project project = sampleProject();
+        long jan1 = project.getTasks().get(0).getStartMillis();
+        for (MonteCarloSimulation.Distribution d : MonteCarloSimulation.Distribution.values()) {
+            MonteCarloSimulation sim = new MonteCarloSimulation(5000, 7);
+            sim.setDistribution(d);
+            sim.setSpread(0.5, 2);
+            MonteCarloSimulation.Result r = sim.run(project.getTasks(), project.getDependencyGraph(), null);
+
+            // Procure's planned start pins the chain to at least Jan 6 + 0.5 * (4 + 2) days
+            assertTrue(r.percentile(0) >= jan1 + 5 * DAY + 3 * DAY, d.toString());
+            assertTrue(r.percentile(100) <= jan1 + 4 * 2 * DAY + 4 * 2 * DAY + 2 * 2 * DAY, d.toString());
+            assertTrue(r.getP50() <= r.getP80() && r.getP80() <= r.getP95(), d.toString());
+            assertEquals(1.0, r.criticalityIndex(3), "Integrate always finishes last");
+            assertEquals(0.0, r.criticalityIndex(1), 0.02, "Build rarely drives Integrate");
+        }
+    }
+
+    @Test
+    void testSameSeedGivesSameForecastOnAnyPool() {
+        Random rnd = new Random(16);
+        Project project = new Project("Random");
+        for (int i = 0; i < 300; i++) {
+            String deps = i > 0 ? String.valueOf(1 + rnd.nextInt(i)) : "";
+            int day = 1 + rnd.nextInt(20);
+            project.getTasks().add(new Task(i + 1, "T" + i, String.format("2024-02-%02d", day),
+                String.format("2024-02-%02d", day + rnd.nextInt(8)), deps));
+        }
+        MonteCarloSimulation sim = new MonteCarloSimulation(5000, 42);
+        MonteCarloSimulation.Result sequential = sim.run(project.getTasks(), project.getDependencyGraph(), null);
+        MonteCarloSimulation.Result parallel = new ParallelAnalysis(4).simulate(sim, project.getTasks(),
+            project.getDependencyGraph());
+
+        for (double p : new double[] {0, 50, 80, 95, 100}) assertEquals(sequential.percentile(p), parallel.percentile(p));
+        for (int i = 0; i < 300; i++) assertEquals(sequential.criticalityIndex(i), parallel.criticalityIndex(i));
+        assertEquals(sequential.getP80(), project.simulateCompletion(5000, 42).getP80());
+        assertEquals(Runtime.getRuntime().availableProcessors(), ParallelAnalysis.allCores().getParallelism(),
+            "forecasts use every core, whatever the shared parallelism");
+    }
+}
@@ -0,0 +1,130 @@
+package test;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+import model.Allocation;
+import model.Resource;
+import model.Task;
+import model.analysis.CriticalPath;
+import model.analysis.DependencyGraph;
+import model.analysis.EffortEngine;
+import model.analysis.OverallocationDetector;
+import model.analysis.OverlapEngine;
+import model.analysis.ParallelAnalysis;
+import model.analysis.TaskIdIndex;
+import model.analysis.WorkingCalendar;
+
+class ParallelAnalysisTest {
+    private final ParallelAnalysis parallel = new ParallelAnalysis(4);
+
+    private static List<Task> randomTasks(int n, long seed) {
+        Random rnd = new Random(seed);
+        List<Task> tasks = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int day = 1 + rnd.nextInt(300);
+            int len = rnd.nextInt(4);
+            String start = String.format("2024%02d%02d", 1 + (day - 1) / 28 % 12, 1 + (day - 1) % 28);
+            String end = String.format("2024%02d%02d", 1 + (day - 1) / 28 % 12, Math.min(28, 1 + (day - 1) % 28 + len));
+            // depend on a few earlier tasks so the graph is wide and several levels deep
+            StringBuilder deps = new StringBuilder();
+            if (i >= 3000) {
+                for (int k = 0; k < 2; k++) {
+                    if (k > 0) deps.append(',');
+                    deps.append(rnd.nextInt(i - 2000));
+                }
+            }
+            tasks.add(new Task(i, "T" + i, start, end, deps.toString()));
+        }
+        return tasks;
+    }
+
+    @Test
+    void testOverlapsMatchSequentialSweep() {
+        List<Task> tasks = randomTasks(20_000, 3);
+        OverlapEngine engine = OverlapEngine.forTasks(tasks);
+        long[] expected = engine.pairs();
+        assertArrayEquals(expected, parallel.overlapPairs(tasks));
+        assertEquals(expected.length, parallel.countOverlaps(tasks));
+        assertEquals(expected.length, engine.count());
+    }
+
+    @Test
+    void testCriticalPathMatchesSequentialPasses() {
+        List<Task> tasks = randomTasks(12_000, 5);
+        DependencyGraph graph = DependencyGraph.build(tasks);
+        CriticalPath seq = CriticalPath.compute(tasks, graph);
+        CriticalPath par = parallel.criticalPath(tasks, graph);
+
+        assertEquals(seq.getProjectFinish(), par.getProjectFinish());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(seq.earliestStart(i), par.earliestStart(i));
+            assertEquals(seq.latestFinish(i), par.latestFinish(i));
+            assertEquals(seq.drivingPredecessor(i), par.drivingPredecessor(i));
+        }
+        assertArrayEquals(seq.criticalPath(), par.criticalPath());
+    }
+
+    @Test
+    void testOverallocationsMatchSequentialDetector() {
+        List<Task> tasks = randomTasks(2_000, 11);
+        Random rnd = new Random(11);
+        List<Resource> resources = new ArrayList<>();
+        for (int r = 0; r < 200; r++) {
+            List<Allocation> allocs = new ArrayList<>();
+            for (int k = 0; k < 30; k++) allocs.add(new Allocation(rnd.nextInt(2_000), 20 + rnd.nextInt(81)));
+            resources.add(new Resource("R" + r, allocs));
+        }
+        TaskIdIndex byId = TaskIdIndex.build(tasks);
+        List<String> expected = new ArrayList<>();
+        for (Resource r : resources) {
+            model.analysis.OverallocationDetector.detect(r, byId::get).forEach(o -> expected.add(o.toString()));
+        }
+        List<String> actual = new ArrayList<>();
+        parallel.overallocations(resources, byId::get).forEach(o -> actual.add(o.toString()));
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void testParallelismOneStaysOnTheCallingThread() {
+        List<Task> tasks = randomTasks(2_000, 13);
+        Random rnd = new Random(13);
+        List<Resource> resources = new ArrayList<>();
+        for (int r = 0; r < 500; r++) {
+            List<Allocation> allocs = new ArrayList<>();
+            for (int k = 0; k < 20; k++) allocs.add(new Allocation(rnd.nextInt(2_000), 20 + rnd.nextInt(81)));
+            resources.add(new Resource("R" + r, allocs));
+        }
+        TaskIdIndex byId = TaskIdIndex.build(tasks);
+        Thread caller = Thread.currentThread();
+        Set<Thread> seen = ConcurrentHashMap.newKeySet();
+        IntFunction<Task> lookup = id -> {
+            seen.add(Thread.currentThread());
+            return byId.get(id);
+        };
+
+        ParallelAnalysis sequential = new ParallelAnalysis(1);
+        sequential.overallocations(resources, lookup);
+        sequential.effort(resources, lookup, WorkingCalendar.standard());
+        OverallocationDetector.detect(resources, lookup);
+        EffortEngine.compute(resources, lookup, WorkingCalendar.standard());
+        assertEquals(Set.of(caller), seen);
+
+        seen.clear();
+        List<String> expected = new ArrayList<>();
+        for (EffortEngine.Effort e : EffortEngine.compute(resources, byId::get, WorkingCalendar.standard())) {
+            expected.add(e.toString());
+        }
+        List<String> actual = new ArrayList<>();
+        for (EffortEngine.Effort e : parallel.effort(resources, lookup, WorkingCalendar.standard())) actual.add(e.toString());
+        assertEquals(expected, actual);
+        assertFalse(seen.contains(caller), "a parallel analysis runs on its own pool");
+    }
+}
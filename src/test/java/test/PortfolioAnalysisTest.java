@@ -0,0 +1,85 @@
+package test;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import model.Allocation;
+import model.Project;
+import model.Resource;
+import model.Task;
+import model.analysis.PortfolioAnalysis;
+
+class PortfolioAnalysisTest {
+
+    private static Project sampleProject(String name, int shiftDays) {
+        Project project = new Project(name);
+        String start = String.format("2024-01-%02d", 1 + shiftDays);
+        String end = String.format("2024-01-%02d", 5 + shiftDays);
+        project.getTasks().addAll(Arrays.asList(
+            new Task(1, "Design", start, end, ""),
+            new Task(2, "Review", start, end, "")));
+        project.getResources().add(new Resource("Alice",
+            new ArrayList<>(Arrays.asList(new Allocation(1, 100), new Allocation(2, 50)))));
+        return project;
+    }
+
+    @Test
+    void testReportsStreamInAndAreSummed() throws Exception {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 40; i++) names.add("P" + i);
+        names.add("broken");
+
+        List<PortfolioAnalysis.ProjectReport> seen = Collections.synchronizedList(new ArrayList<>());
+        Thread caller = Thread.currentThread();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        CountDownLatch overlap = new CountDownLatch(2); // released once two loads run at the same time
+        PortfolioAnalysis.Summary summary = new PortfolioAnalysis(20).run(names, name -> {
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                overlap.countDown();
+                overlap.await(5, TimeUnit.SECONDS);
+                Thread.sleep(5); // storage latency
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            if (name.equals("broken")) throw new IOException("no such project");
+            return sampleProject(name, Integer.parseInt(name.substring(1)) % 20);
+        }, report -> {
+            assertSame(caller, Thread.currentThread());
+            seen.add(report);
+        });
+
+        assertEquals(41, seen.size());
+        assertEquals(0, overlap.getCount(), "loads overlap");
+        assertTrue(peak.get() >= 2 && peak.get() <= 20, "concurrent loads: " + peak.get());
+        assertEquals(41, summary.getProjectCount());
+        assertEquals(1, summary.getFailedCount());
+        assertEquals(80, summary.getTaskCount());
+        assertEquals(40, summary.getOverlapCount());
+        assertEquals(40, summary.getOverallocationCount());
+        assertEquals("P19", summary.getLatestProject());
+
+        PortfolioAnalysis.ProjectReport broken = seen.stream().filter(r -> r.getProjectName().equals("broken"))
+            .findFirst().get();
+        assertTrue(broken.isFailed());
+        assertEquals("no such project", broken.getError().getMessage());
+
+        PortfolioAnalysis.ProjectReport one = new PortfolioAnalysis(1).analyze("P0", sampleProject("P0", 0));
+        assertEquals("2024-01-05", one.getCompletionDate());
+        // 5 working days (Mon Jan 1 to Fri Jan 5, the whole end date counts) at 150%
+        assertEquals(5 * 8 * 1.5, one.getEffortHours(), 1e-9);
+        double streamed = 0;
+        for (PortfolioAnalysis.ProjectReport r : seen) streamed += r.getEffortHours();
+        assertEquals(streamed, summary.getEffortHoursByResource().get("Alice"), 1e-6);
+    }
+}
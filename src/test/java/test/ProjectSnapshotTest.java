@@ -0,0 +1,188 @@
+package test;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+import model.Allocation;
+import model.Project;
+import model.ProjectSnapshot;
+import model.Resource;
+import model.Task;
+import model.analysis.CriticalPath;
+import model.analysis.ResourceLeveler;
+
+class ProjectSnapshotTest {
+
+    private Project sampleProject() {
+        Project project = new Project("What-if");
+        project.getTasks().addAll(Arrays.asList(
+            new Task(1, "Design", "2024-01-01", "2024-01-05", ""),
+            new Task(2, "Build", "2024-01-06", "2024-01-10", "1"),
+            new Task(3, "Test", "2024-01-11", "2024-01-12", "2")));
+        project.getResources().add(new Resource("Alice", new ArrayList<>(List.of(new Allocation(1, 100), new Allocation(2, 50)))));
+        return project;
+    }
+
+    @Test
+    void testSnapshotIsUnaffectedByLaterEdits() {
+        Project project = sampleProject();
+        ProjectSnapshot before = project.snapshot();
+
+        project.getTasks().get(1).setEnd("2024-01-20");
+        project.getResources().get(0).getAllocations().get(1).setLoad(80);
+        project.getTasks().add(new Task(4, "Ship", "2024-01-21", "2024-01-22", "3"));
+
+        assertEquals("2024-01-10", before.getTasks().get(1).getEnd());
+        assertEquals(50, before.getResources().get(0).allocationLoad(1));
+        assertEquals(3, before.taskCount());
+        assertEquals("2024-01-12", before.findTaskById(3).getEnd());
+
+        ProjectSnapshot after = project.snapshot();
+        assertEquals("2024-01-20", after.getTasks().get(1).getEnd());
+        assertEquals(80, after.getResources().get(0).allocationLoad(1));
+        assertEquals(4, after.taskCount());
+    }
+
+    @Test
+    void testUneditedTasksAreShared() {
+        Project project = sampleProject();
+        ProjectSnapshot first = project.snapshot();
+        assertSame(first, project.snapshot(), "no edits, nothing to copy");
+
+        project.getTasks().get(2).setTitle("QA");
+        ProjectSnapshot second = project.snapshot();
+        assertSame(first.getTasks().get(0), second.getTasks().get(0));
+        assertSame(first.getTasks().get(1), second.getTasks().get(1));
+        assertNotSame(first.getTasks().get(2), second.getTasks().get(2));
+        assertSame(first.getResources().get(0), second.getResources().get(0));
+        assertEquals("QA", second.getTasks().get(2).getTitle());
+    }
+
+    @Test
+    void testScenarioDoesNotTouchItsParent() {
+        Project project = sampleProject();
+        ProjectSnapshot base = project.snapshot();
+        // what if Build slips two weeks?
+        ProjectSnapshot slip = base.withTask(1, t -> t.setEnd("2024-01-24"));
+
+        assertEquals("2024-01-10", base.getTasks().get(1).getEnd());
+        assertEquals("2024-01-24", slip.getTasks().get(1).getEnd());
+        assertSame(base.getTasks().get(0), slip.getTasks().get(0));
+
+        CriticalPath cp = slip.analyzeCriticalPath();
+        assertEquals(slip.getTasks().get(1).getEndMillis(), cp.earliestStart(2), "Test waits for the late Build");
+        assertEquals(base.getTasks().get(2).getStartMillis(), base.analyzeCriticalPath().earliestStart(2));
+        assertEquals("2024-01-10", project.getTasks().get(1).getEnd(), "the live project is untouched");
+    }
+
+    @Test
+    void testFrozenTasksAndResourcesRejectEdits() {
+        ProjectSnapshot snap = sampleProject().snapshot();
+        Task frozen = snap.getTasks().get(0);
+        assertTrue(frozen.isFrozen());
+        assertThrows(UnsupportedOperationException.class, () -> frozen.setTitle("x"));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.setId(9));
+        assertThrows(UnsupportedOperationException.class, () -> snap.getTasks().remove(0));
+        Resource r = snap.getResources().get(0);
+        assertThrows(UnsupportedOperationException.class, () -> r.setName("Bob"));
+        assertThrows(UnsupportedOperationException.class, () -> r.getAllocations().add(new Allocation(3, 10)));
+        assertThrows(UnsupportedOperationException.class, () -> r.getAllocations().remove(0));
+        assertThrows(UnsupportedOperationException.class, () -> r.getAllocations().get(0).setLoad(99));
+        assertThrows(UnsupportedOperationException.class, () -> r.getAllocations().get(0).setResourceName("Bob"));
+    }
+
+    @Test
+    void testRestoreRoundTripsAllocations() {
+        Project project = sampleProject();
+        project.getResources().add(new Resource("Bob", new ArrayList<>(List.of(
+            new Allocation(3, 7, "Bob", 40), new Allocation(1, 7, "Bob", 60), new Allocation(3, 7, "Bob", 20)))));
+        Resource packed = new Resource("Carol", new int[] {2, 1}, new int[] {30, 70});
+        project.getResources().add(packed);
+        String before = project.getResources().toString();
+
+        project.restore(project.snapshot());
+        assertEquals(before, project.getResources().toString(), "same order, ids, names and loads");
+        assertFalse(project.getResources().get(1).isPacked());
+        assertTrue(project.getResources().get(2).isPacked());
+
+        Resource bob = project.getResources().get(1);
+        bob.getAllocations().get(0).setLoad(99);
+        assertEquals(99, bob.allocationLoad(0));
+        assertEquals(7, bob.getAllocations().get(0).getResourceId());
+    }
+
+    @Test
+    void testRestoreAndLevelingScenario() {
+        Project project = sampleProject();
+        project.getResources().get(0).getAllocations().add(new Allocation(3, 100));
+        project.getTasks().get(2).setStart("2024-01-10");
+        ProjectSnapshot base = project.snapshot();
+        assertFalse(base.detectResourceOverallocations().isEmpty());
+
+        ProjectSnapshot leveled = base.withLeveling(base.levelResources(ResourceLeveler.PriorityRule.LEAST_TOTAL_FLOAT));
+        assertTrue(leveled.detectResourceOverallocations().isEmpty());
+        assertFalse(base.detectResourceOverallocations().isEmpty());
+
+        project.restore(leveled);
+        assertTrue(project.detectResourceOverallocations().isEmpty());
+        assertFalse(project.getTasks().get(0).isFrozen());
+        project.getTasks().get(0).setTitle("Editable again");
+        assertEquals("Design", leveled.getTasks().get(0).getTitle());
+    }
+
+    @Test
+    void testLongHistoryOfScenariosMatchesAList() {
+        Random rnd = new Random(17);
+        Project project = new Project("Big");
+        LocalDate day = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < 5000; i++) {
+            project.getTasks().add(new Task(i + 1, "T" + i, day.toString(), day.plusDays(2).toString(), ""));
+        }
+        ProjectSnapshot snap = project.snapshot();
+        List<String> expected = new ArrayList<>();
+        for (Task t : project.getTasks()) expected.add(t.getTitle());
+        for (int k = 0; k < 3000; k++) {
+            int op = rnd.nextInt(10);
+            if (op == 0) {
+                snap = snap.withTaskAdded(new Task(10_000 + k, "A" + k, "2024-02-01", "2024-02-02", ""));
+                expected.add("A" + k);
+            } else if (op == 1 && !expected.isEmpty()) {
+                int i = rnd.nextInt(expected.size());
+                snap = snap.withoutTask(i);
+                expected.remove(i);
+            } else {
+                int i = rnd.nextInt(expected.size());
+                String title = "E" + k;
+                snap = snap.withTask(i, t -> t.setTitle(title));
+                expected.set(i, title);
+            }
+        }
+        List<String> actual = new ArrayList<>();
+        for (Task t : snap.getTasks()) actual.add(t.getTitle());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void testAnalysisOnSnapshotWhileProjectIsEdited() throws Exception {
+        Project project = sampleProject();
+        for (int i = 4; i < 2000; i++) {
+            project.getTasks().add(new Task(i, "T" + i, "2024-02-01", "2024-02-03", String.valueOf(i - 1)));
+        }
+        ProjectSnapshot snap = project.snapshot();
+        long expected = snap.analyzeCriticalPath().getProjectFinish();
+        CompletableFuture<Long> finish = CompletableFuture.supplyAsync(() -> {
+            long f = 0;
+            for (int k = 0; k < 20; k++) f = snap.analyzeCriticalPath().getProjectFinish();
+            return f;
+        });
+        for (int k = 0; k < 2000; k++) project.getTasks().get(k % 1000).setEnd("2024-03-0" + (1 + k % 9));
+        assertEquals(expected, finish.get());
+    }
+}
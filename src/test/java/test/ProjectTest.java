@@ -72,4 +72,194 @@ class ProjectTest {
         String completionTime = project.calculateProjectCompletionTime();
         assertNull(completionTime);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testOverlapSweepMatchesPairwiseCheck() {
+        java.util.Random rnd = new java.util.Random(42);
+        for (int i = 0; i < 300; i++) {
+            int s = rnd.nextInt(28) + 1;
+            int e = s + rnd.nextInt(5);
+            project.getTasks().add(new model.Task(i, "T" + i,
+                String.format("2024-02-%02d", s), String.format("2024-02-%02d", Math.min(e, 29)), ""));
+        }
+
+        List<String> expected = new ArrayList<>();
+        List<model.Task> tasks = project.getTasks();
+        for (int i = 0; i < tasks.size(); i++) {
+            for (int j = i + 1; j < tasks.size(); j++) {
+                model.Task a = tasks.get(i), b = tasks.get(j);
+                if (a.overlapsWith(b)) {
+                    expected.add(String.format("OVERLAP: '%s' (%s-%s) and '%s' (%s-%s) overlap",
+                        a.getTitle(), a.getStart(), a.getEnd(), b.getTitle(), b.getStart(), b.getEnd()));
+                }
+            }
+        }
+
+        assertEquals(expected, project.findOverlappingTasks());
+        assertEquals(expected.size(), project.countOverlappingTasks());
+    }
+
+    @Test
+    void testTouchingTasksOverlap() {
+        project.getTasks().add(new model.Task(1, "Task 1", "2024-01-01", "2024-01-10", ""));
+        project.getTasks().add(new model.Task(2, "Task 2", "2024-01-10", "2024-01-20", ""));
+        project.getTasks().add(new model.Task(3, "Task 3", "2024-01-21", "2024-01-22", ""));
+
+        assertEquals(1, project.countOverlappingTasks());
+        assertEquals(List.of("Task 1 ↔ Task 2"), controller.AnalysisController.getOverlappingTasks(project.getTasks()));
+    }
+
+    @Test
+    void testOverlapsForTaskFollowsEdits() {
+        model.Task task1 = new model.Task(1, "Task 1", "2024-01-01", "2024-01-10", "");
+        model.Task task2 = new model.Task(2, "Task 2", "2024-01-05", "2024-01-15", "");
+        model.Task task3 = new model.Task(3, "Task 3", "2024-02-01", "2024-02-10", "");
+        project.getTasks().addAll(Arrays.asList(task1, task2, task3));
+
+        assertEquals(1, project.findOverlapsForTask(1).size());
+        assertTrue(project.findOverlapsForTask(3).isEmpty());
+
+        // edit through the model: index must pick up the new dates
+        task3.setStart("2024-01-08");
+        assertEquals(2, project.findOverlapsForTask(3).size());
+
+        project.getTasks().remove(task2);
+        assertEquals(1, project.findOverlapsForTask(1).size());
+        assertTrue(project.findOverlapsForTask(1).get(0).contains("Task 3"));
+
+        // mixed formats compare chronologically
+        project.getTasks().add(new model.Task(4, "Task 4", "20240109", "202401091800", ""));
+        assertEquals(3, project.findTasksActiveBetween("2024-01-09", "2024-01-09").size());
+        assertTrue(project.findTasksActiveBetween("2024-03-01", "2024-03-31").isEmpty());
+    }
+
+    @Test
+    void testMixedDateFormatsCompareChronologically() {
+        model.Task task1 = new model.Task(1, "Task 1", "20240110", "20240120", "");
+        model.Task task2 = new model.Task(2, "Task 2", "2024-01-15", "2024-01-25", "");
+        project.getTasks().addAll(Arrays.asList(task1, task2));
+
+        assertTrue(task1.overlapsWith(task2));
+        assertEquals(1, project.findOverlappingTasks().size());
+        assertEquals("2024-01-25", project.calculateProjectCompletionTime());
+        assertEquals("20240110", project.getProjectStartDate());
+
+        // the original text is kept for round-tripping
+        task2.setEnd("202401261200");
+        assertEquals("202401261200", task2.getEnd());
+        assertEquals(controller.FileController.parseToMillis("202401261200"), task2.getEndMillis());
+    }
+
+    @Test
+    void testOverallocationAcrossThreeAllocations() {
+        project.getTasks().add(new model.Task(1, "Task 1", "2024-01-01", "2024-01-10", ""));
+        project.getTasks().add(new model.Task(2, "Task 2", "2024-01-05", "2024-01-15", ""));
+        project.getTasks().add(new model.Task(3, "Task 3", "2024-01-08", "2024-01-20", ""));
+        project.getResources().add(new model.Resource("Ahmed", new ArrayList<>(Arrays.asList(
+            new model.Allocation(1, 40), new model.Allocation(2, 40), new model.Allocation(3, 40)))));
+        project.getResources().add(new model.Resource("Ayesha", new ArrayList<>(Arrays.asList(
+            new model.Allocation(1, 50), new model.Allocation(3, 50)))));
+
+        List<model.analysis.OverallocationDetector.Overallocation> found = project.detectResourceOverallocations();
+        assertEquals(1, found.size(), "pairs only reach 80%, all three together reach 120%");
+        model.analysis.OverallocationDetector.Overallocation o = found.get(0);
+        assertEquals("Ahmed", o.getResourceName());
+        assertEquals(120, o.getPeakLoad());
+        assertEquals(project.getTasks().get(2).getStartMillis(), o.getFrom());
+        assertEquals(project.getTasks().get(0).getEndMillis(), o.getTo());
+        assertEquals(3, o.getTaskIds().length);
+        assertTrue(project.findResourceOverallocations().get(0).contains("up to 120%"));
+    }
+
+    @Test
+    void testTaskLookupByIdFollowsEdits() {
+        model.Task task1 = new model.Task(1, "Task 1", "2024-01-01", "2024-01-10", "");
+        model.Task task2 = new model.Task(2, "Task 2", "2024-01-05", "2024-01-15", "");
+        project.getTasks().addAll(Arrays.asList(task1, task2));
+
+        assertSame(task2, project.findTaskById(2));
+        assertNull(project.findTaskById(3));
+
+        task2.setId(3);
+        assertNull(project.findTaskById(2));
+        assertSame(task2, project.findTaskById(3));
+
+        model.Task clash = new model.Task(1, "Clash", "2024-01-01", "2024-01-02", "");
+        project.getTasks().add(clash);
+        assertEquals(java.util.Set.of(1), project.getDuplicateTaskIds());
+        assertSame(task1, project.findTaskById(1));
+
+        project.getTasks().remove(task1);
+        assertSame(clash, project.findTaskById(1));
+        assertTrue(project.getDuplicateTaskIds().isEmpty());
+    }
+
+    @Test
+    void testTaskIdIndexMatchesHashMap() {
+        java.util.Random rnd = new java.util.Random(7);
+        model.analysis.TaskIdIndex index = new model.analysis.TaskIdIndex();
+        java.util.Map<Integer, model.Task> expected = new java.util.HashMap<>();
+        for (int step = 0; step < 20000; step++) {
+            int id = rnd.nextInt(2000) - 1000;
+            model.Task existing = expected.get(id);
+            if (existing != null && rnd.nextBoolean()) {
+                index.remove(existing);
+                expected.remove(id);
+            } else if (existing == null) {
+                model.Task t = new model.Task(id, "T", "2024-01-01", "2024-01-02", "");
+                index.add(t);
+                expected.put(id, t);
+            }
+        }
+        assertEquals(expected.size(), index.size());
+        for (int id = -1000; id < 1000; id++) {
+            assertSame(expected.get(id), index.get(id));
+        }
+    }
+
+    @Test
+    void testTeamIndexFollowsResourceEdits() {
+        model.Resource alice = new model.Resource("Alice", new java.util.ArrayList<>(java.util.List.of(
+            new model.Allocation(1, 50), new model.Allocation(2, 100), new model.Allocation(1, 30))));
+        model.Resource bob = new model.Resource("Bob", new java.util.ArrayList<>(java.util.List.of(
+            new model.Allocation(1, 100))));
+        project.getResources().add(alice);
+        project.getResources().add(bob);
+
+        assertEquals(java.util.List.of("Alice", "Bob"),
+            controller.AnalysisController.getTeamForTask(1, project.getTaskResourceIndex()));
+        assertEquals(controller.AnalysisController.getTeamForTask(1, project.getResources()),
+            controller.AnalysisController.getTeamForTask(1, project.getTaskResourceIndex()));
+        assertEquals(3, project.getTaskResourceIndex().count(1));
+        assertEquals(30, project.getTaskResourceIndex().load(1, 1));
+
+        bob.getAllocations().get(0).setTaskId(2);
+        assertEquals(java.util.List.of("Alice", "Bob"),
+            controller.AnalysisController.getTeamForTask(2, project.getTaskResourceIndex()));
+
+        alice.getAllocations().clear();
+        project.getResources().remove(bob);
+        assertEquals(0, project.getTaskResourceIndex().count(1));
+        assertEquals(0, project.getTaskResourceIndex().count(2));
+    }
+
+    @Test
+    void testOverlapVisitorSeesEveryListedPair() {
+        for (int i = 0; i < 50; i++) {
+            project.getTasks().add(new model.Task(100 + i, "V" + i, String.format("2024-02-%02d", 1 + i % 20),
+                String.format("2024-02-%02d", 3 + i % 20), ""));
+        }
+        java.util.Set<String> visited = new java.util.HashSet<>();
+        project.forEachOverlap((a, b) -> visited.add(a.getTitle() + " ↔ " + b.getTitle()));
+        long[] count = {0};
+        controller.AnalysisController.forEachOverlappingPair(project.getTasks(), (i, j) -> {
+            assertTrue(i < j);
+            count[0]++;
+        });
+
+        List<String> listed = controller.AnalysisController.getOverlappingTasks(project.getTasks());
+        assertEquals(new java.util.HashSet<>(listed), visited);
+        assertEquals(listed.size(), count[0]);
+        assertEquals(project.countOverlappingTasks(), count[0]);
+    }
+}
@@ -0,0 +1,96 @@
+package test;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import model.Allocation;
+import model.Project;
+import model.Resource;
+import model.Task;
+import model.Timestamps;
+import model.analysis.ResourceContentionIndex;
+
+class ResourceContentionIndexTest {
+
+    private static Project project(String name, String start, String end, int load) {
+        Project p = new Project(name);
+        p.getTasks().add(new Task(1, name + " work", start, end, ""));
+        p.getResources().add(new Resource("Ahmed", new ArrayList<>(List.of(new Allocation(1, load)))));
+        return p;
+    }
+
+    private static long at(String date) { return Timestamps.parseToMillis(date); }
+
+    @Test
+    void testLoadAddsUpAcrossProjects() {
+        ResourceContentionIndex index = new ResourceContentionIndex();
+        index.putProject(project("Alpha", "2024-01-01", "2024-01-10", 100));
+        index.putProject(project("Beta", "2024-01-05", "2024-01-15", 100));
+        index.putProject(project("Gamma", "2024-01-08", "2024-01-09", 100));
+
+        assertEquals(300, index.peakLoad("Ahmed", at("2024-01-01"), at("2024-01-31")));
+        assertEquals(200, index.peakLoad("Ahmed", at("2024-01-05"), at("2024-01-07")));
+        assertEquals(100, index.peakLoad("Ahmed", at("2024-01-11"), at("2024-01-20")));
+        assertEquals(0, index.peakLoad("Ahmed", at("2024-02-01"), at("2024-02-02")));
+        assertEquals(0, index.peakLoad("Nobody", at("2024-01-01"), at("2024-01-31")));
+        assertEquals(1, index.bookings("Ahmed", at("2024-01-11"), at("2024-01-20")).size());
+        assertEquals("Beta", index.bookings("Ahmed", at("2024-01-11"), at("2024-01-20")).get(0).getProjectName());
+
+        List<ResourceContentionIndex.Contention> windows = index.contentions();
+        assertEquals(1, windows.size());
+        ResourceContentionIndex.Contention c = windows.get(0);
+        assertEquals(at("2024-01-05"), c.getFrom());
+        assertEquals(at("2024-01-10"), c.getTo());
+        assertEquals(300, c.getPeakLoad());
+        assertEquals(Arrays.asList("Alpha", "Beta", "Gamma"), c.getProjectNames());
+    }
+
+    @Test
+    void testSingleProjectOverloadIsNotContention() {
+        ResourceContentionIndex index = new ResourceContentionIndex();
+        Project p = new Project("Solo");
+        p.getTasks().add(new Task(1, "A", "2024-01-01", "2024-01-05", ""));
+        p.getTasks().add(new Task(2, "B", "2024-01-02", "2024-01-03", ""));
+        p.getResources().add(new Resource("Ahmed", new int[] {1, 2}, new int[] {100, 100}));
+        index.putProject(p);
+        assertEquals(200, index.peakLoad("Ahmed", at("2024-01-01"), at("2024-01-05")));
+        assertTrue(index.contentions().isEmpty());
+    }
+
+    @Test
+    void testWritesUpdateTheIndexInPlace() {
+        ResourceContentionIndex index = new ResourceContentionIndex();
+        index.putProject(project("Alpha", "2024-01-01", "2024-01-10", 60));
+        index.putProject(project("Beta", "2024-01-05", "2024-01-15", 60));
+        assertEquals(1, index.contentions("Ahmed").size());
+
+        // Beta's task moves after Alpha's
+        index.putTask("Beta", new Task(1, "Beta work", "2024-01-11", "2024-01-15", ""));
+        assertTrue(index.contentions().isEmpty());
+        assertEquals(60, index.peakLoad("Ahmed", at("2024-01-01"), at("2024-01-31")));
+
+        // a new allocation in Beta overlapping Alpha again
+        index.putTask("Beta", new Task(2, "Beta prep", "2024-01-09", "2024-01-10", ""));
+        index.putResource("Beta", new Resource("Ahmed", new ArrayList<>(List.of(new Allocation(2, 50)))));
+        assertEquals(110, index.peakLoad("Ahmed", at("2024-01-09"), at("2024-01-09")));
+        assertEquals(1, index.contentions().size());
+
+        // the load of an existing allocation is replaced, not added
+        index.putResource("Beta", new Resource("Ahmed", new ArrayList<>(List.of(new Allocation(2, 40)))));
+        assertTrue(index.contentions().isEmpty());
+
+        index.putProject(project("Alpha", "2024-01-01", "2024-01-10", 100));
+        assertEquals(1, index.contentions().size());
+        index.removeTask(2);
+        assertTrue(index.contentions().isEmpty());
+
+        index.removeResource("Ahmed");
+        assertTrue(index.getResourceNames().isEmpty());
+        index.removeProject("Alpha");
+        assertEquals(0, index.peakLoad("Ahmed", Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+}
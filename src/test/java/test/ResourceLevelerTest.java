@@ -0,0 +1,101 @@
+package test;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import model.Project;
+import model.Resource;
+import model.Task;
+import model.Timestamps;
+import model.analysis.DependencyGraph;
+import model.analysis.ResourceLeveler;
+
+class ResourceLevelerTest {
+
+    @Test
+    void testSlackTaskMovesOutOfTheConflict() {
+        Project project = new Project("Level");
+        project.getTasks().addAll(Arrays.asList(
+            new Task(1, "Design", "2024-01-01", "2024-01-05", ""),
+            new Task(2, "Docs", "2024-01-03", "2024-01-04", ""),
+            new Task(3, "Build", "2024-01-08", "2024-01-12", "1")));
+        project.getResources().add(new Resource("Alice", new int[] {1, 2}, new int[] {100, 50}));
+        assertFalse(project.findResourceOverallocations().isEmpty());
+
+        ResourceLeveler.Result result = project.levelResources(ResourceLeveler.PriorityRule.LEAST_TOTAL_FLOAT);
+        assertEquals(1, result.getChanges().size());
+        ResourceLeveler.Change moved = result.getChanges().get(0);
+        assertEquals(2, moved.getTask().getId(), "the critical task keeps its dates");
+        assertEquals("2024-01-06", Timestamps.format(moved.getNewStart()), "closed intervals: the day after Design ends");
+        assertEquals("2024-01-07", Timestamps.format(moved.getNewEnd()));
+        assertFalse(moved.isBeyondFloat());
+        assertEquals("2024-01-03", project.getTasks().get(1).getStart(), "nothing changes before apply");
+
+        result.apply();
+        assertEquals("2024-01-06", project.getTasks().get(1).getStart());
+        assertTrue(project.findResourceOverallocations().isEmpty());
+    }
+
+    @Test
+    void testDelayPushesSuccessorsAndIsReportedBeyondFloat() {
+        Project project = new Project("Chain");
+        project.getTasks().addAll(Arrays.asList(
+            new Task(1, "A", "2024-01-01", "2024-01-03", ""),
+            new Task(2, "B", "2024-01-01", "2024-01-03", ""),
+            new Task(3, "C", "2024-01-03", "2024-01-04", "2")));
+        project.getResources().add(new Resource("Bob", new int[] {1, 2}, new int[] {100, 100}));
+
+        ResourceLeveler.Result result = project.levelResources(ResourceLeveler.PriorityRule.TASK_ORDER);
+        assertEquals("2024-01-04", Timestamps.format(result.startMillis(1)));
+        assertEquals("2024-01-06", Timestamps.format(result.startMillis(2)), "successor follows its moved predecessor");
+        assertEquals(2, result.getChanges().size());
+        assertTrue(result.getChanges().get(0).isBeyondFloat());
+        assertEquals("2024-01-07", Timestamps.format(result.getProjectFinish()));
+    }
+
+    @Test
+    void testRandomPlanLevelsWithoutBreakingDependencies() {
+        Random rnd = new Random(15);
+        Project project = new Project("Random");
+        int n = 2000;
+        for (int i = 0; i < n; i++) {
+            LocalDate day = LocalDate.of(2024, 1, 1).plusDays(rnd.nextInt(60));
+            String start = day.toString();
+            String end = day.plusDays(rnd.nextInt(5)).toString();
+            String deps = i > 0 && rnd.nextInt(3) == 0 ? String.valueOf(1 + rnd.nextInt(i)) : "";
+            project.getTasks().add(new Task(i + 1, "T" + i, start, end, deps));
+        }
+        for (int r = 0; r < 40; r++) {
+            int[] ids = new int[60];
+            int[] loads = new int[60];
+            for (int k = 0; k < ids.length; k++) {
+                // distinct tasks per resource: one task cannot be leveled against itself
+                ids[k] = 1 + k * (n / ids.length) + rnd.nextInt(n / ids.length);
+                loads[k] = 10 * (1 + rnd.nextInt(10));
+            }
+            project.getResources().add(new Resource("R" + r, ids, loads));
+        }
+        long[] before = new long[n];
+        for (int i = 0; i < n; i++) before[i] = project.getTasks().get(i).getStartMillis();
+
+        for (ResourceLeveler.PriorityRule rule : ResourceLeveler.PriorityRule.values()) {
+            ResourceLeveler.Result result = project.levelResources(rule);
+            for (int i = 0; i < n; i++) assertTrue(result.startMillis(i) >= before[i], rule + ": tasks only move later");
+        }
+
+        project.levelResources(ResourceLeveler.PriorityRule.LEAST_TOTAL_FLOAT).apply();
+        assertEquals(List.of(), project.findResourceOverallocations());
+        List<Task> tasks = project.getTasks();
+        DependencyGraph graph = project.getDependencyGraph();
+        for (int i = 0; i < n; i++) {
+            for (int k = 0; k < graph.predecessorCount(i); k++) {
+                assertTrue(tasks.get(i).getStartMillis() >= tasks.get(graph.predecessor(i, k)).getEndMillis());
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package test;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import model.Allocation;
+import model.Project;
+import model.Resource;
+import model.Task;
+
+class ResourceTest {
+
+    private static List<Integer> taskIds(Resource r) {
+        List<Integer> ids = new ArrayList<>();
+        r.forEachAllocation((taskId, load) -> ids.add(taskId));
+        return ids;
+    }
+
+    @Test
+    void testPackedAllocationsStaySortedByTask() {
+        Resource r = new Resource("Alice", new int[] {7, 3, 7, 1}, new int[] {10, 20, 30, 40});
+        assertTrue(r.isPacked());
+        assertEquals(List.of(1, 3, 7, 7), taskIds(r));
+        assertEquals(30, r.allocationLoad(3), "equal task ids keep their order");
+        assertEquals(40, r.loadOn(7));
+        assertEquals(-1, r.loadOn(5));
+        assertTrue(r.isAllocatedTo(3));
+
+        r.getAllocations().add(new Allocation(5, 50));
+        r.getAllocations().remove(0);
+        assertEquals(List.of(3, 5, 7, 7), taskIds(r));
+        assertEquals(4, r.getAllocations().size());
+        assertEquals(50, r.getAllocations().get(1).getLoad());
+
+        r.getAllocations().set(1, new Allocation(9, 60));
+        assertEquals(List.of(3, 7, 7, 9), taskIds(r));
+    }
+
+    @Test
+    void testPackedElementsWriteThrough() {
+        Resource r = new Resource("Alice", new int[] {1, 3, 7}, new int[] {10, 20, 30});
+        Project p = new Project("P");
+        p.getResources().add(r);
+        p.getTasks().add(new Task(3, "T3", "2024-01-01", "2024-01-05", ""));
+        p.getTasks().add(new Task(9, "T9", "2024-01-01", "2024-01-05", ""));
+
+        Allocation a = r.getAllocations().get(1);
+        a.setLoad(99);
+        assertEquals(99, r.loadOn(3));
+        assertEquals(99, a.getLoad());
+
+        a.setTaskId(9);
+        assertEquals(List.of(1, 7, 9), taskIds(r));
+        assertEquals(9, a.getTaskId(), "the element follows its allocation to the new position");
+        assertEquals(99, a.getLoad());
+        assertTrue(p.getTaskResourceIndex().resourcesFor(9).contains(r));
+        assertFalse(p.getTaskResourceIndex().resourcesFor(3).contains(r));
+
+        assertThrows(UnsupportedOperationException.class, () -> a.setResourceName("Bob"));
+        r.getAllocations().remove(0);
+        assertEquals(99, a.getLoad(), "the element finds its allocation again after an edit elsewhere");
+        a.setLoad(98);
+        assertEquals(98, r.loadOn(9));
+
+        r.getAllocations().remove(a);
+        assertEquals(98, a.getLoad(), "a removed element keeps its last values");
+        assertThrows(IllegalStateException.class, () -> a.setLoad(1));
+    }
+
+    @Test
+    void testPackedElementsCanBeFoundAgain() {
+        Resource r = new Resource("Alice", new int[] {7, 3, 7, 1}, new int[] {10, 20, 30, 40});
+        List<Allocation> allocations = r.getAllocations();
+        Allocation third = allocations.get(2);
+        assertEquals(2, allocations.indexOf(third));
+        assertTrue(allocations.contains(third));
+        assertEquals(third, allocations.get(2));
+        assertFalse(allocations.contains(new Allocation(7, 10)), "plain allocations compare by identity, as in list form");
+
+        allocations.set(0, new Allocation(9, 50));
+        assertEquals(7, third.getTaskId(), "an edit at another index leaves the element usable");
+        assertEquals(10, third.getLoad());
+
+        assertTrue(allocations.remove(third));
+        assertEquals(List.of(3, 7, 9), taskIds(r));
+        assertEquals(30, r.loadOn(7));
+        assertFalse(allocations.remove(third));
+    }
+
+    @Test
+    void testPackingKeepsAnalysisResults() {
+        Random rnd = new Random(1);
+        Project listed = new Project("Listed");
+        Project packed = new Project("Packed");
+        for (int i = 0; i < 40; i++) {
+            String start = String.format("2024-01-%02d", 1 + rnd.nextInt(20));
+            String end = String.format("2024-01-%02d", 21 + rnd.nextInt(8));
+            listed.getTasks().add(new Task(i, "T" + i, start, end, ""));
+            packed.getTasks().add(new Task(i, "T" + i, start, end, ""));
+        }
+        for (int r = 0; r < 4; r++) {
+            List<Allocation> allocs = new ArrayList<>();
+            List<Allocation> same = new ArrayList<>();
+            for (int k = 0; k < 12; k++) {
+                int task = rnd.nextInt(45), load = 10 + rnd.nextInt(60);
+                allocs.add(new Allocation(task, load));
+                same.add(new Allocation(task, load));
+            }
+            listed.getResources().add(new Resource("R" + r, allocs));
+            Resource p = new Resource("R" + r, same);
+            p.packAllocations();
+            packed.getResources().add(p);
+        }
+
+        assertEquals(controller.AnalysisController.getEffortHoursPerResource(listed.getResources(), listed.getTasks()),
+            controller.AnalysisController.getEffortHoursPerResource(packed.getResources(), packed.getTasks()));
+        assertEquals(listed.detectResourceOverallocations().size(), packed.detectResourceOverallocations().size());
+        for (int id = 0; id < 45; id++) {
+            assertEquals(controller.AnalysisController.getTeamForTask(id, listed.getResources()),
+                controller.AnalysisController.getTeamForTask(id, packed.getTaskResourceIndex()));
+        }
+
+        // edits through the packed view still reach the project's indexes
+        packed.getResources().get(0).getAllocations().add(new Allocation(44, 100));
+        assertTrue(packed.getTaskResourceIndex().resourcesFor(44).contains(packed.getResources().get(0)));
+    }
+}
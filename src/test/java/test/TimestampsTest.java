@@ -0,0 +1,122 @@
+package test;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import model.Timestamps;
+
+class TimestampsTest {
+
+    /** The regex and DateTimeFormatter parser Timestamps used to have, kept as the reference. */
+    static long legacyParseToMillis(String dateStr, ZoneId zone) {
+        if (dateStr == null) return -1;
+        dateStr = dateStr.trim();
+        try {
+            Matcher m = Pattern.compile("^(\\d{8})(\\d{4})?([+-]\\d{4})?$").matcher(dateStr);
+            if (m.matches()) {
+                LocalDate d = LocalDate.parse(m.group(1), DateTimeFormatter.ofPattern("yyyyMMdd"));
+                String tpart = m.group(2);
+                LocalDateTime ldt = tpart != null
+                    ? d.atTime(Integer.parseInt(tpart.substring(0, 2)), Integer.parseInt(tpart.substring(2, 4)))
+                    : d.atStartOfDay();
+                if (m.group(3) != null) {
+                    return OffsetDateTime.of(ldt, ZoneOffset.of(m.group(3))).toInstant().toEpochMilli();
+                }
+                return ldt.atZone(zone).toInstant().toEpochMilli();
+            }
+        } catch (Exception ex) {}
+        String[] patterns = new String[]{"yyyyMMddHHmm", "yyyyMMddHH", "yyyy-MM-dd HH:mm", "yyyy-MM-dd"};
+        for (String p : patterns) {
+            try {
+                DateTimeFormatter f = DateTimeFormatter.ofPattern(p);
+                if (p.equals("yyyy-MM-dd")) {
+                    return LocalDate.parse(dateStr, f).atStartOfDay(zone).toInstant().toEpochMilli();
+                }
+                return LocalDateTime.parse(dateStr, f).atZone(zone).toInstant().toEpochMilli();
+            } catch (Exception e) {}
+        }
+        return -1;
+    }
+
+    private static String two(int v) { return v < 10 ? "0" + v : String.valueOf(v); }
+
+    /** Mostly well-formed dates with fields pushed over their limits, plus some noise. */
+    static String randomDate(Random r) {
+        int year = r.nextInt(20) == 0 ? new int[] {0, 1, 9999, 1600}[r.nextInt(4)] : 1900 + r.nextInt(200);
+        String y = String.format("%04d", year);
+        String mo = two(r.nextInt(14));
+        String d = two(r.nextInt(10) == 0 ? r.nextInt(33) : 28 + r.nextInt(5));
+        String h = two(r.nextInt(26));
+        String mi = two(r.nextInt(8) == 0 ? 55 + r.nextInt(7) : r.nextInt(60));
+        String off = (r.nextBoolean() ? "+" : "-") + two(r.nextInt(20)) + two(new int[] {0, 30, 45, 59, 60}[r.nextInt(5)]);
+        String s;
+        switch (r.nextInt(9)) {
+            case 0: s = y + mo + d; break;
+            case 1: s = y + mo + d + h; break;
+            case 2: s = y + mo + d + h + mi; break;
+            case 3: s = y + mo + d + off; break;
+            case 4: s = y + mo + d + h + mi + off; break;
+            case 5: s = y + "-" + mo + "-" + d; break;
+            case 6: s = y + "-" + mo + "-" + d + " " + h + ":" + mi; break;
+            case 7: s = y + mo + d + h + off; break;
+            default:
+                char[] c = (y + "-" + mo + "-" + d + " " + h + ":" + mi).toCharArray();
+                c[r.nextInt(c.length)] = "0123456789-+: xT".charAt(r.nextInt(16));
+                s = new String(c, 0, 8 + r.nextInt(c.length - 7));
+        }
+        if (r.nextInt(10) == 0) s = " " + s + "\t";
+        return s;
+    }
+
+    @Test
+    void testSupportedFormats() {
+        ZoneId utc = ZoneId.of("UTC");
+        assertEquals(1704067200000L, Timestamps.parseToMillis("20240101", utc));
+        assertEquals(1704067200000L, Timestamps.parseToMillis(" 2024-01-01 ", utc));
+        assertEquals(1704103200000L, Timestamps.parseToMillis("2024-01-01 10:00", utc));
+        assertEquals(1704103200000L, Timestamps.parseToMillis("202401011000", utc));
+        assertEquals(1704103200000L, Timestamps.parseToMillis("2024010110", utc));
+        assertEquals(1704099600000L, Timestamps.parseToMillis("202401011000+0100", utc));
+        assertEquals(1704153600000L, Timestamps.parseToMillis("2024-01-01 24:00", utc), "24:00 is the next midnight");
+        assertEquals(Timestamps.parseToMillis("2023-02-28", utc), Timestamps.parseToMillis("2023-02-31", utc), "days past the month end clamp");
+        for (String bad : new String[] {null, "", "soon", "2024-1-01", "2024-13-01", "2024-01-32", "0000-01-01",
+                "2024-01-01 23:60", "2024-01-01 24:30", "202401012400+0000", "20240101+1830", "2024-01-01T10:00"}) {
+            assertEquals(-1, Timestamps.parseToMillis(bad, utc), String.valueOf(bad));
+        }
+    }
+
+    @Test
+    void testMatchesLegacyParserAcrossZones() {
+        Random random = new Random(11);
+        for (String id : new String[] {"UTC", "Europe/London", "America/New_York", "Australia/Lord_Howe", "Asia/Kolkata"}) {
+            ZoneId zone = ZoneId.of(id);
+            for (int i = 0; i < 15_000; i++) {
+                String s = randomDate(random);
+                assertEquals(legacyParseToMillis(s, zone), Timestamps.parseToMillis(s, zone), id + " \"" + s + "\"");
+            }
+        }
+    }
+
+    @Test
+    void testDaylightSavingTransitions() {
+        ZoneId london = ZoneId.of("Europe/London");
+        for (String s : new String[] {"2024-03-31 00:30", "2024-03-31 01:30", "2024-03-31 02:00", "2024-10-27 01:30",
+                "2024-10-27 02:00", "2024-10-26 23:59", "202403310130", "20241027"}) {
+            assertEquals(legacyParseToMillis(s, london), Timestamps.parseToMillis(s, london), s);
+        }
+        ZoneId lordHowe = ZoneId.of("Australia/Lord_Howe"); // 30 minute DST shift
+        for (String s : new String[] {"2024-04-07 01:45", "2024-10-06 02:15", "2024-10-06 02:45"}) {
+            assertEquals(legacyParseToMillis(s, lordHowe), Timestamps.parseToMillis(s, lordHowe), s);
+        }
+    }
+}
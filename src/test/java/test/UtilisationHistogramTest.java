@@ -0,0 +1,113 @@
+package test;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedMap;
+
+import model.Project;
+import model.Resource;
+import model.Task;
+import model.analysis.UtilisationHistogram;
+import model.analysis.WorkingCalendar;
+
+class UtilisationHistogramTest {
+
+    @Test
+    void testDailyLoadsAndOverCapacityDays() {
+        Project project = new Project("Heat");
+        project.getTasks().addAll(Arrays.asList(
+            new Task(1, "Design", "2024-01-01", "2024-01-05", ""),
+            new Task(2, "Docs", "2024-01-04", "2024-01-09", ""),
+            new Task(3, "Undated", "soon", "later", "")));
+        project.getResources().add(new Resource("Alice", new int[] {1, 2, 3}, new int[] {80, 50, 100}));
+        project.getResources().add(new Resource("Bob", new int[] {2}, new int[] {100}));
+
+        UtilisationHistogram h = project.buildUtilisationHistogram();
+        assertEquals(LocalDate.of(2024, 1, 1), h.getFirstDay());
+        assertEquals(LocalDate.of(2024, 1, 9), h.getLastDay());
+        assertEquals(9, h.dayCount());
+        assertArrayEquals(new int[] {80, 80, 80, 130, 130, 50, 50, 50, 50}, h.row(0), "closed intervals: both end days count");
+        assertEquals(0, h.load(1, LocalDate.of(2024, 1, 3)));
+        assertEquals(100, h.load(1, LocalDate.of(2024, 1, 9)));
+        assertEquals(0, h.load(0, LocalDate.of(2024, 2, 1)), "outside the range");
+
+        assertEquals(2, h.daysOverCapacity(0));
+        assertEquals(0, h.daysOverCapacity(1), "exactly 100% is not over");
+        assertEquals(Arrays.asList(LocalDate.of(2024, 1, 4), LocalDate.of(2024, 1, 5)), h.overloadedDays(0));
+        assertEquals(1, h.daysOverCapacity(0, 4, 8));
+        assertEquals((80 * 3 + 130 * 2) / 5.0, h.averageLoad(0, 0, 4), 1e-9);
+        assertThrows(IndexOutOfBoundsException.class, () -> h.averageLoad(0, 3, 9));
+    }
+
+    @Test
+    void testWeeklyAverages() {
+        Project project = new Project("Weeks");
+        // 2024-01-01 is a Monday; the task runs through Wednesday of the next week
+        project.getTasks().add(new Task(1, "Build", "2024-01-01", "2024-01-10", ""));
+        project.getResources().add(new Resource("Carol", new int[] {1}, new int[] {60}));
+        UtilisationHistogram h = project.buildUtilisationHistogram();
+
+        SortedMap<LocalDate, Double> all = h.weeklyAverages(0, null);
+        assertEquals(Arrays.asList(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 8)), new ArrayList<>(all.keySet()));
+        assertEquals(60.0, all.get(LocalDate.of(2024, 1, 1)), 1e-9);
+
+        WorkingCalendar calendar = WorkingCalendar.standard().withHolidays(List.of(LocalDate.of(2024, 1, 2)));
+        SortedMap<LocalDate, Double> working = h.weeklyAverages(0, calendar);
+        assertEquals(60.0, working.get(LocalDate.of(2024, 1, 1)), 1e-9);
+        assertEquals(60.0, working.get(LocalDate.of(2024, 1, 8)), 1e-9);
+    }
+
+    @Test
+    void testEmptyProject() {
+        UtilisationHistogram h = new Project("Empty").buildUtilisationHistogram();
+        assertEquals(0, h.dayCount());
+        assertNull(h.getFirstDay());
+    }
+
+    @Test
+    void testMatchesDayByDayScan() {
+        Random random = new Random(7);
+        Project project = new Project("Random");
+        LocalDate base = LocalDate.of(2024, 3, 1);
+        for (int id = 1; id <= 300; id++) {
+            LocalDate start = base.plusDays(random.nextInt(200));
+            LocalDate end = start.plusDays(random.nextInt(15));
+            project.getTasks().add(new Task(id, "T" + id, start.toString(), end.toString(), ""));
+        }
+        for (int r = 0; r < 12; r++) {
+            int n = 1 + random.nextInt(40);
+            int[] ids = new int[n];
+            int[] loads = new int[n];
+            for (int k = 0; k < n; k++) {
+                ids[k] = 1 + random.nextInt(320); // some ids match no task
+                loads[k] = 10 + random.nextInt(90);
+            }
+            project.getResources().add(new Resource("R" + r, ids, loads));
+        }
+
+        UtilisationHistogram h = project.buildUtilisationHistogram();
+        for (int r = 0; r < h.resourceCount(); r++) {
+            Resource res = project.getResources().get(r);
+            int over = 0;
+            for (int d = 0; d < h.dayCount(); d++) {
+                LocalDate day = h.getFirstDay().plusDays(d);
+                int expected = 0;
+                for (int k = 0; k < res.allocationCount(); k++) {
+                    Task t = project.findTaskById(res.allocationTaskId(k));
+                    if (t == null) continue;
+                    LocalDate s = LocalDate.parse(t.getStart()), e = LocalDate.parse(t.getEnd());
+                    if (!day.isBefore(s) && !day.isAfter(e)) expected += res.allocationLoad(k);
+                }
+                assertEquals(expected, h.load(r, d), res.getName() + " on " + day);
+                if (expected > 100) over++;
+            }
+            assertEquals(over, h.daysOverCapacity(r));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package test;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+
+import model.Allocation;
+import model.Project;
+import model.Resource;
+import model.Task;
+import model.analysis.EffortEngine;
+import model.analysis.WorkingCalendar;
+
+class WorkingCalendarTest {
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    private static final long HOUR = 60L * 60 * 1000;
+
+    private static long local(LocalDate d, int hour) { return d.toEpochDay() * DAY + hour * HOUR; }
+
+    @Test
+    void testProjectDurationCountsRealDays() {
+        Project project = new Project("Duration");
+        project.getTasks().add(new Task(1, "A", "2025-09-30", "2025-10-01", ""));
+        assertEquals(1, project.calculateProjectDuration());
+
+        project.getTasks().add(new Task(2, "B", "20251001", "202510201200", ""));
+        assertEquals(20, project.calculateProjectDuration());
+        // Tue 30 Sep through Mon 20 Oct 2025
+        assertEquals(15, project.calculateProjectWorkingDays(WorkingCalendar.standard()));
+        assertEquals(14, project.calculateProjectWorkingDays(
+            WorkingCalendar.standard().withHolidays(List.of(LocalDate.of(2025, 10, 3)))));
+
+        assertEquals(-1, new Project("Empty").calculateProjectDuration());
+    }
+
+    @Test
+    void testHolidaysAndExtraDays() {
+        WorkingCalendar cal = WorkingCalendar.standard()
+            .withHolidays(List.of(LocalDate.of(2024, 12, 25), LocalDate.of(2024, 12, 26), LocalDate.of(2024, 12, 28)))
+            .withExtraWorkingDays(List.of(LocalDate.of(2024, 12, 21)));
+        assertFalse(cal.isWorkingDay(LocalDate.of(2024, 12, 25)));
+        assertTrue(cal.isWorkingDay(LocalDate.of(2024, 12, 21)), "a worked Saturday");
+        assertFalse(cal.isWorkingDay(LocalDate.of(2024, 12, 28)), "a holiday on a weekend changes nothing");
+
+        // Sat 21 Dec (worked) to Fri 27 Dec: 21, 23, 24, 27
+        assertEquals(4, cal.workingDays(LocalDate.of(2024, 12, 21), LocalDate.of(2024, 12, 27)));
+        assertEquals(LocalDate.of(2024, 12, 27), cal.addWorkingDays(LocalDate.of(2024, 12, 23), 2));
+        assertEquals(LocalDate.of(2024, 12, 30), cal.addWorkingDays(LocalDate.of(2024, 12, 24), 2));
+        assertEquals(LocalDate.of(2024, 12, 24), cal.addWorkingDays(LocalDate.of(2024, 12, 24), 0));
+
+        // 10 working hours from Tue 24 Dec 15:00: 2h that day, then 8h on the 27th
+        long end = cal.addWorkingMillis(local(LocalDate.of(2024, 12, 24), 15), 10 * HOUR);
+        assertEquals(local(LocalDate.of(2024, 12, 27), 17), end);
+        assertEquals(local(LocalDate.of(2024, 12, 27), 10),
+            cal.addWorkingMillis(local(LocalDate.of(2024, 12, 24), 15), 3 * HOUR));
+    }
+
+    @Test
+    void testOffsetsBefore1970() {
+        // epoch days are negative here, so the searches must not use unsigned midpoints
+        WorkingCalendar cal = WorkingCalendar.standard().withHolidays(List.of(LocalDate.of(1960, 1, 11)));
+        LocalDate friday = LocalDate.of(1960, 1, 1);
+        LocalDate end = assertTimeoutPreemptively(java.time.Duration.ofSeconds(5), () -> cal.addWorkingDays(friday, 10));
+        assertEquals(LocalDate.of(1960, 1, 18), end, "Jan 4-8 and 12-15 and 18, skipping the holiday on the 11th");
+        assertEquals(10, cal.workingDays(friday.plusDays(1), end));
+
+        long perDay = cal.getWorkingMillisPerDay();
+        long from = local(LocalDate.of(1959, 12, 31), 12);
+        long work = 7 * perDay + HOUR;
+        long to = assertTimeoutPreemptively(java.time.Duration.ofSeconds(5), () -> cal.addWorkingMillis(from, work));
+        assertEquals(work, cal.workingMillis(from, to));
+        assertTrue(cal.workingMillis(from, to - 1) < work, "earliest such position");
+        assertTrue(to < 0, "still before the epoch");
+    }
+
+    @Test
+    void testLookupsMatchDayByDayCounting() {
+        Random rnd = new Random(21);
+        for (int round = 0; round < 20; round++) {
+            EnumSet<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+            for (DayOfWeek d : DayOfWeek.values()) if (rnd.nextInt(3) > 0) days.add(d);
+            if (days.isEmpty()) days.add(DayOfWeek.WEDNESDAY);
+            LocalDate base = LocalDate.of(2024, 1, 1);
+            List<LocalDate> off = new ArrayList<>();
+            List<LocalDate> on = new ArrayList<>();
+            for (int k = 0; k < 30; k++) off.add(base.plusDays(rnd.nextInt(400)));
+            for (int k = 0; k < 10; k++) on.add(base.plusDays(rnd.nextInt(400)));
+            WorkingCalendar cal = new WorkingCalendar(LocalTime.of(8, 0), LocalTime.of(16, 30), days, ZoneOffset.UTC)
+                .withHolidays(off).withExtraWorkingDays(on);
+            long perDay = cal.getWorkingMillisPerDay();
+
+            for (int q = 0; q < 50; q++) {
+                LocalDate a = base.plusDays(rnd.nextInt(400));
+                LocalDate b = a.plusDays(rnd.nextInt(60));
+                long brute = 0;
+                for (LocalDate d = a; !d.isAfter(b); d = d.plusDays(1)) if (cal.isWorkingDay(d)) brute++;
+                assertEquals(brute, cal.workingDays(a, b));
+                assertEquals(brute * perDay, cal.workingMillis(a.toEpochDay() * DAY, (b.toEpochDay() + 1) * DAY));
+
+                long from = a.toEpochDay() * DAY + rnd.nextInt(24) * HOUR;
+                long work = 1 + (long) (rnd.nextDouble() * 20 * perDay);
+                long to = cal.addWorkingMillis(from, work);
+                assertEquals(work, cal.workingMillis(from, to));
+                assertTrue(cal.workingMillis(from, to - 1) < work, "earliest such position");
+
+                long n = rnd.nextInt(30);
+                LocalDate later = cal.addWorkingDays(a, n);
+                assertEquals(n, cal.workingDays(a.plusDays(1), later));
+                if (n > 0) assertTrue(cal.isWorkingDay(later));
+            }
+        }
+    }
+
+    @Test
+    void testEffortUsesEachResourcesCalendar() {
+        Task week = new Task(1, "Week", "2024-01-29", "2024-02-02", "");
+        Resource alice = new Resource("Alice", new ArrayList<>(List.of(new Allocation(1, 100))));
+        Resource bob = new Resource("Bob", new ArrayList<>(List.of(new Allocation(1, 100))));
+        WorkingCalendar company = WorkingCalendar.standard();
+        WorkingCalendar bobsLeave = company.withHolidays(List.of(LocalDate.of(2024, 1, 31), LocalDate.of(2024, 2, 1)));
+
+        List<EffortEngine.Effort> effort = EffortEngine.compute(List.of(alice, bob), id -> week,
+            r -> r == bob ? bobsLeave : company);
+        assertEquals(40.0, effort.get(0).getHours(), 1e-9);
+        assertEquals(24.0, effort.get(1).getHours(), 1e-9);
+    }
+}